@@ -0,0 +1,67 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escaping of attribute values: paths and names without special characters, which are returned as is,
+ * and free text parameters with special characters
+ *
+ * @since 10/18/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EscapeXmlAttributeBenchmark {
+    private static final int COUNT = 1000;
+
+    @Param({"plain", "special"})
+    public String text;
+
+    private String[] values;
+
+    @Setup
+    public void setUp() {
+        String alphabet = "special".equals(text) ? "abcdefghij/.-_ &<>\"'\r\n\t" : "abcdefghijklmnopqrstuvwxyz0123456789/.-_";
+        Random random = new Random(42);
+        values = new String[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            char[] chars = new char[20 + random.nextInt(60)];
+            for (int k = 0; k < chars.length; k++)
+                chars[k] = alphabet.charAt(random.nextInt(alphabet.length()));
+            values[i] = new String(chars);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void escapeXmlAttribute(Blackhole blackhole) {
+        for (String value : values)
+            blackhole.consume(Util.escapeXmlAttribute(value));
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole dependency search of the reactor: detection, reactor closure and transitive resolution
+ * of the shared libraries from the file repository
+ *
+ * @since 10/18/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolverBenchmark {
+    @Param({"20", "100"})
+    public int modules;
+
+    @Param({"3"})
+    public int fanOut;
+
+    @Param({"5"})
+    public int depth;
+
+    @Param({"200"})
+    public int libraries;
+
+    private File directory;
+    private SyntheticReactor reactor;
+
+    @Setup
+    public void setUp() throws Exception {
+        directory = SyntheticReactor.createDirectory();
+        reactor = new SyntheticReactor(directory, modules, fanOut, depth, libraries, 5, 3);
+    }
+
+    @TearDown
+    public void tearDown() {
+        reactor.dispose(directory);
+    }
+
+    @Benchmark
+    public Map<MavenProject, ArtifactDependencyResolver.DependencyData> findDependencies() throws Exception {
+        // a new resolver each time, so the metadata cache starts empty as in a plugin run
+        return reactor.createResolver().findDependencies(reactor.getProjects());
+    }
+}
@@ -0,0 +1,159 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end scale test: generates reactors of the given sizes on disk with libraries in the local repository,
+ * runs the idea, list and clean goals in offline mode against each of them and records wall time,
+ * peak heap and output size. The report is printed and written to scale-report.json in the work directory.
+ * <p/>
+ * Usage: {@code java -cp target/benchmarks.jar com.github.zhve.ideaplugin.ScaleHarness <work directory> [sizes]}
+ * <p/>
+ * System properties: harness.mvn (mvn), harness.plugin (com.github.zhve:idea-maven-plugin:3.0b1),
+ * harness.localRepository (repository in the work directory), harness.libraries (1000), harness.fanOut (3),
+ * harness.depth (10), harness.args (additional arguments of each goal, e.g. -DresolveThreads=4)
+ * <p/>
+ * The default local repository keeps the synthetic libraries out of ~/.m2/repository, the plugin is read from there
+ * as the tail of the local repository (maven.repo.local.tail, Maven 3.9 or later).
+ *
+ * @since 10/18/2026
+ */
+public class ScaleHarness {
+    private static final String[] GOALS = {"idea", "list", "clean"};
+    private static final Pattern PEAK_HEAP = Pattern.compile("\"peakHeapBytes\": (\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: ScaleHarness <work directory> [sizes, default 100,1000,5000]");
+            System.exit(2);
+        }
+        File directory = new File(args[0]).getAbsoluteFile();
+        String mvn = System.getProperty("harness.mvn", "mvn");
+        String plugin = System.getProperty("harness.plugin", "com.github.zhve:idea-maven-plugin:3.0b1");
+        String localRepositoryPath = System.getProperty("harness.localRepository");
+        File localRepository = localRepositoryPath != null ? new File(localRepositoryPath).getAbsoluteFile() : new File(directory, "repository");
+        int libraries = Integer.getInteger("harness.libraries", 1000);
+        int fanOut = Integer.getInteger("harness.fanOut", 3);
+        int depth = Integer.getInteger("harness.depth", 10);
+        String extraArgs = System.getProperty("harness.args", "").trim();
+
+        // libraries are shared by all reactors, they have their own groupId in the local repository
+        System.out.println("Write " + libraries + " libraries to " + localRepository);
+        SyntheticReactor.writeLibraries(localRepository, libraries, 3);
+
+        List<String> results = new ArrayList<String>();
+        System.out.println();
+        System.out.println(String.format("%8s %6s %10s %14s %14s %10s", "modules", "goal", "seconds", "peak heap MB", "workspace KB", "log KB"));
+        for (String size : (args.length > 1 ? args[1] : "100,1000,5000").split(",")) {
+            int modules = Integer.parseInt(size.trim());
+            File reactor = new File(directory, "reactor-" + modules);
+            Util.deleteFileOrDirectory(SilentLog.INSTANCE, reactor);
+            writeReactor(reactor, SyntheticReactor.createModels(modules, fanOut, depth, libraries, 5));
+
+            for (String goal : GOALS) {
+                List<String> command = new ArrayList<String>(Arrays.asList(mvn, "-B", "-o", "-Dmaven.repo.local=" + localRepository, plugin + ":" + goal, "-Dprofile=true"));
+                if (localRepositoryPath == null)
+                    command.add("-Dmaven.repo.local.tail=" + new File(System.getProperty("user.home"), ".m2/repository"));
+                if (!extraArgs.isEmpty())
+                    command.addAll(Arrays.asList(extraArgs.split("\\s+")));
+                File profile = new File(reactor, "target/idea-plugin/profile.json");
+                profile.delete();
+                File log = new File(reactor, goal + ".log");
+
+                long start = System.nanoTime();
+                Process process = new ProcessBuilder(command).directory(reactor).redirectErrorStream(true).redirectOutput(log).start();
+                int exitCode = process.waitFor();
+                long millis = (System.nanoTime() - start) / 1000000;
+                if (exitCode != 0)
+                    throw new IllegalStateException(goal + " failed on " + modules + " modules, see " + log);
+
+                // clean doesn't resolve dependencies, so it has no profile
+                long peakHeap = -1;
+                if (profile.isFile()) {
+                    Matcher matcher = PEAK_HEAP.matcher(Util.readText(profile));
+                    if (matcher.find())
+                        peakHeap = Long.parseLong(matcher.group(1));
+                }
+                long workspaceBytes = getWorkspaceSize(reactor);
+                System.out.println(String.format("%8d %6s %10.2f %14s %14d %10d", modules, goal, millis / 1000.0, peakHeap < 0 ? "-" : String.valueOf(peakHeap >> 20), workspaceBytes >> 10, log.length() >> 10));
+                results.add("  {\"modules\": " + modules + ", \"goal\": \"" + goal + "\", \"millis\": " + millis + ", \"peakHeapBytes\": " + peakHeap + ", \"workspaceBytes\": " + workspaceBytes + ", \"logBytes\": " + log.length() + "}");
+            }
+        }
+
+        StringBuilder report = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++)
+            report.append(results.get(i)).append(i + 1 < results.size() ? ",\n" : "\n");
+        report.append("]\n");
+        File reportFile = new File(directory, "scale-report.json");
+        Util.writeText(reportFile, report.toString());
+        System.out.println();
+        System.out.println("Report " + reportFile);
+    }
+
+    /**
+     * @param reactor directory of the root module
+     * @param models  root model followed by the module models
+     */
+    private static void writeReactor(File reactor, List<Model> models) throws Exception {
+        MavenXpp3Writer writer = new MavenXpp3Writer();
+        for (Model model : models) {
+            File basedir = model == models.get(0) ? reactor : new File(reactor, model.getArtifactId());
+            StringWriter pom = new StringWriter();
+            writer.write(pom, model);
+            Util.writeText(new File(basedir, "pom.xml"), pom.toString());
+        }
+    }
+
+    /**
+     * @return total size of the iml, ipr and iws files of the reactor
+     */
+    private static long getWorkspaceSize(File reactor) {
+        long size = 0;
+        File[] directories = reactor.listFiles();
+        List<File> files = new ArrayList<File>();
+        if (directories != null) {
+            for (File child : directories) {
+                if (child.isDirectory()) {
+                    File[] moduleFiles = child.listFiles();
+                    if (moduleFiles != null)
+                        files.addAll(Arrays.asList(moduleFiles));
+                } else
+                    files.add(child);
+            }
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isFile() && (name.endsWith(".iml") || name.endsWith(".ipr") || name.endsWith(".iws")))
+                size += file.length();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,307 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.DefaultArtifactRepository;
+import org.apache.maven.artifact.repository.layout.ArtifactRepositoryLayout;
+import org.apache.maven.artifact.resolver.ArtifactResolver;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.DefaultPlexusContainer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Reproducible reactor for benchmarks: a root module and N modules in layers, each module depends on modules
+ * of the previous layer and on shared libraries. Libraries form trees of transitive dependencies and are
+ * written as POMs and empty jars to a file repository, which is used as the local repository,
+ * so the resolution never goes to the network.
+ *
+ * @since 10/18/2026
+ */
+class SyntheticReactor {
+    private static final String MODULE_GROUP_ID = "org.example.reactor";
+    private static final String LIBRARY_GROUP_ID = "org.example.library";
+    private static final String VERSION = "1.0";
+
+    private final DefaultPlexusContainer container;
+    private final ArtifactFactory artifactFactory;
+    private final ArtifactResolver artifactResolver;
+    private final ArtifactMetadataSource artifactMetadataSource;
+    private final ArtifactRepository localRepository;
+    private final List<MavenProject> projects = new ArrayList<MavenProject>();
+    private final Map<Artifact, ArtifactDependencyResolver.DependencyData> declaredDependencies = new HashMap<Artifact, ArtifactDependencyResolver.DependencyData>();
+
+    /**
+     * @param directory            directory for the module directories and the file repository
+     * @param modules              number of modules besides the root
+     * @param fanOut               number of modules of the previous layer each module depends on
+     * @param depth                number of module layers
+     * @param libraries            number of shared libraries
+     * @param librariesPerModule   number of libraries each module depends on directly
+     * @param libraryBranching     number of direct dependencies of each library inside its tree
+     */
+    public SyntheticReactor(File directory, int modules, int fanOut, int depth, int libraries, int librariesPerModule, int libraryBranching) throws Exception {
+        container = new DefaultPlexusContainer();
+        container.initialize();
+        container.start();
+        artifactFactory = (ArtifactFactory) container.lookup(ArtifactFactory.ROLE);
+        artifactResolver = (ArtifactResolver) container.lookup(ArtifactResolver.ROLE);
+        artifactMetadataSource = (ArtifactMetadataSource) container.lookup(ArtifactMetadataSource.ROLE, "maven");
+        ArtifactRepositoryLayout layout = (ArtifactRepositoryLayout) container.lookup(ArtifactRepositoryLayout.ROLE, "default");
+
+        File repository = new File(directory, "repository");
+        writeLibraries(repository, libraries, libraryBranching);
+        localRepository = new DefaultArtifactRepository("local", repository.toURI().toString(), layout);
+
+        for (Model model : createModels(modules, fanOut, depth, libraries, librariesPerModule)) {
+            if (projects.isEmpty()) {
+                MavenProject root = createProject(directory, model);
+                root.setExecutionRoot(true);
+                projects.add(root);
+            } else
+                projects.add(createProject(new File(directory, model.getArtifactId()), model));
+        }
+        projects.get(0).setCollectedProjects(new ArrayList<MavenProject>(projects.subList(1, projects.size())));
+
+        // the same input the resolver builds before the reactor closure
+        for (MavenProject project : projects) {
+            List<Artifact> remoteList = new ArrayList<Artifact>();
+            List<Artifact> reactorList = new ArrayList<Artifact>();
+            for (Object object : project.getDependencies()) {
+                Dependency dependency = (Dependency) object;
+                Artifact artifact = artifactFactory.createDependencyArtifact(dependency.getGroupId(), dependency.getArtifactId(), VersionRange.createFromVersion(dependency.getVersion()), dependency.getType(), null, dependency.getScope(), null, false);
+                (MODULE_GROUP_ID.equals(dependency.getGroupId()) ? reactorList : remoteList).add(artifact);
+            }
+            declaredDependencies.put(project.getArtifact(), new ArtifactDependencyResolver.DependencyData(remoteList, reactorList));
+        }
+    }
+
+    /**
+     * @param modules            number of modules besides the root
+     * @param fanOut             number of modules of the previous layer each module depends on
+     * @param depth              number of module layers
+     * @param libraries          number of shared libraries
+     * @param librariesPerModule number of libraries each module depends on directly
+     * @return POM models, the root aggregating the modules comes first, module directories are named by artifactId
+     */
+    public static List<Model> createModels(int modules, int fanOut, int depth, int libraries, int librariesPerModule) {
+        List<Model> models = new ArrayList<Model>();
+        Model root = createModel("root", "pom", Collections.<Dependency>emptyList());
+        models.add(root);
+        Random random = new Random(42);
+        List<List<Model>> layers = new ArrayList<List<Model>>();
+        for (int i = 0; i < depth; i++)
+            layers.add(new ArrayList<Model>());
+        for (int i = 0; i < modules; i++) {
+            int layer = (int) ((long) i * depth / modules);
+            List<Dependency> dependencies = new ArrayList<Dependency>();
+            if (layer > 0) {
+                List<Model> previous = new ArrayList<Model>(layers.get(layer - 1));
+                Collections.shuffle(previous, random);
+                for (Model model : previous.subList(0, Math.min(fanOut, previous.size())))
+                    dependencies.add(createDependency(MODULE_GROUP_ID, model.getArtifactId(), random.nextInt(5) == 0 ? Artifact.SCOPE_TEST : Artifact.SCOPE_COMPILE));
+            }
+            for (int k = 0; k < librariesPerModule && libraries > 0; k++)
+                dependencies.add(createDependency(LIBRARY_GROUP_ID, "library-" + random.nextInt(libraries), random.nextInt(4) == 0 ? Artifact.SCOPE_TEST : Artifact.SCOPE_COMPILE));
+            // the last module is a web application, so the project files have a war part
+            Model model = createModel("module-" + i, i == modules - 1 ? "war" : "jar", dependencies);
+            layers.get(layer).add(model);
+            models.add(model);
+            root.addModule(model.getArtifactId());
+        }
+        return models;
+    }
+
+    /**
+     * Write POMs and jars of the libraries, library i depends on the next level of its tree
+     *
+     * @param repository repository directory
+     * @param libraries  number of libraries
+     * @param branching  number of direct dependencies of each library
+     */
+    public static void writeLibraries(File repository, int libraries, int branching) throws IOException {
+        byte[] jar = createEmptyJar();
+        for (int i = 0; i < libraries; i++) {
+            File directory = new File(repository, LIBRARY_GROUP_ID.replace('.', '/') + "/library-" + i + "/" + VERSION);
+            StringBuilder pom = new StringBuilder();
+            pom.append("<project>\n  <modelVersion>4.0.0</modelVersion>\n");
+            pom.append("  <groupId>").append(LIBRARY_GROUP_ID).append("</groupId>\n");
+            pom.append("  <artifactId>library-").append(i).append("</artifactId>\n");
+            pom.append("  <version>").append(VERSION).append("</version>\n  <dependencies>\n");
+            for (int child = i * branching + 1; child <= i * branching + branching && child < libraries; child++) {
+                pom.append("    <dependency>\n      <groupId>").append(LIBRARY_GROUP_ID).append("</groupId>\n");
+                pom.append("      <artifactId>library-").append(child).append("</artifactId>\n");
+                pom.append("      <version>").append(VERSION).append("</version>\n    </dependency>\n");
+            }
+            pom.append("  </dependencies>\n</project>\n");
+            Util.writeText(new File(directory, "library-" + i + "-" + VERSION + ".pom"), pom.toString());
+            Util.writeBytes(new File(directory, "library-" + i + "-" + VERSION + ".jar"), jar);
+        }
+    }
+
+    private static byte[] createEmptyJar() throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new JarOutputStream(output, manifest).close();
+        return output.toByteArray();
+    }
+
+    private static Model createModel(String artifactId, String packaging, List<Dependency> dependencies) {
+        Model model = new Model();
+        model.setModelVersion("4.0.0");
+        model.setGroupId(MODULE_GROUP_ID);
+        model.setArtifactId(artifactId);
+        model.setVersion(VERSION);
+        model.setPackaging(packaging);
+        model.setDependencies(new ArrayList<Dependency>(dependencies));
+        return model;
+    }
+
+    /**
+     * @param basedir module directory
+     * @param model   POM model
+     * @return project with the build paths Maven fills in
+     */
+    private MavenProject createProject(File basedir, Model model) {
+        Build build = new Build();
+        build.setDirectory(new File(basedir, "target").getAbsolutePath());
+        build.setOutputDirectory(new File(basedir, "target/classes").getAbsolutePath());
+        build.setTestOutputDirectory(new File(basedir, "target/test-classes").getAbsolutePath());
+        build.setSourceDirectory(new File(basedir, "src/main/java").getAbsolutePath());
+        build.setTestSourceDirectory(new File(basedir, "src/test/java").getAbsolutePath());
+        model.setBuild(build);
+
+        MavenProject project = new MavenProject(model);
+        project.setFile(new File(basedir, "pom.xml"));
+        project.setArtifact(artifactFactory.createBuildArtifact(model.getGroupId(), model.getArtifactId(), model.getVersion(), model.getPackaging()));
+        project.addCompileSourceRoot(build.getSourceDirectory());
+        project.addTestCompileSourceRoot(build.getTestSourceDirectory());
+        project.setRemoteArtifactRepositories(Collections.emptyList());
+        project.setManagedVersionMap(new HashMap());
+        return project;
+    }
+
+    private static Dependency createDependency(String groupId, String artifactId, String scope) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId(groupId);
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion(VERSION);
+        dependency.setScope(scope);
+        return dependency;
+    }
+
+    /**
+     * @return resolver working on the file repository of the reactor
+     */
+    public ArtifactDependencyResolver createResolver() {
+        return new ArtifactDependencyResolver(SilentLog.INSTANCE, artifactFactory, artifactResolver, localRepository, artifactMetadataSource);
+    }
+
+    /**
+     * @param dependencyDataMap resolved dependencies
+     * @param templateEngine    native or velocity
+     * @return goal configured as Maven does it, ready to render the files of the reactor
+     */
+    public IdeaPluginMojo createMojo(Map<MavenProject, ArtifactDependencyResolver.DependencyData> dependencyDataMap, String templateEngine) throws Exception {
+        IdeaPluginMojo mojo = new IdeaPluginMojo();
+        mojo.setLog(SilentLog.INSTANCE);
+        inject(mojo, "reactorProjects", projects);
+        inject(mojo, "localRepository", localRepository);
+        inject(mojo, "artifactHolder", new ArtifactHolder(SilentLog.INSTANCE, projects, dependencyDataMap));
+        // parameter defaults
+        inject(mojo, "assembleModulesIntoJars", true);
+        inject(mojo, "jdkName", "1.7");
+        inject(mojo, "jdkLevel", "JDK_1_7");
+        inject(mojo, "wildcardResourcePatterns", "!?*.java");
+        inject(mojo, "applicationServerName", "Tomcat");
+        inject(mojo, "applicationServerVersion", "7.0.54");
+        inject(mojo, "openInBrowserUrl", "http://localhost:8080");
+        inject(mojo, "deploymentContextPath", "/");
+        inject(mojo, "templateEngine", templateEngine);
+        mojo.initTemplates();
+        return mojo;
+    }
+
+    private static void inject(Object object, String name, Object value) throws Exception {
+        for (Class<?> type = object.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(object, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                // look in the superclass
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+
+    /**
+     * @return new empty directory for a reactor
+     */
+    public static File createDirectory() throws IOException {
+        File directory = File.createTempFile("synthetic-reactor", "");
+        if (!directory.delete() || !directory.mkdirs())
+            throw new IOException("Can't create directory " + directory.getAbsolutePath());
+        return directory;
+    }
+
+    /**
+     * Release the components and delete the directory of the reactor
+     */
+    public void dispose(File directory) {
+        container.dispose();
+        Util.deleteFileOrDirectory(SilentLog.INSTANCE, directory);
+    }
+
+    public ArtifactFactory getArtifactFactory() {
+        return artifactFactory;
+    }
+
+    /**
+     * @return root module followed by the other modules
+     */
+    public List<MavenProject> getProjects() {
+        return projects;
+    }
+
+    /**
+     * @return declared dependencies of the modules, the input of the reactor closure
+     */
+    public Map<Artifact, ArtifactDependencyResolver.DependencyData> getDeclaredDependencies() {
+        return declaredDependencies;
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.CharArrayWriter;
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of a module file and of the project file in memory with both template engines
+ *
+ * @since 10/18/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateMergeBenchmark {
+    @Param({"native", "velocity"})
+    public String templateEngine;
+
+    @Param({"100"})
+    public int modules;
+
+    private File directory;
+    private SyntheticReactor reactor;
+    private IdeaPluginMojo mojo;
+    private Map<String, Object> imlModel;
+    private Map<String, Object> iprModel;
+    private final CharArrayWriter writer = new CharArrayWriter(64 * 1024);
+
+    @Setup
+    public void setUp() throws Exception {
+        directory = SyntheticReactor.createDirectory();
+        reactor = new SyntheticReactor(directory, modules, 3, 5, 200, 5, 3);
+        mojo = reactor.createMojo(reactor.createResolver().findDependencies(reactor.getProjects()), templateEngine);
+        List<MavenProject> projects = reactor.getProjects();
+        // a module in the middle of the reactor has reactor and remote dependencies
+        imlModel = mojo.createModuleModel(projects.get(projects.size() / 2));
+        iprModel = new HashMap<String, Object>(mojo.createModuleModel(projects.get(0)));
+        mojo.addProjectModel(projects.get(0), iprModel);
+    }
+
+    @TearDown
+    public void tearDown() {
+        reactor.dispose(directory);
+    }
+
+    @Benchmark
+    public int iml() throws Exception {
+        writer.reset();
+        mojo.render(writer, imlModel, "iml");
+        return writer.size();
+    }
+
+    @Benchmark
+    public int ipr() throws Exception {
+        writer.reset();
+        mojo.render(writer, iprModel, "ipr");
+        return writer.size();
+    }
+}
@@ -20,11 +20,11 @@ package com.github.zhve.ideaplugin;
  */
 
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
 import org.apache.maven.artifact.factory.ArtifactFactory;
 import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.artifact.resolver.*;
-import org.apache.maven.artifact.resolver.filter.ExcludesArtifactFilter;
 import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
 import org.apache.maven.artifact.versioning.VersionRange;
 import org.apache.maven.model.Dependency;
@@ -33,7 +33,9 @@ import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * @author Vasiliy Zhukov
@@ -42,84 +44,238 @@ import java.util.*;
 public class ArtifactDependencyResolver {
     private Log log;
     private ArtifactFactory artifactFactory;
-    private ArtifactResolver artifactResolver;
     private ArtifactRepository localRepository;
-    private ArtifactMetadataSource artifactMetadataSource;
+    private TransitiveResolver transitiveResolver;
+    private int resolveThreads;
+    private ResolutionCache resolutionCache;
+    private ExecutionProfiler profiler;
+    private ResolutionTrace trace;
 
     public ArtifactDependencyResolver(Log log, ArtifactFactory artifactFactory, ArtifactResolver artifactResolver, ArtifactRepository localRepository, ArtifactMetadataSource artifactMetadataSource) {
+        this(log, artifactFactory, artifactResolver, localRepository, artifactMetadataSource, 1, null, ExecutionProfiler.DISABLED, new ResolutionTrace());
+    }
+
+    /**
+     * @param resolveThreads  number of threads to resolve remote dependencies, 1 means sequential resolution
+     * @param resolutionCache persistent cache of resolution results, null if disabled
+     * @param profiler        profiler of the resolution phases
+     * @param trace           detailed trace of the dependencies of each module
+     */
+    public ArtifactDependencyResolver(Log log, ArtifactFactory artifactFactory, ArtifactResolver artifactResolver, ArtifactRepository localRepository, ArtifactMetadataSource artifactMetadataSource, int resolveThreads, ResolutionCache resolutionCache, ExecutionProfiler profiler, ResolutionTrace trace) {
         this.log = log;
         this.artifactFactory = artifactFactory;
-        this.artifactResolver = artifactResolver;
         this.localRepository = localRepository;
-        this.artifactMetadataSource = artifactMetadataSource;
+        this.transitiveResolver = new MavenTransitiveResolver(artifactResolver, localRepository, artifactMetadataSource);
+        this.resolveThreads = resolveThreads;
+        this.resolutionCache = resolutionCache;
+        this.profiler = profiler;
+        this.trace = trace;
+    }
+
+    public TransitiveResolver getTransitiveResolver() {
+        return transitiveResolver;
+    }
+
+    /**
+     * @param transitiveResolver backend of the transitive resolution, the Maven artifact resolver by default
+     */
+    public void setTransitiveResolver(TransitiveResolver transitiveResolver) {
+        this.transitiveResolver = transitiveResolver;
     }
 
     public Map<MavenProject, DependencyData> findDependencies(List<MavenProject> reactorProjects) throws InvalidVersionSpecificationException {
-        // collect ids
-        Set<Artifact> reactorArtifacts = new HashSet<Artifact>();
-        log.info("");
-        log.info("Reactor Artifacts");
+        return findDependencies(reactorProjects, Collections.<MavenProject, DependencyData>emptyMap());
+    }
+
+    /**
+     * @param reactorProjects reactor projects
+     * @param unchangedMap    dependencies of the projects which are known to be unchanged, they are not resolved again
+     * @return dependency map: reactor project -> dependency data
+     * @throws InvalidVersionSpecificationException error
+     */
+    public Map<MavenProject, DependencyData> findDependencies(List<MavenProject> reactorProjects, Map<MavenProject, DependencyData> unchangedMap) throws InvalidVersionSpecificationException {
+        return findDependencies(reactorProjects, unchangedMap, null);
+    }
+
+    /**
+     * @param reactorProjects reactor projects
+     * @param unchangedMap    dependencies of the projects which are known to be unchanged, they are not resolved again
+     * @param listener        receives dependencies of each project as soon as they are known, or null
+     * @return dependency map: reactor project -> dependency data, empty if the listener is given
+     * @throws InvalidVersionSpecificationException error
+     */
+    public Map<MavenProject, DependencyData> findDependencies(List<MavenProject> reactorProjects, Map<MavenProject, DependencyData> unchangedMap, DependencyListener listener) throws InvalidVersionSpecificationException {
+        // collect ids, reactor modules are matched by groupId:artifactId whatever version is requested
+        Set<String> reactorKeys = new HashSet<String>();
         log.info("");
+        log.info("Reactor Artifacts: " + reactorProjects.size() + " modules");
         for (MavenProject reactorProject : reactorProjects) {
-            log.info(reactorProject.getArtifact().getId());
-            reactorArtifacts.add(reactorProject.getArtifact());
+            log.debug(reactorProject.getArtifact().getId());
+            reactorKeys.add(ArtifactUtils.versionlessKey(reactorProject.getArtifact()));
         }
+        final Set<String> reactorKeySet = Collections.unmodifiableSet(reactorKeys);
 
         // Resolve reactor dependencies
-        Map<MavenProject, DependencyData> dependencyDataMap = findDependencies(log, artifactFactory, reactorArtifacts, reactorProjects);
+        Map<MavenProject, DependencyData> dependencyDataMap = findDependencies(log, artifactFactory, reactorKeySet, reactorProjects);
 
-        // Resolve remote dependency transitively
-        Map<MavenProject, DependencyData> dependencyDataNewMap = new LinkedHashMap<MavenProject, DependencyData>();
+        // Group projects with the same resolution input, each distinct dependency set is resolved once
+        Map<String, SharedResolution> sharedResolutions = new LinkedHashMap<String, SharedResolution>();
+        Map<MavenProject, SharedResolution> projectResolutions = new HashMap<MavenProject, SharedResolution>();
         for (Map.Entry<MavenProject, DependencyData> entry : dependencyDataMap.entrySet()) {
             MavenProject project = entry.getKey();
-            log.info("");
-            log.info("Resolve Transitively: " + project.getArtifact().getId());
-            log.info("");
-            DependencyData dependencyData = entry.getValue();
-            List<Artifact> remoteData = new ArrayList<Artifact>();
-            List<Artifact> reactorData = new ArrayList<Artifact>(dependencyData.getReactorList());
-            List<Artifact> remoteUnresolvedList = new ArrayList<Artifact>(dependencyData.getRemoteList());
-            tryResolve(project, reactorArtifacts, remoteData, reactorData, remoteUnresolvedList);
-            dependencyDataNewMap.put(project, new DependencyData(remoteData, reactorData));
+            if (unchangedMap.containsKey(project))
+                continue;
+            List<Artifact> remoteUnresolvedList = entry.getValue().getRemoteList();
+            String fingerprint = ResolutionFingerprint.of(project, remoteUnresolvedList, reactorKeySet, localRepository);
+            String key = fingerprint == null ? "project " + project.getId() : fingerprint;
+            SharedResolution sharedResolution = sharedResolutions.get(key);
+            if (sharedResolution == null) {
+                sharedResolution = new SharedResolution(project, remoteUnresolvedList, fingerprint);
+                sharedResolutions.put(key, sharedResolution);
+            }
+            sharedResolution.addProject();
+            projectResolutions.put(project, sharedResolution);
+        }
+
+        // Resolve remote dependency transitively
+        Map<MavenProject, DependencyData> dependencyDataNewMap = new LinkedHashMap<MavenProject, DependencyData>();
+        ExecutorService executor = null;
+        Map<SharedResolution, Future<List<Artifact>>> futures = new HashMap<SharedResolution, Future<List<Artifact>>>();
+        Map<SharedResolution, BufferedLog> logs = new HashMap<SharedResolution, BufferedLog>();
+        List<SharedResolution> pendingList = new ArrayList<SharedResolution>(sharedResolutions.values());
+        // with a listener only a few resolutions run ahead of the consumed one, so finished results don't pile up
+        int window = listener == null ? pendingList.size() : 2 * resolveThreads;
+        int submitted = 0;
+        int consumed = 0;
+        try {
+            if (resolveThreads > 1 && sharedResolutions.size() > 1) {
+                // results and log messages are collected in the reactor order, so the output is the same as the sequential one
+                executor = Executors.newFixedThreadPool(Math.min(resolveThreads, sharedResolutions.size()));
+                for (; submitted < Math.min(window, pendingList.size()); submitted++)
+                    submit(executor, pendingList.get(submitted), reactorKeySet, futures, logs);
+            }
+
+            Map<SharedResolution, List<Artifact>> results = new HashMap<SharedResolution, List<Artifact>>();
+            for (Map.Entry<MavenProject, DependencyData> entry : dependencyDataMap.entrySet()) {
+                MavenProject project = entry.getKey();
+                SharedResolution sharedResolution = projectResolutions.get(project);
+                log.debug("");
+                log.debug("Resolve Transitively: " + project.getArtifact().getId());
+                if (sharedResolution == null) {
+                    log.debug("Unchanged since the previous run");
+                    publish(dependencyDataNewMap, listener, project, unchangedMap.get(project));
+                    continue;
+                }
+                List<Artifact> resolvedList;
+                if (sharedResolution.getProject() == project) {
+                    if (executor != null) {
+                        consumed++;
+                        for (; submitted < Math.min(consumed + window, pendingList.size()); submitted++)
+                            submit(executor, pendingList.get(submitted), reactorKeySet, futures, logs);
+                        resolvedList = await(futures.remove(sharedResolution));
+                        logs.remove(sharedResolution).replay();
+                    } else {
+                        resolvedList = resolve(log, sharedResolution, reactorKeySet);
+                    }
+                    results.put(sharedResolution, resolvedList);
+                } else {
+                    log.debug("Same dependencies as " + sharedResolution.getProject().getArtifact().getId());
+                    resolvedList = results.get(sharedResolution);
+                }
+                // the shared result is released when its last project is done
+                if (sharedResolution.removeProject())
+                    results.remove(sharedResolution);
+                ExecutionProfiler.Timer timer = profiler.start("dependency-data", project);
+                DependencyData dependencyData = toDependencyData(log, project, reactorKeySet, entry.getValue(), resolvedList);
+                timer.stop();
+                publish(dependencyDataNewMap, listener, project, dependencyData);
+            }
+        } finally {
+            if (executor != null)
+                executor.shutdownNow();
         }
 
+        log.info("");
+        log.info("Resolved " + sharedResolutions.size() + " distinct dependency sets for " + projectResolutions.size() + " modules");
+        if (!unchangedMap.isEmpty())
+            log.info("Reused " + (dependencyDataMap.size() - projectResolutions.size()) + " unchanged modules");
+        if (resolutionCache != null)
+            log.info("Resolution Cache: " + resolutionCache.getHits() + " hits, " + resolutionCache.getMisses() + " misses");
+        for (String line : transitiveResolver.getStatistics().split("\n"))
+            log.info(line);
         return dependencyDataNewMap;
     }
 
+    private void submit(ExecutorService executor, final SharedResolution sharedResolution, final Set<String> reactorKeys, Map<SharedResolution, Future<List<Artifact>>> futures, Map<SharedResolution, BufferedLog> logs) {
+        final BufferedLog sharedLog = new BufferedLog(log);
+        logs.put(sharedResolution, sharedLog);
+        futures.put(sharedResolution, executor.submit(new Callable<List<Artifact>>() {
+            @Override
+            public List<Artifact> call() throws Exception {
+                return resolve(sharedLog, sharedResolution, reactorKeys);
+            }
+        }));
+    }
+
+    private static void publish(Map<MavenProject, DependencyData> dependencyDataMap, DependencyListener listener, MavenProject project, DependencyData dependencyData) {
+        if (listener == null)
+            dependencyDataMap.put(project, dependencyData);
+        else
+            listener.resolved(project, dependencyData);
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new RuntimeException(cause.getMessage(), cause);
+        }
+    }
+
     /**
      * Transitive resolve all dependencies for reactor projects
      *
      * @param artifactFactory standard Maven's factory to create artifacts
-     * @param reactorArtifacts reactor artifacts
+     * @param reactorKeys groupId:artifactId of reactor projects
      * @param reactorProjects reactor projects
      * @return dependency map: reactor project -> dependency data
      * @throws InvalidVersionSpecificationException error
      */
-    private Map<MavenProject, DependencyData> findDependencies(Log log, ArtifactFactory artifactFactory, Set<Artifact> reactorArtifacts, List<MavenProject> reactorProjects) throws InvalidVersionSpecificationException {
+    private Map<MavenProject, DependencyData> findDependencies(Log log, ArtifactFactory artifactFactory, Set<String> reactorKeys, List<MavenProject> reactorProjects) throws InvalidVersionSpecificationException {
         // artifact -> all transitive dependencies
         Map<Artifact, DependencyData> dependencyMap = new HashMap<Artifact, DependencyData>();
-        log.info("");
-        log.info("Detect Dependencies");
+        ExecutionProfiler.Timer timer = profiler.start("detect");
+        int reactorCount = 0;
+        int remoteCount = 0;
+        int omittedCount = 0;
         for (MavenProject project : reactorProjects) {
-            log.info("");
-            log.info(project.getId());
+            log.debug("");
+            log.debug("Detect Dependencies: " + project.getId());
             List<Artifact> remoteData = new ArrayList<Artifact>();
             List<Artifact> reactorData = new ArrayList<Artifact>();
             for (Object object : project.getDependencies()) {
                 Dependency dependency = (Dependency) object;
                 Artifact dependencyArtifact = toDependencyArtifact(artifactFactory, dependency);
-                boolean reactor = reactorArtifacts.contains(dependencyArtifact);
-                String id = dependencyArtifact.getId() + ":" + dependencyArtifact.getScope();
+                boolean reactor = reactorKeys.contains(ArtifactUtils.versionlessKey(dependencyArtifact));
                 if ("jar".equals(dependencyArtifact.getType())) {
                     if (reactor) {
-                        log.info("R " + id);
+                        trace.record(log, project, ResolutionTrace.DECLARED, ResolutionTrace.REACTOR, dependencyArtifact.getId(), dependencyArtifact.getScope(), null);
                         reactorData.add(dependencyArtifact);
+                        reactorCount++;
                     } else {
-                        log.info("  " + id);
+                        trace.record(log, project, ResolutionTrace.DECLARED, ResolutionTrace.LIBRARY, dependencyArtifact.getId(), dependencyArtifact.getScope(), null);
                         remoteData.add(dependencyArtifact);
+                        remoteCount++;
                     }
                 } else {
-                    log.info("O " + id + " (type=" + dependencyArtifact.getType() + ")");
+                    trace.record(log, project, ResolutionTrace.DECLARED, ResolutionTrace.OMITTED, dependencyArtifact.getId(), dependencyArtifact.getScope(), "type=" + dependencyArtifact.getType());
+                    omittedCount++;
                 }
             }
 
@@ -127,83 +283,15 @@ public class ArtifactDependencyResolver {
             dependencyMap.put(project.getArtifact(), new DependencyData(remoteData, reactorData));
         }
 
-        log.info("");
-        log.info("Resolve Dependencies");
-        Map<MavenProject, DependencyData> result = new LinkedHashMap<MavenProject, DependencyData>();
-        for (MavenProject project : reactorProjects) {
-            log.info("");
-            log.info(project.getId());
-            Map<String, Artifact> reactorData = new LinkedHashMap<String, Artifact>();
-            Map<String, Artifact> remoteData = new LinkedHashMap<String, Artifact>();
-
-            Queue<Artifact> queue = new LinkedList<Artifact>();
-            queue.add(project.getArtifact());
-            while (!queue.isEmpty()) {
-                Artifact artifact = queue.poll();
-                log.info("# " + artifact.getId() + ":" + artifact.getScope());
-                DependencyData artifactDependencyData = dependencyMap.get(artifact);
-
-                // analyze all remote dependencies for given level
-                for (Artifact dependency : artifactDependencyData.getRemoteList()) {
-                    String dependencyConflictId = dependency.getDependencyConflictId();
-                    Artifact dependencyArtifact = toDependencyArtifact(artifactFactory, dependency, artifact.getScope());
-                    if (dependencyArtifact != null) {
-                        String fullName = dependencyArtifact.getId() + ":" + dependencyArtifact.getScope();
-                        Artifact prevArtifact = remoteData.get(dependencyConflictId);
-                        if (prevArtifact == null) {
-                            // new remote dependency
-                            log.info("  " + fullName);
-                            remoteData.put(dependencyConflictId, dependencyArtifact);
-                        } else {
-                            // we have already added this remote dependency
-                            if (prevArtifact.getId().equals(dependencyArtifact.getId())) {
-                                log.info("D " + fullName);
-                            } else {
-                                log.info("C " + fullName);
-                                log.info("  " + project.getArtifact().getId());
-                                log.info("  " + "+-" + prevArtifact.getId() + ":" + prevArtifact.getScope());
-                                log.info("  " + "+-" + artifact.getId() + ":" + artifact.getScope());
-                                log.info("  " + "  \\-" + fullName);
-                            }
-                        }
-                    } else {
-                        log.info("O " + dependency.getId() + ":" + dependency.getScope() + " (inherit=" + artifact.getId() + ":" + artifact.getScope() + ")");
-                    }
-                }
+        timer.stop();
+        log.info("Detect Dependencies: " + reactorCount + " reactor, " + remoteCount + " remote, " + omittedCount + " omitted");
 
-                // analyze all reactor dependencies for given level
-                for (Artifact dependency : artifactDependencyData.getReactorList()) {
-                    String dependencyConflictId = dependency.getDependencyConflictId();
-                    Artifact dependencyArtifact = toDependencyArtifact(artifactFactory, dependency, artifact.getScope());
-                    if (dependencyArtifact != null) {
-                        String fullName = dependencyArtifact.getId() + ":" + dependencyArtifact.getScope();
-                        Artifact prevArtifact = reactorData.get(dependencyConflictId);
-                        if (prevArtifact == null) {
-                            // new reactor dependency
-                            log.info("R " + fullName);
-                            reactorData.put(dependencyConflictId, dependencyArtifact);
-                            // go deep
-                            queue.add(dependencyArtifact);
-                        } else {
-                            // we have already added this remote dependency
-                            if (prevArtifact.getId().equals(dependencyArtifact.getId())) {
-                                log.info("D " + fullName);
-                            } else {
-                                log.info("C " + fullName);
-                                log.info("  " + project.getArtifact().getId());
-                                log.info("  " + "+-" + prevArtifact.getId() + ":" + prevArtifact.getScope());
-                                log.info("  " + "+-" + artifact.getId() + ":" + artifact.getScope());
-                                log.info("  " + "  \\-" + fullName);
-                            }
-                        }
-                    } else {
-                        log.info("O " + dependency.getId() + ":" + dependency.getScope() + " (inherit=" + artifact.getId() + ":" + artifact.getScope() + ")");
-                    }
-                }
-            }
-            result.put(project, new DependencyData(new ArrayList<Artifact>(remoteData.values()), new ArrayList<Artifact>(reactorData.values())));
+        timer = profiler.start("reactor-closure");
+        try {
+            return new ReactorDependencyGraph(log, artifactFactory, reactorProjects, dependencyMap, trace).resolve();
+        } finally {
+            timer.stop();
         }
-        return result;
     }
 
     /**
@@ -231,7 +319,7 @@ public class ArtifactDependencyResolver {
             List<String> exclusions = new ArrayList<String>();
             for (Exclusion exclusion : dependency.getExclusions())
                 exclusions.add(exclusion.getGroupId() + ":" + exclusion.getArtifactId());
-            dependencyArtifact.setDependencyFilter(new ExcludesArtifactFilter(exclusions));
+            dependencyArtifact.setDependencyFilter(new ExclusionFilter(exclusions));
         }
 
         // additional
@@ -242,72 +330,201 @@ public class ArtifactDependencyResolver {
         return dependencyArtifact;
     }
 
-    private static Artifact toDependencyArtifact(ArtifactFactory artifactFactory, Artifact dependency, String inheritedScope) {
-        Artifact dependencyArtifact = artifactFactory.createDependencyArtifact(dependency.getGroupId(),
-                dependency.getArtifactId(),
-                dependency.getVersionRange(),
-                dependency.getType(),
-                dependency.getClassifier(),
-                dependency.getScope(),
-                inheritedScope,
-                dependency.isOptional()
-        );
-        if (dependencyArtifact != null)
-            dependencyArtifact.setDependencyFilter(dependency.getDependencyFilter());
-        return dependencyArtifact;
+    /**
+     * Resolve remote dependencies of the shared resolution transitively
+     *
+     * @param log              log
+     * @param sharedResolution resolution input
+     * @param reactorKeys      groupId:artifactId of reactor projects, they are not resolved
+     * @return resolved artifacts followed by reactor artifacts met, or null if the resolution failed
+     */
+    private List<Artifact> resolve(Log log, SharedResolution sharedResolution, Set<String> reactorKeys) {
+        ExecutionProfiler.Timer timer = profiler.start("resolve", sharedResolution.getProject());
+        try {
+            return resolveOrLoad(log, sharedResolution, reactorKeys);
+        } finally {
+            timer.stop();
+        }
     }
 
-    private void tryResolve(MavenProject project, Set<Artifact> reactorArtifacts, List<Artifact> remoteData, List<Artifact> reactorData, List<Artifact> remoteUnresolvedList) {
+    private List<Artifact> resolveOrLoad(Log log, SharedResolution sharedResolution, Set<String> reactorKeys) {
+        // lookup the persistent cache
+        String fingerprint = sharedResolution.getFingerprint();
+        if (resolutionCache != null && fingerprint != null) {
+            try {
+                List<Artifact> cachedList = resolutionCache.load(fingerprint);
+                if (cachedList != null) {
+                    log.debug("Cached: " + fingerprint);
+                    return cachedList;
+                }
+            } catch (IOException e) {
+                log.warn(e.getMessage());
+            }
+        }
+
         // search
-        ArtifactResolutionResult resolutionResult;
-        log.info("Before:");
-        for (Artifact a : remoteUnresolvedList)
-            log.info("  " + a.getId() + ":" + a.getScope());
-        log.info("");
+        MavenProject project = sharedResolution.getProject();
+        if (trace.isEnabled(log))
+            for (Artifact a : sharedResolution.getRemoteUnresolvedList())
+                trace.record(log, project, ResolutionTrace.BEFORE, ResolutionTrace.LIBRARY, a.getId(), a.getScope(), null);
+        // the group is resolved from a neutral root: a resolver drops a library dependency on the root's own key,
+        // the other modules of the group would miss the first module then
+        Artifact originatingArtifact = artifactFactory.createBuildArtifact(project.getGroupId(), project.getArtifactId() + "-idea-resolution", project.getVersion(), "pom");
+        ReactorArtifactFilter reactorFilter = new ReactorArtifactFilter(reactorKeys);
+        // raw collections of the Maven 2 API
+        @SuppressWarnings("unchecked")
+        Map<String, Artifact> managedVersions = project.getManagedVersionMap();
+        @SuppressWarnings("unchecked")
+        List<ArtifactRepository> remoteRepositories = project.getRemoteArtifactRepositories();
+        List<Artifact> resolvedList;
         try {
-            resolutionResult = artifactResolver.resolveTransitively(
-                    new LinkedHashSet<Artifact>(remoteUnresolvedList),
-                    project.getArtifact(),
-                    project.getManagedVersionMap(),
-                    localRepository,
-                    project.getRemoteArtifactRepositories(),
-                    artifactMetadataSource
+            resolvedList = transitiveResolver.resolve(
+                    log,
+                    new LinkedHashSet<Artifact>(sharedResolution.getRemoteUnresolvedList()),
+                    originatingArtifact,
+                    managedVersions,
+                    remoteRepositories,
+                    reactorFilter
             );
-            // save search result
-            log.info("After:");
-            for (Object resolutionNode : resolutionResult.getArtifactResolutionNodes()) {
-                Artifact art = ((ResolutionNode) resolutionNode).getArtifact();
-                if (reactorArtifacts.contains(art)) {
-                    if (!reactorData.contains(art)) {
-                        reactorData.add(art);
-                        log.info("R " + art.getId() + ":" + art.getScope());
-                    } else {
-                        log.info("D " + art.getId() + ":" + art.getScope());
-                    }
-                } else {
-                    log.info("  " + art.getId() + ":" + art.getScope());
-                    remoteData.add(art);
-                }
-            }
-            // clear unresolved
-            remoteUnresolvedList.clear();
         } catch (ArtifactResolutionException e) {
             log.error(e.getMessage());
-            remoteData.addAll(remoteUnresolvedList);
+            return null;
         } catch (ArtifactNotFoundException e) {
             throw new RuntimeException(e.getMessage(), e);
         }
+
+        // SNAPSHOT and version range results are resolved again on every run
+        boolean stable = ResolutionCache.isStable(resolvedList);
+
+        // reactor artifacts are not resolved, the filter collects the ones met
+        resolvedList = new ArrayList<Artifact>(resolvedList);
+        resolvedList.addAll(reactorFilter.getReactorArtifacts());
+        resolvedList = Collections.unmodifiableList(resolvedList);
+
+        // save to the persistent cache
+        if (resolutionCache != null && fingerprint != null && stable) {
+            try {
+                resolutionCache.store(fingerprint, resolvedList);
+            } catch (IOException e) {
+                log.warn(e.getMessage());
+            }
+        }
+        return resolvedList;
+    }
+
+    /**
+     * Build the project view of the shared resolution result
+     *
+     * @param log              log
+     * @param project          reactor project
+     * @param reactorKeys      groupId:artifactId of reactor projects
+     * @param dependencyData   project dependency data before the transitive resolution
+     * @param resolvedList     resolved artifacts or null if the resolution failed
+     * @return project dependency data
+     */
+    private DependencyData toDependencyData(Log log, MavenProject project, Set<String> reactorKeys, DependencyData dependencyData, List<Artifact> resolvedList) {
+        List<Artifact> reactorData = new ArrayList<Artifact>(dependencyData.getReactorList());
+        if (resolvedList == null)
+            return new DependencyData(new ArrayList<Artifact>(dependencyData.getRemoteList()), reactorData, false);
+
+        // the project itself and its reactor dependencies
+        Set<String> reactorDataKeys = new HashSet<String>();
+        reactorDataKeys.add(ArtifactUtils.versionlessKey(project.getArtifact()));
+        for (Artifact art : reactorData)
+            reactorDataKeys.add(ArtifactUtils.versionlessKey(art));
+
+        // save search result
+        List<Artifact> remoteData = new ArrayList<Artifact>();
+        boolean traced = trace.isEnabled(log);
+        for (Artifact art : resolvedList) {
+            String key = ArtifactUtils.versionlessKey(art);
+            if (reactorKeys.contains(key)) {
+                if (reactorDataKeys.add(key)) {
+                    reactorData.add(art);
+                    if (traced)
+                        trace.record(log, project, ResolutionTrace.RESOLVED, ResolutionTrace.REACTOR, art.getId(), art.getScope(), null);
+                } else if (traced) {
+                    trace.record(log, project, ResolutionTrace.RESOLVED, ResolutionTrace.DUPLICATE, art.getId(), art.getScope(), null);
+                }
+            } else {
+                if (traced)
+                    trace.record(log, project, ResolutionTrace.RESOLVED, ResolutionTrace.LIBRARY, art.getId(), art.getScope(), null);
+                remoteData.add(art);
+            }
+        }
+        return new DependencyData(remoteData, reactorData);
     }
 
     // Classes
 
+    /**
+     * Transitive resolution shared by all projects with the same resolution input
+     */
+    private static class SharedResolution {
+        private final MavenProject project;
+        private final List<Artifact> remoteUnresolvedList;
+        private final String fingerprint;
+        private int projects;
+
+        private SharedResolution(MavenProject project, List<Artifact> remoteUnresolvedList, String fingerprint) {
+            this.project = project;
+            this.remoteUnresolvedList = remoteUnresolvedList;
+            this.fingerprint = fingerprint;
+        }
+
+        /**
+         * @return the first project of the group, its artifact, managed versions and repositories are used to resolve
+         */
+        public MavenProject getProject() {
+            return project;
+        }
+
+        public List<Artifact> getRemoteUnresolvedList() {
+            return remoteUnresolvedList;
+        }
+
+        /**
+         * @return fingerprint of the resolution input or null if the input can't be fingerprinted
+         */
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public void addProject() {
+            projects++;
+        }
+
+        /**
+         * @return true if it was the last project of the group
+         */
+        public boolean removeProject() {
+            return --projects == 0;
+        }
+    }
+
+    /**
+     * Receives dependencies of each project in the reactor order as soon as they are known
+     */
+    public interface DependencyListener {
+        void resolved(MavenProject project, DependencyData dependencyData);
+    }
+
     public static class DependencyData {
         private final List<Artifact> remoteList;
         private final List<Artifact> reactorList;
+        private final boolean resolved;
 
         public DependencyData(List<Artifact> remoteList, List<Artifact> reactorList) {
+            this(remoteList, reactorList, true);
+        }
+
+        /**
+         * @param resolved false if the transitive resolution failed and remoteList has the direct dependencies only
+         */
+        public DependencyData(List<Artifact> remoteList, List<Artifact> reactorList, boolean resolved) {
             this.remoteList = Collections.unmodifiableList(remoteList);
             this.reactorList = Collections.unmodifiableList(reactorList);
+            this.resolved = resolved;
         }
 
         public List<Artifact> getRemoteList() {
@@ -317,5 +534,9 @@ public class ArtifactDependencyResolver {
         public List<Artifact> getReactorList() {
             return reactorList;
         }
+
+        public boolean isResolved() {
+            return resolved;
+        }
     }
 }
@@ -20,79 +20,115 @@ package com.github.zhve.ideaplugin;
  */
 
 import org.apache.maven.artifact.Artifact;
-import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
-import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.artifact.ArtifactUtils;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Vasiliy Zhukov
  * @since 07/25/2010
  */
 class ArtifactHolder {
+    private final Log log;
+
+    private final List<MavenProject> reactorProjects;
+
     /**
      * All dependencies of all modules except commonDependencies
      */
     private List<Artifact> allDependencies;
 
+    /**
+     * Remote dependencies of the added modules, each coordinate once
+     */
+    private final Set<Artifact> fullSet = new HashSet<Artifact>();
+
     /**
      * Maven Project -> Dependency Artifacts except commonDependencies
      */
-    private Map<MavenProject, List<Artifact>> dependencyMap;
+    private final Map<MavenProject, List<Artifact>> dependencyMap = new ConcurrentHashMap<MavenProject, List<Artifact>>();
+
+    /**
+     * groupId:artifactId for all modules (reactors)
+     */
+    private final Set<String> reactorKeys;
 
     /**
-     * Artifacts for all modules (reactors)
+     * Empty holder, modules are added one by one as soon as they are resolved
+     *
+     * @param log             log
+     * @param reactorProjects reactor modules
      */
-    private Set<Artifact> reactorArtifacts;
+    public ArtifactHolder(Log log, List<MavenProject> reactorProjects) {
+        this.log = log;
+        this.reactorProjects = reactorProjects;
 
-    public ArtifactHolder(Log log, ArtifactDependencyResolver resolver, List<MavenProject> reactorProjects) throws MojoExecutionException {
         // collect
-        reactorArtifacts = new HashSet<Artifact>();
+        Set<String> keys = new HashSet<String>();
         for (MavenProject reactorProject : reactorProjects)
-            reactorArtifacts.add(reactorProject.getArtifact());
-        reactorArtifacts = Collections.unmodifiableSet(reactorArtifacts);
+            keys.add(ArtifactUtils.versionlessKey(reactorProject.getArtifact()));
+        reactorKeys = Collections.unmodifiableSet(keys);
+    }
 
-        // Resolve
-        Map<MavenProject, ArtifactDependencyResolver.DependencyData> dependencyDataNewMap;
-        try {
-            dependencyDataNewMap = resolver.findDependencies(reactorProjects);
-        } catch (InvalidVersionSpecificationException e) {
-            throw new MojoExecutionException(e.getMessage(), e);
-        }
+    /**
+     * @param log               log
+     * @param reactorProjects   reactor modules
+     * @param dependencyDataMap resolved or locked dependencies of the reactor modules
+     */
+    public ArtifactHolder(Log log, List<MavenProject> reactorProjects, Map<MavenProject, ArtifactDependencyResolver.DependencyData> dependencyDataMap) {
+        this(log, reactorProjects);
+        for (Map.Entry<MavenProject, ArtifactDependencyResolver.DependencyData> entry : dependencyDataMap.entrySet())
+            add(entry.getKey(), entry.getValue());
+        complete();
+    }
 
+    /**
+     * @param project reactor module
+     * @param data    resolved dependencies of the module
+     */
+    public synchronized void add(MavenProject project, ArtifactDependencyResolver.DependencyData data) {
         // Find common dependencies
-        Set<Artifact> fullSet = new HashSet<Artifact>();
-        for (ArtifactDependencyResolver.DependencyData data : dependencyDataNewMap.values())
-            fullSet.addAll(data.getRemoteList());
+        fullSet.addAll(data.getRemoteList());
 
-        // Save allDependencies
-        allDependencies = new ArrayList<Artifact>(fullSet);
-        Collections.sort(allDependencies, ArtifactComparator.INSTANCE);
-        allDependencies = Collections.unmodifiableList(allDependencies);
+        // Save dependencyMap
+        List<Artifact> remoteList = new ArrayList<Artifact>(data.getRemoteList());
+        List<Artifact> reactorList = new ArrayList<Artifact>(data.getReactorList());
+        Collections.sort(remoteList, ArtifactComparator.INSTANCE);
+        Collections.sort(reactorList, ArtifactComparator.INSTANCE);
+        List<Artifact> artifacts = new ArrayList<Artifact>(reactorList.size() + remoteList.size());
+        artifacts.addAll(reactorList);
+        artifacts.addAll(remoteList);
+        dependencyMap.put(project, Collections.unmodifiableList(artifacts));
+    }
 
-        log.info("");
-        log.info("Full Dependencies");
-        log.info("");
-        for (Artifact artifact : allDependencies)
-            log.info("  " + artifact.getId());
+    /**
+     * Forget dependencies of the module when its module file is done, war modules are kept for the project file
+     *
+     * @param project reactor module
+     */
+    public void release(MavenProject project) {
+        if (!"war".equals(project.getPackaging()))
+            dependencyMap.remove(project);
+    }
 
-        // Save dependencyMap
+    /**
+     * Called when all modules are added
+     */
+    public synchronized void complete() {
+        // Save allDependencies
+        List<Artifact> list = new ArrayList<Artifact>(fullSet);
+        Collections.sort(list, ArtifactComparator.INSTANCE);
+        allDependencies = Collections.unmodifiableList(list);
+        fullSet.clear();
 
-        this.dependencyMap = new HashMap<MavenProject, List<Artifact>>();
-        for (Map.Entry<MavenProject, ArtifactDependencyResolver.DependencyData> entry : dependencyDataNewMap.entrySet()) {
-            MavenProject project = entry.getKey();
-            // Remove commonSet from dependencies
-            List<Artifact> remoteList = new ArrayList<Artifact>(entry.getValue().getRemoteList());
-            List<Artifact> reactorList = new ArrayList<Artifact>(entry.getValue().getReactorList());
-            Collections.sort(remoteList, ArtifactComparator.INSTANCE);
-            Collections.sort(reactorList, ArtifactComparator.INSTANCE);
-            List<Artifact> artifacts = new ArrayList<Artifact>();
-            artifacts.addAll(reactorList);
-            artifacts.addAll(remoteList);
-            this.dependencyMap.put(project, Collections.unmodifiableList(artifacts));
-        }
+        log.info("");
+        log.info("Full Dependencies: " + allDependencies.size() + " libraries");
+        if (log.isDebugEnabled())
+            for (Artifact artifact : allDependencies)
+                log.debug("  " + artifact.getId());
     }
 
     public List<Artifact> getDependencies(MavenProject project) {
@@ -100,17 +136,17 @@ class ArtifactHolder {
         return artifacts == null ? Collections.<Artifact>emptyList() : artifacts;
     }
 
-    public List<Artifact> getAllDependencies() {
+    public synchronized List<Artifact> getAllDependencies() {
         return allDependencies;
     }
 
     public boolean isReactorArtifact(Artifact artifact) {
-        return reactorArtifacts.contains(artifact);
+        return reactorKeys.contains(ArtifactUtils.versionlessKey(artifact));
     }
 
     public List<MavenProject> getProjectsWithPackaging(String packaging) {
         List<MavenProject> projects = new ArrayList<MavenProject>();
-        for (MavenProject project : dependencyMap.keySet())
+        for (MavenProject project : reactorProjects)
             if (project.getPackaging().equals(packaging))
                 projects.add(project);
         return projects;
@@ -0,0 +1,78 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.artifact.versioning.VersionRange;
+
+import java.io.File;
+
+/**
+ * Converts artifacts to single tab separated lines and back:
+ * groupId, artifactId, version, type, classifier, scope, optional and file, unless files are omitted.
+ *
+ * @since 10/18/2026
+ */
+class ArtifactSerializer {
+    private final ArtifactFactory artifactFactory;
+    private final boolean withFile;
+
+    public ArtifactSerializer(ArtifactFactory artifactFactory) {
+        this(artifactFactory, true);
+    }
+
+    /**
+     * @param artifactFactory factory for the read artifacts
+     * @param withFile        false to omit the file field, e.g. for files shared between machines
+     */
+    public ArtifactSerializer(ArtifactFactory artifactFactory, boolean withFile) {
+        this.artifactFactory = artifactFactory;
+        this.withFile = withFile;
+    }
+
+    public String write(Artifact artifact) {
+        return artifact.getGroupId() + '\t' +
+                artifact.getArtifactId() + '\t' +
+                artifact.getVersion() + '\t' +
+                artifact.getType() + '\t' +
+                (artifact.getClassifier() == null ? "" : artifact.getClassifier()) + '\t' +
+                (artifact.getScope() == null ? "" : artifact.getScope()) + '\t' +
+                artifact.isOptional() +
+                (withFile ? '\t' + (artifact.getFile() == null ? "" : artifact.getFile().getPath()) : "");
+    }
+
+    public Artifact read(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != (withFile ? 8 : 7))
+            throw new IllegalArgumentException("Malformed artifact line: " + line);
+        Artifact artifact = artifactFactory.createDependencyArtifact(fields[0],
+                fields[1],
+                VersionRange.createFromVersion(fields[2]),
+                fields[3],
+                fields[4].length() == 0 ? null : fields[4],
+                fields[5].length() == 0 ? null : fields[5],
+                Boolean.parseBoolean(fields[6])
+        );
+        if (withFile && fields[7].length() != 0)
+            artifact.setFile(new File(fields[7]));
+        return artifact;
+    }
+}
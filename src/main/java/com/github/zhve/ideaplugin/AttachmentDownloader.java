@@ -0,0 +1,184 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.artifact.manager.WagonManager;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.resolver.ArtifactNotFoundException;
+import org.apache.maven.artifact.resolver.ArtifactResolutionException;
+import org.apache.maven.artifact.resolver.ArtifactResolver;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.wagon.ResourceDoesNotExistException;
+import org.apache.maven.wagon.TransferFailedException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Downloads the sources and javadoc jars of the libraries to the local repository in parallel. Attachments not found
+ * in the remote repositories are kept in a file and are not requested again, delete the file to retry them.
+ * Attachments failed to download are requested again next time.
+ *
+ * @since 10/18/2026
+ */
+class AttachmentDownloader {
+    private static final String HEADER = "# Attachments not found in the remote repositories, delete the file to retry";
+
+    private final Log log;
+    private final ArtifactFactory artifactFactory;
+    private final ArtifactResolver artifactResolver;
+    private final WagonManager wagonManager;
+    private final ArtifactRepository localRepository;
+    private final List<ArtifactRepository> remoteRepositories;
+    private final File missingFile;
+
+    /**
+     * @param log                log
+     * @param artifactFactory    artifact factory
+     * @param artifactResolver   artifact resolver
+     * @param wagonManager       wagon manager, tells missing attachments from failed downloads in Maven 2
+     * @param localRepository    local repository
+     * @param remoteRepositories remote repositories of the reactor
+     * @param missingFile        file with the ids of the attachments not found before
+     */
+    public AttachmentDownloader(Log log, ArtifactFactory artifactFactory, ArtifactResolver artifactResolver, WagonManager wagonManager, ArtifactRepository localRepository, List<ArtifactRepository> remoteRepositories, File missingFile) {
+        this.log = log;
+        this.artifactFactory = artifactFactory;
+        this.artifactResolver = artifactResolver;
+        this.wagonManager = Util.isMaven2Runtime() ? wagonManager : null;
+        this.localRepository = localRepository;
+        this.remoteRepositories = remoteRepositories;
+        this.missingFile = missingFile;
+    }
+
+    /**
+     * @param artifacts   libraries
+     * @param classifiers classifiers of the attachments: sources, javadoc
+     * @param threads     number of concurrent downloads, Maven 2 downloads sequentially
+     * @throws IOException if the file of the missing attachments can't be read or written
+     */
+    public void download(List<Artifact> artifacts, List<String> classifiers, int threads) throws IOException {
+        final Set<String> missing = Collections.synchronizedSet(new TreeSet<String>());
+        if (missingFile.isFile())
+            for (String line : Util.readText(missingFile).split("\n"))
+                if (line.length() > 0 && !line.startsWith("#"))
+                    missing.add(line);
+        int previousMissing = missing.size();
+
+        int present = 0;
+        int skipped = 0;
+        final AtomicInteger downloaded = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        for (Artifact artifact : artifacts) {
+            // attachments of classified artifacts have no standard name
+            if (artifact.getClassifier() != null || !"jar".equals(artifact.getArtifactHandler().getExtension()))
+                continue;
+            for (String classifier : classifiers) {
+                final Artifact attachment = artifactFactory.createArtifactWithClassifier(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), "jar", classifier);
+                if (new File(localRepository.getBasedir(), localRepository.pathOf(attachment)).isFile()) {
+                    present++;
+                } else if (missing.contains(attachment.getId())) {
+                    skipped++;
+                } else {
+                    tasks.add(new Callable<Object>() {
+                        @Override
+                        public Object call() {
+                            try {
+                                artifactResolver.resolve(attachment, remoteRepositories, localRepository);
+                                downloaded.incrementAndGet();
+                            } catch (ArtifactNotFoundException e) {
+                                if (isMissing(attachment)) {
+                                    missing.add(attachment.getId());
+                                } else {
+                                    failed.incrementAndGet();
+                                    log.warn("Attachments: " + attachment.getId() + " is not downloaded, " + e.getMessage());
+                                }
+                            } catch (ArtifactResolutionException e) {
+                                // not a miss, the repository may be back next time
+                                failed.incrementAndGet();
+                                log.warn("Attachments: " + attachment.getId() + " is not downloaded, " + e.getMessage());
+                            }
+                            return null;
+                        }
+                    });
+                }
+            }
+        }
+
+        if (!tasks.isEmpty()) {
+            // the wagons of Maven 2 are not thread safe
+            ExecutorService executor = Executors.newFixedThreadPool(wagonManager != null ? 1 : Math.max(1, Math.min(threads, tasks.size())));
+            try {
+                executor.invokeAll(tasks);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e.getMessage(), e);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        if (missing.size() != previousMissing) {
+            StringBuilder sb = new StringBuilder(HEADER).append('\n');
+            synchronized (missing) {
+                for (String id : missing)
+                    sb.append(id).append('\n');
+            }
+            Util.writeText(missingFile, sb.toString());
+        }
+
+        log.info("");
+        log.info("Attachments: " + downloaded.get() + " downloaded, " + present + " present, "
+                + (missing.size() - previousMissing) + " not found, " + skipped + " not found before, " + failed.get() + " failed");
+    }
+
+    /**
+     * The artifact resolver of Maven 2 reports failed transfers as missing artifacts, the repositories are asked
+     * one by one then.
+     *
+     * @param attachment attachment not found by the artifact resolver
+     * @return true if no repository has the attachment
+     */
+    private boolean isMissing(Artifact attachment) {
+        if (wagonManager == null)
+            return true;
+        attachment.setFile(new File(localRepository.getBasedir(), localRepository.pathOf(attachment)));
+        for (ArtifactRepository repository : remoteRepositories) {
+            try {
+                wagonManager.getArtifact(attachment, repository);
+                // disabled and blacklisted repositories are skipped
+                if (attachment.getFile().isFile())
+                    return false;
+            } catch (ResourceDoesNotExistException e) {
+                // next repository
+            } catch (TransferFailedException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
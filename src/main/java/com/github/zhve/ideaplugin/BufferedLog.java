@@ -0,0 +1,164 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Log which keeps all messages in memory until they are replayed to the real log.
+ * Used to keep the output of concurrent tasks in a deterministic order.
+ *
+ * @since 10/18/2026
+ */
+class BufferedLog implements Log {
+    private static final int DEBUG = 0;
+    private static final int INFO = 1;
+    private static final int WARN = 2;
+    private static final int ERROR = 3;
+
+    private final Log target;
+    private final List<Message> messages = new ArrayList<Message>();
+
+    public BufferedLog(Log target) {
+        this.target = target;
+    }
+
+    public void replay() {
+        for (Message message : messages) {
+            switch (message.level) {
+                case DEBUG:
+                    target.debug(message.content, message.error);
+                    break;
+                case INFO:
+                    target.info(message.content, message.error);
+                    break;
+                case WARN:
+                    target.warn(message.content, message.error);
+                    break;
+                default:
+                    target.error(message.content, message.error);
+            }
+        }
+        messages.clear();
+    }
+
+    private void add(int level, CharSequence content, Throwable error) {
+        messages.add(new Message(level, content, error));
+    }
+
+    // Log
+
+    @Override
+    public boolean isDebugEnabled() {
+        return target.isDebugEnabled();
+    }
+
+    @Override
+    public void debug(CharSequence content) {
+        add(DEBUG, content, null);
+    }
+
+    @Override
+    public void debug(CharSequence content, Throwable error) {
+        add(DEBUG, content, error);
+    }
+
+    @Override
+    public void debug(Throwable error) {
+        add(DEBUG, null, error);
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return target.isInfoEnabled();
+    }
+
+    @Override
+    public void info(CharSequence content) {
+        add(INFO, content, null);
+    }
+
+    @Override
+    public void info(CharSequence content, Throwable error) {
+        add(INFO, content, error);
+    }
+
+    @Override
+    public void info(Throwable error) {
+        add(INFO, null, error);
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return target.isWarnEnabled();
+    }
+
+    @Override
+    public void warn(CharSequence content) {
+        add(WARN, content, null);
+    }
+
+    @Override
+    public void warn(CharSequence content, Throwable error) {
+        add(WARN, content, error);
+    }
+
+    @Override
+    public void warn(Throwable error) {
+        add(WARN, null, error);
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return target.isErrorEnabled();
+    }
+
+    @Override
+    public void error(CharSequence content) {
+        add(ERROR, content, null);
+    }
+
+    @Override
+    public void error(CharSequence content, Throwable error) {
+        add(ERROR, content, error);
+    }
+
+    @Override
+    public void error(Throwable error) {
+        add(ERROR, null, error);
+    }
+
+    // Classes
+
+    private static class Message {
+        private final int level;
+        private final CharSequence content;
+        private final Throwable error;
+
+        private Message(int level, CharSequence content, Throwable error) {
+            this.level = level;
+            this.content = content;
+            this.error = error;
+        }
+    }
+}
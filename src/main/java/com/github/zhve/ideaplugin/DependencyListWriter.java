@@ -0,0 +1,114 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.project.MavenProject;
+
+import java.io.PrintWriter;
+import java.util.List;
+
+/**
+ * Writer of the resolved dependencies in json, tsv or dot format, modules are written one by one as they come.
+ * Errors are kept by the underlying PrintWriter and checked when the output is closed.
+ * <p/>
+ * tsv columns: module groupId:artifactId, R for reactor or L for library, groupId, artifactId, type, classifier, version, scope.
+ *
+ * @since 10/18/2026
+ */
+class DependencyListWriter {
+    public static final String JSON = "json";
+    public static final String TSV = "tsv";
+    public static final String DOT = "dot";
+
+    private final String format;
+    private final PrintWriter out;
+    private boolean first = true;
+
+    /**
+     * @param format json, tsv or dot
+     * @param out    output
+     */
+    public DependencyListWriter(String format, PrintWriter out) {
+        this.format = format;
+        this.out = out;
+    }
+
+    public static boolean isSupported(String format) {
+        return JSON.equals(format) || TSV.equals(format) || DOT.equals(format);
+    }
+
+    public void start() {
+        if (JSON.equals(format))
+            out.print("{\"modules\": [");
+        else if (TSV.equals(format))
+            out.print("# module\tkind\tgroupId\tartifactId\ttype\tclassifier\tversion\tscope\n");
+        else
+            out.print("digraph dependencies {\n  node [shape=box];\n");
+    }
+
+    /**
+     * @param project      reactor module
+     * @param dependencies resolved dependencies of the module
+     * @param holder       holder to tell reactor dependencies from libraries
+     */
+    public void write(MavenProject project, List<Artifact> dependencies, ArtifactHolder holder) {
+        String module = project.getGroupId() + ":" + project.getArtifactId();
+        if (JSON.equals(format)) {
+            out.print(first ? "\n" : ",\n");
+            out.print("  {\"module\": \"" + Util.escapeJson(project.getId()) + "\", \"dependencies\": [");
+            for (int i = 0; i < dependencies.size(); i++) {
+                Artifact artifact = dependencies.get(i);
+                out.print(i == 0 ? "\n" : ",\n");
+                out.print("    {\"groupId\": \"" + Util.escapeJson(artifact.getGroupId()));
+                out.print("\", \"artifactId\": \"" + Util.escapeJson(artifact.getArtifactId()));
+                out.print("\", \"type\": \"" + Util.escapeJson(artifact.getType()));
+                if (artifact.getClassifier() != null)
+                    out.print("\", \"classifier\": \"" + Util.escapeJson(artifact.getClassifier()));
+                out.print("\", \"version\": \"" + Util.escapeJson(artifact.getVersion()));
+                out.print("\", \"scope\": \"" + Util.escapeJson(String.valueOf(artifact.getScope())));
+                out.print("\", \"reactor\": " + holder.isReactorArtifact(artifact) + "}");
+            }
+            out.print(dependencies.isEmpty() ? "]}" : "\n  ]}");
+        } else if (TSV.equals(format)) {
+            for (Artifact artifact : dependencies) {
+                out.print(module);
+                out.print(holder.isReactorArtifact(artifact) ? "\tR\t" : "\tL\t");
+                out.print(artifact.getGroupId() + "\t" + artifact.getArtifactId() + "\t" + artifact.getType() + "\t");
+                out.print((artifact.getClassifier() == null ? "" : artifact.getClassifier()) + "\t" + artifact.getVersion() + "\t" + artifact.getScope() + "\n");
+            }
+        } else {
+            out.print("  \"" + module + "\" [style=bold];\n");
+            for (Artifact artifact : dependencies) {
+                boolean reactor = holder.isReactorArtifact(artifact);
+                String target = reactor ? artifact.getGroupId() + ":" + artifact.getArtifactId() : artifact.getId();
+                out.print("  \"" + module + "\" -> \"" + target + "\" [label=\"" + artifact.getScope() + "\"" + (reactor ? "" : ", style=dashed") + "];\n");
+            }
+        }
+        first = false;
+    }
+
+    public void end() {
+        if (JSON.equals(format))
+            out.print(first ? "]}\n" : "\n]}\n");
+        else if (DOT.equals(format))
+            out.print("}\n");
+    }
+}
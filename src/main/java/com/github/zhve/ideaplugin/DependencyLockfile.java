@@ -0,0 +1,181 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Resolved dependencies of all reactor modules in a tab separated file, which is meant to be committed.
+ * Each module starts with a "module" line with the module id followed by the "reactor" and "remote" lines
+ * of its dependencies in {@link ArtifactSerializer} format without files.
+ *
+ * @since 10/18/2026
+ */
+class DependencyLockfile {
+    private static final String HEADER = "# Dependency lockfile of idea-maven-plugin, run idea:lock to update";
+    private static final String MODULE = "module";
+    private static final String REACTOR = "reactor";
+    private static final String REMOTE = "remote";
+
+    private final File file;
+    private final ArtifactSerializer serializer;
+
+    public DependencyLockfile(File file, ArtifactFactory artifactFactory) {
+        this.file = file;
+        this.serializer = new ArtifactSerializer(artifactFactory, false);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @param reactorProjects reactor modules
+     * @param dependencyMap   resolved dependencies of the reactor modules
+     * @return lockfile content, modules in reactor order and dependencies sorted by id
+     */
+    public String format(List<MavenProject> reactorProjects, Map<MavenProject, ArtifactDependencyResolver.DependencyData> dependencyMap) {
+        StringBuilder sb = new StringBuilder(HEADER).append('\n');
+        for (MavenProject project : reactorProjects) {
+            ArtifactDependencyResolver.DependencyData data = dependencyMap.get(project);
+            sb.append(MODULE).append('\t').append(project.getId()).append('\n');
+            if (data == null)
+                continue;
+            append(sb, REACTOR, data.getReactorList());
+            append(sb, REMOTE, data.getRemoteList());
+        }
+        return sb.toString();
+    }
+
+    private void append(StringBuilder sb, String kind, List<Artifact> artifacts) {
+        List<Artifact> list = new ArrayList<Artifact>(artifacts);
+        Collections.sort(list, ArtifactComparator.INSTANCE);
+        for (Artifact artifact : list)
+            sb.append(kind).append('\t').append(serializer.write(artifact)).append('\n');
+    }
+
+    /**
+     * @param content lockfile content
+     * @return true if the lockfile exists and has the same content, line separators are ignored
+     * @throws IOException if the lockfile can't be read
+     */
+    public boolean isUpToDate(String content) throws IOException {
+        String current = readContent();
+        return current != null && current.replace("\r\n", "\n").equals(content);
+    }
+
+    /**
+     * @return lockfile content or null if the lockfile doesn't exist
+     * @throws IOException if the lockfile can't be read
+     */
+    public String readContent() throws IOException {
+        return file.isFile() ? Util.readText(file) : null;
+    }
+
+    /**
+     * @param content lockfile content
+     * @throws IOException if the lockfile can't be written
+     */
+    public void write(String content) throws IOException {
+        Util.writeText(file, content);
+    }
+
+    /**
+     * @param reactorProjects reactor modules
+     * @return locked dependencies of the reactor modules
+     * @throws IOException            if the lockfile can't be read or is malformed
+     * @throws MojoExecutionException if the lockfile doesn't match the reactor modules
+     */
+    public Map<MavenProject, ArtifactDependencyResolver.DependencyData> read(List<MavenProject> reactorProjects) throws IOException, MojoExecutionException {
+        String content = readContent();
+        if (content == null)
+            throw new MojoExecutionException("Lockfile " + file.getAbsolutePath() + " doesn't exist, run idea:lock to create it");
+        return parse(content, reactorProjects, true);
+    }
+
+    /**
+     * @param reactorProjects reactor modules
+     * @return locked dependencies of the reactor modules found in the lockfile, modules not in the reactor are skipped
+     * @throws IOException if the lockfile can't be read or is malformed
+     */
+    public Map<MavenProject, ArtifactDependencyResolver.DependencyData> readAvailable(List<MavenProject> reactorProjects) throws IOException {
+        String content = readContent();
+        if (content == null)
+            return new HashMap<MavenProject, ArtifactDependencyResolver.DependencyData>();
+        try {
+            return parse(content, reactorProjects, false);
+        } catch (MojoExecutionException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private Map<MavenProject, ArtifactDependencyResolver.DependencyData> parse(String content, List<MavenProject> reactorProjects, boolean strict) throws IOException, MojoExecutionException {
+        Map<String, MavenProject> projectMap = new HashMap<String, MavenProject>();
+        for (MavenProject project : reactorProjects)
+            projectMap.put(project.getId(), project);
+
+        Map<MavenProject, ArtifactDependencyResolver.DependencyData> dependencyMap = new HashMap<MavenProject, ArtifactDependencyResolver.DependencyData>();
+        MavenProject project = null;
+        boolean module = false;
+        List<Artifact> reactorList = null;
+        List<Artifact> remoteList = null;
+        int lineNumber = 0;
+        for (String line : content.split("\n")) {
+            lineNumber++;
+            if (line.endsWith("\r"))
+                line = line.substring(0, line.length() - 1);
+            if (line.length() == 0 || line.startsWith("#"))
+                continue;
+            int tab = line.indexOf('\t');
+            String kind = tab < 0 ? line : line.substring(0, tab);
+            String value = tab < 0 ? "" : line.substring(tab + 1);
+            if (MODULE.equals(kind)) {
+                if (project != null)
+                    dependencyMap.put(project, new ArtifactDependencyResolver.DependencyData(remoteList, reactorList));
+                module = true;
+                project = projectMap.remove(value);
+                if (project == null && strict)
+                    throw new MojoExecutionException("Lockfile " + file.getAbsolutePath() + " is out of date, module " + value + " isn't in the reactor, run idea:lock to update it");
+                reactorList = new ArrayList<Artifact>();
+                remoteList = new ArrayList<Artifact>();
+            } else if (module && (REACTOR.equals(kind) || REMOTE.equals(kind))) {
+                if (project == null)
+                    continue;
+                try {
+                    (REACTOR.equals(kind) ? reactorList : remoteList).add(serializer.read(value));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Malformed lockfile " + file.getAbsolutePath() + " at line " + lineNumber);
+                }
+            } else
+                throw new IOException("Malformed lockfile " + file.getAbsolutePath() + " at line " + lineNumber);
+        }
+        if (project != null)
+            dependencyMap.put(project, new ArtifactDependencyResolver.DependencyData(remoteList, reactorList));
+        if (strict && !projectMap.isEmpty())
+            throw new MojoExecutionException("Lockfile " + file.getAbsolutePath() + " is out of date, module " + projectMap.keySet().iterator().next() + " isn't locked, run idea:lock to update it");
+        return dependencyMap;
+    }
+}
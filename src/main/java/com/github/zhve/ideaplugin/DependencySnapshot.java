@@ -0,0 +1,146 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Dependencies of the modules saved by the list goal in tsv format, compared with the current resolution
+ * to find added, removed and version-changed dependencies of each module
+ *
+ * @since 10/18/2026
+ */
+class DependencySnapshot {
+    private final File file;
+
+    /**
+     * groupId:artifactId of the module -> groupId:artifactId:type[:classifier] of the dependency -> version
+     */
+    private final Map<String, Map<String, String>> modules = new LinkedHashMap<String, Map<String, String>>();
+
+    private final Set<String> comparedModules = new HashSet<String>();
+    private int changedModules;
+
+    /**
+     * @param file snapshot written with listFormat=tsv
+     * @throws MojoExecutionException if the file is not a tsv snapshot
+     * @throws IOException            if the file can't be read
+     */
+    public DependencySnapshot(File file) throws MojoExecutionException, IOException {
+        this.file = file;
+        if (!file.isFile())
+            throw new MojoExecutionException("Snapshot " + file.getAbsolutePath() + " doesn't exist, write it with -DlistFormat=tsv");
+        int lineNumber = 0;
+        for (String line : Util.readText(file).split("\n")) {
+            lineNumber++;
+            if (line.length() == 0 || line.startsWith("#"))
+                continue;
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 8)
+                throw new MojoExecutionException("Invalid snapshot line " + lineNumber + " in " + file.getAbsolutePath() + ", write it with -DlistFormat=tsv");
+            Map<String, String> dependencies = modules.get(fields[0]);
+            if (dependencies == null)
+                modules.put(fields[0], dependencies = new TreeMap<String, String>());
+            String key = fields[2] + ":" + fields[3] + ":" + fields[4] + (fields[5].length() == 0 ? "" : ":" + fields[5]);
+            dependencies.put(key, fields[6]);
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Log the changes of the module
+     *
+     * @param log          log
+     * @param project      reactor module
+     * @param dependencies current dependencies of the module
+     */
+    public void compare(Log log, MavenProject project, List<Artifact> dependencies) {
+        String module = project.getGroupId() + ":" + project.getArtifactId();
+        comparedModules.add(module);
+        Map<String, String> previous = modules.get(module);
+        // modules without dependencies have no lines
+        if (previous == null && dependencies.isEmpty())
+            return;
+        if (previous == null) {
+            changedModules++;
+            log.info("");
+            log.info(module + ": not in the snapshot");
+            return;
+        }
+        Map<String, String> current = new TreeMap<String, String>();
+        for (Artifact artifact : dependencies)
+            current.put(artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getType() + (artifact.getClassifier() == null ? "" : ":" + artifact.getClassifier()), artifact.getVersion());
+
+        List<String> lines = new ArrayList<String>();
+        int added = 0;
+        int removed = 0;
+        int changed = 0;
+        for (Map.Entry<String, String> entry : current.entrySet()) {
+            String version = previous.get(entry.getKey());
+            if (version == null) {
+                added++;
+                lines.add("  + " + entry.getKey() + ":" + entry.getValue());
+            } else if (!version.equals(entry.getValue())) {
+                changed++;
+                lines.add("  ~ " + entry.getKey() + ":" + version + " -> " + entry.getValue());
+            }
+        }
+        for (Map.Entry<String, String> entry : previous.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                removed++;
+                lines.add("  - " + entry.getKey() + ":" + entry.getValue());
+            }
+        }
+        if (lines.isEmpty())
+            return;
+        changedModules++;
+        log.info("");
+        log.info(module + ": " + added + " added, " + removed + " removed, " + changed + " version changed");
+        for (String line : lines)
+            log.info(line);
+    }
+
+    /**
+     * Log the modules which are not in the reactor anymore and the summary
+     *
+     * @param log         log
+     * @param moduleCount number of compared modules
+     */
+    public void finish(Log log, int moduleCount) {
+        for (String module : modules.keySet()) {
+            if (!comparedModules.contains(module)) {
+                log.info("");
+                log.info(module + ": not in the reactor");
+            }
+        }
+        log.info("");
+        log.info("Snapshot Diff: " + changedModules + " of " + moduleCount + " modules changed since " + file.getAbsolutePath());
+    }
+}
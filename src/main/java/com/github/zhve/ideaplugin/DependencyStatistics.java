@@ -0,0 +1,226 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Graph metrics of the reactor: libraries and reactor closure of each module, closure depth, fan-in,
+ * duplicate and conflicting edges met by the resolver and the libraries shared by the most modules.
+ * Duplicate and conflicting edges are counted from the resolution trace records.
+ *
+ * @since 10/18/2026
+ */
+class DependencyStatistics extends ResolutionTrace {
+    /**
+     * module id -> duplicate and conflicting edges
+     */
+    private final Map<String, int[]> edgeCounts = new HashMap<String, int[]>();
+
+    /**
+     * Count edges without the trace file
+     */
+    public DependencyStatistics() {
+    }
+
+    /**
+     * @param file JSON lines file of the trace
+     * @throws IOException if the file can't be created
+     */
+    public DependencyStatistics(File file) throws IOException {
+        super(file);
+    }
+
+    @Override
+    public boolean isEnabled(Log log) {
+        return true;
+    }
+
+    @Override
+    public void record(Log log, MavenProject project, String phase, char action, String artifact, String scope, String detail) {
+        if (action == DUPLICATE || action == CONFLICT) {
+            // called from the resolver threads
+            synchronized (edgeCounts) {
+                int[] counts = edgeCounts.get(project.getId());
+                if (counts == null)
+                    edgeCounts.put(project.getId(), counts = new int[2]);
+                counts[action == DUPLICATE ? 0 : 1]++;
+            }
+        }
+        super.record(log, project, phase, action, artifact, scope, detail);
+    }
+
+    /**
+     * @param reactorProjects   reactor projects in the reactor order
+     * @param dependencyDataMap resolved dependencies of all modules
+     * @return metrics of each module in the reactor order
+     */
+    public List<ModuleStatistics> getModules(List<MavenProject> reactorProjects, Map<MavenProject, ArtifactDependencyResolver.DependencyData> dependencyDataMap) {
+        Map<String, ModuleStatistics> moduleMap = new LinkedHashMap<String, ModuleStatistics>();
+        for (MavenProject project : reactorProjects)
+            moduleMap.put(project.getGroupId() + ":" + project.getArtifactId(), new ModuleStatistics(project));
+
+        for (ModuleStatistics module : moduleMap.values()) {
+            ArtifactDependencyResolver.DependencyData dependencyData = dependencyDataMap.get(module.project);
+            module.libraries = dependencyData.getRemoteList().size();
+            module.reactorClosure = dependencyData.getReactorList().size();
+            module.resolved = dependencyData.isResolved();
+            synchronized (edgeCounts) {
+                int[] counts = edgeCounts.get(module.project.getId());
+                if (counts != null) {
+                    module.duplicates = counts[0];
+                    module.conflicts = counts[1];
+                }
+            }
+            for (Artifact artifact : dependencyData.getReactorList()) {
+                ModuleStatistics dependency = moduleMap.get(artifact.getGroupId() + ":" + artifact.getArtifactId());
+                if (dependency != null)
+                    dependency.transitiveFanIn++;
+            }
+            for (Object object : module.project.getDependencies()) {
+                Dependency declared = (Dependency) object;
+                ModuleStatistics dependency = moduleMap.get(declared.getGroupId() + ":" + declared.getArtifactId());
+                if (dependency != null && dependency != module && !module.declared.contains(dependency)) {
+                    module.declared.add(dependency);
+                    dependency.directFanIn++;
+                }
+            }
+        }
+        for (ModuleStatistics module : moduleMap.values())
+            computeDepth(module);
+        return new ArrayList<ModuleStatistics>(moduleMap.values());
+    }
+
+    /**
+     * @param module module
+     * @return the longest chain of declared reactor dependencies below the module
+     */
+    private static int computeDepth(ModuleStatistics module) {
+        if (module.depth >= 0)
+            return module.depth;
+        // a cycle can't get here from the reactor, the guard only keeps the recursion finite
+        module.depth = 0;
+        int depth = 0;
+        for (ModuleStatistics dependency : module.declared)
+            depth = Math.max(depth, computeDepth(dependency) + 1);
+        module.depth = depth;
+        return depth;
+    }
+
+    /**
+     * @param reactorProjects   reactor projects
+     * @param dependencyDataMap resolved dependencies of all modules
+     * @return library id -> number of modules using it, the most shared first
+     */
+    public static List<Map.Entry<String, Integer>> getSharedLibraries(List<MavenProject> reactorProjects, Map<MavenProject, ArtifactDependencyResolver.DependencyData> dependencyDataMap) {
+        Map<String, Integer> libraryMap = new HashMap<String, Integer>();
+        for (MavenProject project : reactorProjects) {
+            for (Artifact artifact : dependencyDataMap.get(project).getRemoteList()) {
+                Integer count = libraryMap.get(artifact.getId());
+                libraryMap.put(artifact.getId(), count == null ? 1 : count + 1);
+            }
+        }
+        List<Map.Entry<String, Integer>> list = new ArrayList<Map.Entry<String, Integer>>(libraryMap.entrySet());
+        Collections.sort(list, new Comparator<Map.Entry<String, Integer>>() {
+            @Override
+            public int compare(Map.Entry<String, Integer> o1, Map.Entry<String, Integer> o2) {
+                int result = o2.getValue().compareTo(o1.getValue());
+                return result != 0 ? result : o1.getKey().compareTo(o2.getKey());
+            }
+        });
+        return list;
+    }
+
+    /**
+     * Metrics of one module
+     */
+    public static class ModuleStatistics {
+        private final MavenProject project;
+        private final List<ModuleStatistics> declared = new ArrayList<ModuleStatistics>();
+        private int libraries;
+        private int reactorClosure;
+        private int depth = -1;
+        private int directFanIn;
+        private int transitiveFanIn;
+        private int duplicates;
+        private int conflicts;
+        private boolean resolved;
+
+        public ModuleStatistics(MavenProject project) {
+            this.project = project;
+        }
+
+        public MavenProject getProject() {
+            return project;
+        }
+
+        /**
+         * @return transitive libraries of the module
+         */
+        public int getLibraries() {
+            return libraries;
+        }
+
+        /**
+         * @return reactor modules in the transitive closure of the module
+         */
+        public int getReactorClosure() {
+            return reactorClosure;
+        }
+
+        /**
+         * @return order entries of the module, the main part of the iml size
+         */
+        public int getEntries() {
+            return libraries + reactorClosure;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public int getDirectFanIn() {
+            return directFanIn;
+        }
+
+        public int getTransitiveFanIn() {
+            return transitiveFanIn;
+        }
+
+        public int getDuplicates() {
+            return duplicates;
+        }
+
+        public int getConflicts() {
+            return conflicts;
+        }
+
+        public boolean isResolved() {
+            return resolved;
+        }
+    }
+}
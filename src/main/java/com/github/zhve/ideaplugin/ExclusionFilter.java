@@ -0,0 +1,46 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.resolver.filter.ExcludesArtifactFilter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ExcludesArtifactFilter which keeps its exclusions readable.
+ *
+ * @since 10/18/2026
+ */
+class ExclusionFilter extends ExcludesArtifactFilter {
+    private final List<String> exclusions;
+
+    public ExclusionFilter(List<String> exclusions) {
+        super(exclusions);
+        this.exclusions = Collections.unmodifiableList(exclusions);
+    }
+
+    /**
+     * @return excluded groupId:artifactId pairs
+     */
+    public List<String> getExclusions() {
+        return exclusions;
+    }
+}
@@ -0,0 +1,276 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wall time, allocated bytes and number of calls of the plugin phases and of the reactor modules.
+ * Time and allocation of concurrent phases are summed over the threads. When a Flight Recorder recording is active,
+ * every phase is also committed as a custom event, even if the profile isn't recorded.
+ *
+ * @since 10/18/2026
+ */
+class ExecutionProfiler {
+    /**
+     * Profiler which records nothing
+     */
+    public static final ExecutionProfiler DISABLED = new ExecutionProfiler(false);
+
+    private static final Timer NO_TIMER = new Timer(null, null, null);
+
+    // HotSpot com.sun.management.ThreadMXBean, allocation is not reported if it is not available
+    private static final Object THREAD_BEAN = ManagementFactory.getThreadMXBean();
+    private static final Method ALLOCATED_BYTES = findAllocatedBytesMethod();
+
+    private final boolean enabled;
+    private final long startTime = System.nanoTime();
+    private final ConcurrentMap<String, Statistics> phases = new ConcurrentHashMap<String, Statistics>();
+    private final ConcurrentMap<String, Statistics> modules = new ConcurrentHashMap<String, Statistics>();
+    // phases in the order of the first call
+    private final List<String> phaseOrder = Collections.synchronizedList(new ArrayList<String>());
+
+    public ExecutionProfiler(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Timer start(String phase) {
+        return start(phase, null);
+    }
+
+    /**
+     * @param phase   phase name
+     * @param project module the time is accounted to, or null
+     * @return timer to stop when the phase is done
+     */
+    public Timer start(String phase, MavenProject project) {
+        Object event = FlightRecorderEvents.begin(phase, project == null ? null : project.getId());
+        if (!enabled)
+            return event == null ? NO_TIMER : new Timer(null, null, event);
+        Statistics phaseStatistics = get(phases, phase);
+        Statistics moduleStatistics = project == null ? null : get(modules, project.getId());
+        return new Timer(phaseStatistics, moduleStatistics, event);
+    }
+
+    private Statistics get(ConcurrentMap<String, Statistics> map, String key) {
+        Statistics statistics = map.get(key);
+        if (statistics == null) {
+            Statistics created = new Statistics(key);
+            statistics = map.putIfAbsent(key, created);
+            if (statistics == null) {
+                statistics = created;
+                if (map == phases)
+                    phaseOrder.add(key);
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Log the phases and the slowest modules
+     *
+     * @param log        log
+     * @param topModules number of the slowest modules to log
+     */
+    public void log(Log log, int topModules) {
+        log.info("");
+        log.info("Execution Profile (" + toMillis(System.nanoTime() - startTime) + " ms, peak heap " + (getPeakHeap() >> 20) + " MB)");
+        log.info("");
+        for (Statistics statistics : getPhases())
+            log.info("  " + statistics);
+        List<Statistics> slowest = getSlowestModules(topModules);
+        if (!slowest.isEmpty()) {
+            log.info("");
+            log.info("Slowest Modules");
+            log.info("");
+            for (Statistics statistics : slowest)
+                log.info("  " + statistics);
+        }
+    }
+
+    /**
+     * @return JSON report of all phases and modules
+     */
+    public String toJson() {
+        StringBuilder b = new StringBuilder();
+        b.append("{\n  \"totalMillis\": ").append(toMillis(System.nanoTime() - startTime)).append(",\n");
+        b.append("  \"peakHeapBytes\": ").append(getPeakHeap()).append(",\n");
+        b.append("  \"allocationSupported\": ").append(ALLOCATED_BYTES != null).append(",\n");
+        b.append("  \"phases\": [");
+        appendJson(b, getPhases());
+        b.append("],\n  \"modules\": [");
+        appendJson(b, getSlowestModules(Integer.MAX_VALUE));
+        b.append("]\n}\n");
+        return b.toString();
+    }
+
+    private static void appendJson(StringBuilder b, List<Statistics> list) {
+        for (int i = 0; i < list.size(); i++) {
+            Statistics statistics = list.get(i);
+            b.append(i == 0 ? "\n" : ",\n");
+            b.append("    {\"name\": \"").append(Util.escapeJson(statistics.name));
+            b.append("\", \"count\": ").append(statistics.count.get());
+            b.append(", \"millis\": ").append(toMillis(statistics.nanos.get()));
+            b.append(", \"allocatedBytes\": ").append(statistics.allocatedBytes.get()).append('}');
+        }
+        if (!list.isEmpty())
+            b.append("\n  ");
+    }
+
+    private List<Statistics> getPhases() {
+        List<Statistics> list = new ArrayList<Statistics>();
+        synchronized (phaseOrder) {
+            for (String phase : phaseOrder)
+                list.add(phases.get(phase));
+        }
+        return list;
+    }
+
+    private List<Statistics> getSlowestModules(int count) {
+        List<Statistics> list = new ArrayList<Statistics>(modules.values());
+        Collections.sort(list, new Comparator<Statistics>() {
+            @Override
+            public int compare(Statistics o1, Statistics o2) {
+                long n1 = o1.nanos.get();
+                long n2 = o2.nanos.get();
+                return n1 > n2 ? -1 : n1 < n2 ? 1 : o1.name.compareTo(o2.name);
+            }
+        });
+        return list.size() > count ? list.subList(0, count) : list;
+    }
+
+    /**
+     * @return sum of the peak usages of the heap memory pools since the JVM start
+     */
+    private static long getPeakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null)
+                peak += pool.getPeakUsage().getUsed();
+        return peak;
+    }
+
+    private static long toMillis(long nanos) {
+        return nanos / 1000000L;
+    }
+
+    private static Method findAllocatedBytesMethod() {
+        try {
+            Method method = Class.forName("com.sun.management.ThreadMXBean").getMethod("getThreadAllocatedBytes", long.class);
+            if (!method.getDeclaringClass().isInstance(THREAD_BEAN))
+                return null;
+            // check it works here
+            method.invoke(THREAD_BEAN, Thread.currentThread().getId());
+            return method;
+        } catch (Exception e) {
+            return null;
+        } catch (LinkageError e) {
+            return null;
+        }
+    }
+
+    private static long allocatedBytes() {
+        if (ALLOCATED_BYTES == null)
+            return 0;
+        try {
+            return (Long) ALLOCATED_BYTES.invoke(THREAD_BEAN, Thread.currentThread().getId());
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    // Classes
+
+    private static class Statistics {
+        private final String name;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong nanos = new AtomicLong();
+        private final AtomicLong allocatedBytes = new AtomicLong();
+
+        private Statistics(String name) {
+            this.name = name;
+        }
+
+        private void add(long time, long allocated) {
+            count.incrementAndGet();
+            nanos.addAndGet(time);
+            allocatedBytes.addAndGet(allocated);
+        }
+
+        @Override
+        public String toString() {
+            String result = name + ": " + toMillis(nanos.get()) + " ms, " + count.get() + (count.get() == 1 ? " call" : " calls");
+            return ALLOCATED_BYTES == null ? result : result + ", " + (allocatedBytes.get() >> 10) + " KB allocated";
+        }
+    }
+
+    /**
+     * Measures one call of a phase in the current thread
+     */
+    public static class Timer {
+        private final Statistics phase;
+        private final Statistics module;
+        private final Object event;
+        private final long startTime;
+        private final long startBytes;
+
+        /**
+         * @param phase  phase statistics, null if the profile isn't recorded
+         * @param module module statistics or null
+         * @param event  started Flight Recorder event or null
+         */
+        private Timer(Statistics phase, Statistics module, Object event) {
+            this.phase = phase;
+            this.module = module;
+            this.event = event;
+            boolean measured = phase != null || event != null;
+            this.startTime = measured ? System.nanoTime() : 0;
+            this.startBytes = measured ? allocatedBytes() : 0;
+        }
+
+        public void stop() {
+            if (phase == null && event == null)
+                return;
+            long time = System.nanoTime() - startTime;
+            long allocated = allocatedBytes() - startBytes;
+            if (phase != null) {
+                phase.add(time, allocated);
+                if (module != null)
+                    module.add(time, allocated);
+            }
+            if (event != null)
+                FlightRecorderEvents.commit(event, allocated);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.project.MavenProject;
+
+import java.util.*;
+
+/**
+ * Order entries of the exported mode. A module lists its reactor modules and only the libraries it doesn't get from
+ * them, the libraries Maven passes on (compile and runtime scope) are exported, IDEA adds the exported libraries of
+ * a module dependency to the classpath with the scope narrowed to the scope of the module dependency.
+ * An export is dropped when it would give a dependent module another version or a wider scope than Maven does,
+ * the dependent modules list such libraries themselves then.
+ *
+ * @since 10/18/2026
+ */
+class ExportedDependencies {
+    // IDEA dependency scopes as the classpaths the dependency is on
+    private static final int PRODUCTION_COMPILE = 1;
+    private static final int PRODUCTION_RUNTIME = 2;
+    private static final int TEST_COMPILE = 4;
+    private static final int TEST_RUNTIME = 8;
+
+    private final List<MavenProject> projects;
+    private final ArtifactHolder holder;
+
+    /**
+     * groupId:artifactId -> reactor module
+     */
+    private final Map<String, MavenProject> projectMap = new HashMap<String, MavenProject>();
+
+    /**
+     * Module -> order entries of the iml file
+     */
+    private final Map<MavenProject, List<Artifact>> entryMap = new HashMap<MavenProject, List<Artifact>>();
+
+    /**
+     * Module -> ids of its exported libraries
+     */
+    private final Map<MavenProject, Set<String>> exportedMap = new HashMap<MavenProject, Set<String>>();
+
+    /**
+     * @param projects reactor modules, dependencies go first
+     * @param holder   full closures of the modules
+     */
+    public ExportedDependencies(List<MavenProject> projects, ArtifactHolder holder) {
+        this.projects = projects;
+        this.holder = holder;
+        for (MavenProject project : projects) {
+            projectMap.put(ArtifactUtils.versionlessKey(project.getArtifact()), project);
+            Set<String> exported = new HashSet<String>();
+            for (Artifact artifact : holder.getDependencies(project))
+                if (!holder.isReactorArtifact(artifact) && (getClasspaths(artifact) & PRODUCTION_RUNTIME) != 0)
+                    exported.add(artifact.getId());
+            exportedMap.put(project, exported);
+        }
+
+        // exports are only dropped, so the loop ends
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (MavenProject project : projects) {
+                Map<String, Integer> classpaths = getClasspaths(holder.getDependencies(project));
+                Map<String, List<MavenProject>> sources = new HashMap<String, List<MavenProject>>();
+                Map<String, Integer> derived = derive(project, sources);
+                List<Artifact> entries = new ArrayList<Artifact>();
+                for (Artifact artifact : holder.getDependencies(project))
+                    if (!classpaths.get(artifact.getId()).equals(derived.get(artifact.getId())))
+                        entries.add(artifact);
+                entryMap.put(project, entries);
+
+                // IDEA can't hide an exported library from the dependent module
+                for (Map.Entry<String, Integer> entry : derived.entrySet()) {
+                    Integer expected = classpaths.get(entry.getKey());
+                    if (expected == null || (entry.getValue() & ~expected) != 0)
+                        for (MavenProject source : sources.get(entry.getKey()))
+                            changed |= exportedMap.get(source).remove(entry.getKey());
+                }
+            }
+        }
+    }
+
+    /**
+     * @param project reactor module
+     * @return order entries of the module in the order of the full closure
+     */
+    public List<Artifact> getEntries(MavenProject project) {
+        List<Artifact> entries = entryMap.get(project);
+        return entries == null ? Collections.<Artifact>emptyList() : entries;
+    }
+
+    /**
+     * @param project  reactor module
+     * @param artifact order entry of the module
+     * @return true if the entry is exported to the dependent modules
+     */
+    public boolean isExported(MavenProject project, Artifact artifact) {
+        Set<String> exported = exportedMap.get(project);
+        return exported != null && exported.contains(artifact.getId());
+    }
+
+    /**
+     * @return number of the order entries of all modules
+     */
+    public int getEntryCount() {
+        int count = 0;
+        for (List<Artifact> entries : entryMap.values())
+            count += entries.size();
+        return count;
+    }
+
+    /**
+     * Compare the classpaths IDEA derives from the order entries with the full closures
+     *
+     * @return differences, empty if the classpath of each module is unchanged
+     */
+    public List<String> verify() {
+        List<String> differences = new ArrayList<String>();
+        for (MavenProject project : projects) {
+            Map<String, Integer> effective = derive(project, new HashMap<String, List<MavenProject>>());
+            for (Artifact artifact : getEntries(project)) {
+                Integer classpaths = effective.get(artifact.getId());
+                effective.put(artifact.getId(), getClasspaths(artifact) | (classpaths == null ? 0 : classpaths));
+            }
+            Map<String, Integer> expected = getClasspaths(holder.getDependencies(project));
+            for (Map.Entry<String, Integer> entry : expected.entrySet())
+                if (!entry.getValue().equals(effective.get(entry.getKey())))
+                    differences.add(project.getArtifactId() + ": " + entry.getKey() + (effective.containsKey(entry.getKey()) ? " has another scope" : " is missing"));
+            for (String id : effective.keySet())
+                if (!expected.containsKey(id))
+                    differences.add(project.getArtifactId() + ": " + id + " is extra");
+        }
+        return differences;
+    }
+
+    /**
+     * @param project reactor module
+     * @param sources library id -> modules exporting it, filled by the method
+     * @return library id -> classpaths the exported libraries of the module dependencies are on
+     */
+    private Map<String, Integer> derive(MavenProject project, Map<String, List<MavenProject>> sources) {
+        Map<String, Integer> derived = new HashMap<String, Integer>();
+        for (Artifact artifact : holder.getDependencies(project)) {
+            MavenProject module = holder.isReactorArtifact(artifact) ? projectMap.get(ArtifactUtils.versionlessKey(artifact)) : null;
+            if (module == null)
+                continue;
+            int scope = getClasspaths(artifact);
+            Set<String> exported = exportedMap.get(module);
+            for (Artifact library : getEntries(module)) {
+                int classpaths = scope & getClasspaths(library);
+                if (classpaths == 0 || !exported.contains(library.getId()))
+                    continue;
+                Integer previous = derived.get(library.getId());
+                derived.put(library.getId(), classpaths | (previous == null ? 0 : previous));
+                List<MavenProject> list = sources.get(library.getId());
+                if (list == null)
+                    sources.put(library.getId(), list = new ArrayList<MavenProject>());
+                list.add(module);
+            }
+        }
+        return derived;
+    }
+
+    private static Map<String, Integer> getClasspaths(List<Artifact> artifacts) {
+        Map<String, Integer> map = new HashMap<String, Integer>();
+        for (Artifact artifact : artifacts)
+            map.put(artifact.getId(), getClasspaths(artifact));
+        return map;
+    }
+
+    /**
+     * @param artifact dependency
+     * @return classpaths of the IDEA scope the dependency is written with
+     */
+    private static int getClasspaths(Artifact artifact) {
+        if (Artifact.SCOPE_PROVIDED.equalsIgnoreCase(artifact.getScope())) return PRODUCTION_COMPILE | TEST_COMPILE | TEST_RUNTIME;
+        if (Artifact.SCOPE_TEST.equalsIgnoreCase(artifact.getScope())) return TEST_COMPILE | TEST_RUNTIME;
+        if (Artifact.SCOPE_RUNTIME.equalsIgnoreCase(artifact.getScope())) return PRODUCTION_RUNTIME | TEST_RUNTIME;
+        return PRODUCTION_COMPILE | PRODUCTION_RUNTIME | TEST_COMPILE | TEST_RUNTIME;
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Custom JDK Flight Recorder events of the plugin phases. Every timed phase is committed as the event
+ * com.github.zhve.ideaplugin.Phase with the phase name, the module and the allocated bytes when a recording
+ * enables it. The event type is defined by jdk.jfr.EventFactory through reflection, so the bridge is off
+ * on the JVMs without jdk.jfr.
+ *
+ * @since 10/18/2026
+ */
+class FlightRecorderEvents {
+    public static final String EVENT_NAME = "com.github.zhve.ideaplugin.Phase";
+
+    private static final FlightRecorderEvents INSTANCE = create();
+
+    private final Method isInitialized;
+    private final Object factory;
+    private final Method newEvent;
+    private final Method isEnabled;
+    private final Method begin;
+    private final Method end;
+    private final Method set;
+    private final Method commit;
+
+    private FlightRecorderEvents(ClassLoader loader) throws Exception {
+        Class<?> annotationElementClass = Class.forName("jdk.jfr.AnnotationElement", true, loader);
+        Class<?> valueDescriptorClass = Class.forName("jdk.jfr.ValueDescriptor", true, loader);
+        Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory", true, loader);
+        Class<?> eventClass = Class.forName("jdk.jfr.Event", true, loader);
+        Constructor<?> annotationElement = annotationElementClass.getConstructor(Class.class, Object.class);
+        Constructor<?> valueDescriptor = valueDescriptorClass.getConstructor(Class.class, String.class);
+
+        List<Object> annotations = Arrays.asList(
+                annotationElement.newInstance(annotation("jdk.jfr.Name", loader), EVENT_NAME),
+                annotationElement.newInstance(annotation("jdk.jfr.Label", loader), "IDEA Plugin Phase"),
+                annotationElement.newInstance(annotation("jdk.jfr.Category", loader), new String[]{"Maven", "IDEA Plugin"}),
+                // the stack is the reflective commit call
+                annotationElement.newInstance(annotation("jdk.jfr.StackTrace", loader), Boolean.FALSE));
+        List<Object> fields = Arrays.asList(
+                valueDescriptor.newInstance(String.class, "phase"),
+                valueDescriptor.newInstance(String.class, "module"),
+                valueDescriptor.newInstance(long.class, "allocatedBytes"));
+        isInitialized = Class.forName("jdk.jfr.FlightRecorder", true, loader).getMethod("isInitialized");
+        factory = factoryClass.getMethod("create", List.class, List.class).invoke(null, annotations, fields);
+        newEvent = factoryClass.getMethod("newEvent");
+        isEnabled = eventClass.getMethod("isEnabled");
+        begin = eventClass.getMethod("begin");
+        end = eventClass.getMethod("end");
+        set = eventClass.getMethod("set", int.class, Object.class);
+        commit = eventClass.getMethod("commit");
+    }
+
+    private static FlightRecorderEvents create() {
+        try {
+            return new FlightRecorderEvents(FlightRecorderEvents.class.getClassLoader());
+        } catch (Exception e) {
+            return null;
+        } catch (LinkageError e) {
+            return null;
+        }
+    }
+
+    private static Class<? extends Annotation> annotation(String name, ClassLoader loader) throws ClassNotFoundException {
+        return Class.forName(name, true, loader).asSubclass(Annotation.class);
+    }
+
+    /**
+     * @return true if jdk.jfr is available
+     */
+    public static boolean isAvailable() {
+        return INSTANCE != null;
+    }
+
+    /**
+     * @param phase  phase name
+     * @param module module id or null
+     * @return started event, or null if no recording enables it
+     */
+    public static Object begin(String phase, String module) {
+        if (INSTANCE == null)
+            return null;
+        try {
+            // no recording was ever started in this JVM
+            if (!(Boolean) INSTANCE.isInitialized.invoke(null))
+                return null;
+            Object event = INSTANCE.newEvent.invoke(INSTANCE.factory);
+            if (!(Boolean) INSTANCE.isEnabled.invoke(event))
+                return null;
+            INSTANCE.set.invoke(event, 0, phase);
+            INSTANCE.set.invoke(event, 1, module);
+            INSTANCE.begin.invoke(event);
+            return event;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param event          event returned by begin
+     * @param allocatedBytes bytes allocated by the phase, 0 if unknown
+     */
+    public static void commit(Object event, long allocatedBytes) {
+        try {
+            INSTANCE.end.invoke(event);
+            INSTANCE.set.invoke(event, 2, allocatedBytes);
+            INSTANCE.commit.invoke(event);
+        } catch (Exception e) {
+            // the event is lost
+        }
+    }
+}
@@ -20,6 +20,7 @@ package com.github.zhve.ideaplugin;
  */
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -33,7 +34,8 @@ public class GenerateBat {
         // generate idea.bat
         List<String> list = new ArrayList<String>();
         for (Field f : IdeaPluginMojo.class.getDeclaredFields())
-            list.add(f.getName());
+            if (!Modifier.isTransient(f.getModifiers()))
+                list.add(f.getName());
         Collections.sort(list);
 
         System.out.println("@echo off");
@@ -52,6 +54,8 @@ public class GenerateBat {
                 "echo     clean    Delete workspace files\n" +
                 "echo     help     Show help\n" +
                 "echo     list     Show dependencies\n" +
+                "echo     lock     Write dependency lockfile\n" +
+                "echo     watch    Keep workspace files in sync with POMs\n" +
                 "exit 0\n" +
                 ":ok\n");
 
@@ -20,18 +20,12 @@ package com.github.zhve.ideaplugin;
  */
 
 import org.apache.maven.artifact.Artifact;
-import org.apache.maven.artifact.factory.ArtifactFactory;
-import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
-import org.apache.maven.artifact.repository.ArtifactRepository;
-import org.apache.maven.artifact.resolver.ArtifactResolver;
-import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
-import org.apache.maven.plugin.MojoFailureException;
-import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 
+import java.io.*;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -41,31 +35,94 @@ import java.util.List;
  * @since 5/18/2014.
  */
 @Mojo(name = "list", aggregator = true)
-public class IdeaListMojo extends AbstractMojo {
-    @Component
-    private ArtifactResolver artifactResolver;
+public class IdeaListMojo extends IdeaPluginMojoBase {
+    /**
+     * Output format: text to log dependencies, json, tsv or dot to write them to listOutput
+     */
+    @Parameter(property = "listFormat", defaultValue = "text")
+    private String listFormat;
 
-    @Component
-    private ArtifactFactory artifactFactory;
+    /**
+     * Output file of the json, tsv and dot formats, target/idea-plugin/dependencies.&lt;listFormat&gt; of the execution root by default
+     */
+    @Parameter(property = "listOutput")
+    private File listOutput;
 
-    @Component(role = ArtifactMetadataSource.class, hint = "maven")
-    private ArtifactMetadataSource artifactMetadataSource;
+    /**
+     * Previous output in the tsv format, added, removed and version-changed dependencies of each module are logged
+     */
+    @Parameter(property = "listSnapshot")
+    private File listSnapshot;
 
-    @Parameter(property = "reactorProjects", required = true, readonly = true)
-    private List<MavenProject> reactorProjects;
+    private transient File outputFile;
+    private transient PrintWriter out;
+    private transient DependencyListWriter writer;
+    private transient DependencySnapshot snapshot;
+    private transient boolean opened;
+    private transient int listedModules;
 
-    @Parameter(property = "localRepository", required = true, readonly = true)
-    private ArtifactRepository localRepository;
+    @Override
+    protected boolean isStreamingSupported() {
+        return true;
+    }
+
+    @Override
+    protected void startStreaming() throws Exception {
+        open();
+    }
+
+    @Override
+    protected void moduleResolved(MavenProject project) {
+        list(project);
+        // dependencies of the listed module are not needed anymore
+        getArtifactHolder().release(project);
+    }
 
     @Override
-    public void execute() throws MojoExecutionException, MojoFailureException {
-        ArtifactDependencyResolver resolver = new ArtifactDependencyResolver(getLog(), artifactFactory, artifactResolver, localRepository, artifactMetadataSource);
-        ArtifactHolder artifactHolder = new ArtifactHolder(getLog(), resolver, reactorProjects);
+    protected void doExecute() throws Exception {
+        if (!opened) {
+            open();
+            for (MavenProject project : getReactorProjects())
+                list(project);
+        }
+        if (writer != null) {
+            writer.end();
+            out.close();
+            if (out.checkError())
+                throw new IOException("Can't write " + outputFile.getAbsolutePath());
+            getLog().info("");
+            getLog().info("Dependency List " + outputFile.getAbsolutePath());
+        }
+        if (snapshot != null)
+            snapshot.finish(getLog(), listedModules);
+    }
+
+    private void open() throws MojoExecutionException, IOException {
+        opened = true;
+        // read before the output is truncated, the snapshot may be the previous output
+        if (listSnapshot != null)
+            snapshot = new DependencySnapshot(listSnapshot);
+        if (!"text".equals(listFormat)) {
+            if (!DependencyListWriter.isSupported(listFormat))
+                throw new MojoExecutionException("Unsupported listFormat " + listFormat + ", use text, json, tsv or dot");
+            outputFile = listOutput != null ? listOutput : new File(getWorkDirectory(), "dependencies." + listFormat);
+            File parent = outputFile.getAbsoluteFile().getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs())
+                throw new IOException("Can't create directory " + parent.getAbsolutePath());
+            out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), "UTF-8"), 65536));
+            writer = new DependencyListWriter(listFormat, out);
+            writer.start();
+        }
+    }
 
-        for (MavenProject project : reactorProjects) {
-            List<Artifact> list = new ArrayList<Artifact>(artifactHolder.getDependencies(project));
-            Collections.sort(list, ArtifactComparator.INSTANCE);
+    private void list(MavenProject project) {
+        listedModules++;
+        List<Artifact> list = new ArrayList<Artifact>(getArtifactHolder().getDependencies(project));
+        Collections.sort(list, ArtifactComparator.INSTANCE);
 
+        if (writer != null) {
+            writer.write(project, list, getArtifactHolder());
+        } else {
             getLog().info("                                                                        \n" +
                     "[INFO] ------------------------------------------------------------------------\n" +
                     "[INFO] Listing " + project.getName() + " " + project.getId() + "\n" +
@@ -78,5 +135,7 @@ public class IdeaListMojo extends AbstractMojo {
                 getLog().info("   " + artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getType() + ":" + (artifact.getClassifier() != null ? artifact.getClassifier() + ":" : "") + artifact.getVersion() + ":" + artifact.getScope());
             getLog().info("");
         }
+        if (snapshot != null)
+            snapshot.compare(getLog(), project, list);
     }
 }
@@ -0,0 +1,58 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Writes resolved dependencies of all reactor modules to the lockfile.
+ *
+ * @since 10/18/2026
+ */
+@Mojo(name = "lock", aggregator = true)
+public class IdeaLockMojo extends IdeaPluginMojoBase {
+    /**
+     * Fail if the lockfile is missing or out of date instead of writing it
+     */
+    @Parameter(property = "checkLockfile", defaultValue = "false")
+    private boolean checkLockfile;
+
+    @Override
+    protected boolean isLockfileIgnored() {
+        return true;
+    }
+
+    @Override
+    protected void doExecute() throws Exception {
+        DependencyLockfile lockfile = getLockfile();
+        String content = lockfile.format(getReactorProjects(), getDependencyDataMap());
+        getLog().info("");
+        if (lockfile.isUpToDate(content)) {
+            getLog().info("Lockfile " + lockfile.getFile().getAbsolutePath() + " is up to date");
+        } else if (checkLockfile) {
+            throw new MojoFailureException("Lockfile " + lockfile.getFile().getAbsolutePath() + " is missing or out of date, run idea:lock to update it");
+        } else {
+            lockfile.write(content);
+            getLog().info("Write Lockfile " + lockfile.getFile().getAbsolutePath());
+        }
+    }
+}
@@ -19,6 +19,9 @@ package com.github.zhve.ideaplugin;
  * under the License.
  */
 
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.model.Dependency;
 import org.apache.maven.model.IssueManagement;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Mojo;
@@ -26,12 +29,13 @@ import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
+import org.codehaus.plexus.util.SelectorUtils;
 import org.codehaus.plexus.util.StringUtils;
 
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.OutputStreamWriter;
+import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Vasiliy Zhukov
@@ -179,73 +183,316 @@ public class IdeaPluginMojo extends IdeaPluginMojoBase {
     @Parameter(property = "performCodeAnalysisBeforeCommit", defaultValue = "false")
     private boolean performCodeAnalysisBeforeCommit;
 
+    /**
+     * Engine to generate workspace files, possible values: native, velocity
+     */
+    @Parameter(property = "templateEngine", defaultValue = "native")
+    private String templateEngine;
+
+    /**
+     * Directory with custom templates idea-iml.vm, idea-ipr.vm and idea-iws.vm for the velocity engine,
+     * missing templates are taken from the plugin
+     */
+    @Parameter(property = "templateDirectory")
+    private File templateDirectory;
+
+    /**
+     * Comma separated artifactId patterns with * and ? wildcards of the modules to work on: only they, the reactor
+     * modules they depend on and the execution root are resolved and loaded, the other modules are unloaded
+     */
+    @Parameter(property = "focusModules")
+    private String focusModules;
+
+    /**
+     * Write only the libraries a module doesn't get from its reactor modules to its iml file and export the compile
+     * and runtime ones, IDEA derives the rest of the classpath. Not used in the streaming mode
+     */
+    @Parameter(property = "exportedDependencies", defaultValue = "false")
+    private boolean exportedDependencies;
+
+    /**
+     * Download the sources jars of all libraries before the project file is written
+     */
+    @Parameter(property = "downloadSources", defaultValue = "false")
+    private boolean downloadSources;
+
+    /**
+     * Download the javadoc jars of all libraries before the project file is written
+     */
+    @Parameter(property = "downloadJavadocs", defaultValue = "false")
+    private boolean downloadJavadocs;
+
+    /**
+     * Number of concurrent downloads of the sources and javadoc jars
+     */
+    @Parameter(property = "downloadThreads", defaultValue = "4")
+    private int downloadThreads;
+
+    /**
+     * Number of threads used to generate iml files, 0 means the number of processors
+     */
+    @Parameter(property = "renderThreads", defaultValue = "0")
+    private int renderThreads;
+
+    private transient VelocityWorker velocityWorker;
+    private transient AtomicInteger writtenFiles;
+    private transient AtomicInteger unchangedFiles;
+    private transient String gaeHomePath;
+    private transient ExecutorService renderExecutor;
+    private transient List<Future<?>> renderFutures;
+    private transient ExportedDependencies orderEntries;
+
+    @Override
+    protected Set<MavenProject> findUnloadedProjects(List<MavenProject> reactorProjects) throws MojoExecutionException {
+        if (StringUtils.isEmpty(focusModules))
+            return Collections.emptySet();
+        Map<String, MavenProject> projectMap = new HashMap<String, MavenProject>();
+        for (MavenProject project : reactorProjects)
+            projectMap.put(ArtifactUtils.versionlessKey(project.getArtifact()), project);
+
+        // focus modules and their reactor closure
+        LinkedList<MavenProject> queue = new LinkedList<MavenProject>();
+        for (MavenProject project : reactorProjects)
+            for (String pattern : focusModules.split(","))
+                if (SelectorUtils.match(pattern.trim(), project.getArtifactId()))
+                    queue.add(project);
+        if (queue.isEmpty())
+            throw new MojoExecutionException("No reactor module matches focusModules: " + focusModules);
+        queue.add(getExecutionRoot());
+        Set<MavenProject> loadedProjects = new HashSet<MavenProject>();
+        while (!queue.isEmpty()) {
+            MavenProject project = queue.removeFirst();
+            if (!loadedProjects.add(project))
+                continue;
+            for (Object object : project.getDependencies()) {
+                Dependency dependency = (Dependency) object;
+                MavenProject reactorProject = projectMap.get(ArtifactUtils.versionlessKey(dependency.getGroupId(), dependency.getArtifactId()));
+                if (reactorProject != null)
+                    queue.add(reactorProject);
+            }
+        }
+
+        Set<MavenProject> unloadedProjects = new LinkedHashSet<MavenProject>(reactorProjects);
+        unloadedProjects.removeAll(loadedProjects);
+        getLog().info("");
+        getLog().info("Focus Modules: " + loadedProjects.size() + " loaded, " + unloadedProjects.size() + " unloaded");
+        return unloadedProjects;
+    }
+
+    @Override
+    protected void addIncrementalSettings(Map<String, Object> settings) {
+        settings.put("assembleModulesIntoJars", assembleModulesIntoJars);
+        settings.put("jdkName", jdkName);
+        settings.put("jdkLevel", jdkLevel);
+        settings.put("gaeHome", gaeHome);
+        settings.put("wildcardResourcePatterns", wildcardResourcePatterns);
+        settings.put("compileInBackground", compileInBackground);
+        settings.put("assertNotNull", assertNotNull);
+        settings.put("applicationServerTitle", applicationServerTitle);
+        settings.put("applicationServerName", applicationServerName);
+        settings.put("applicationServerVersion", applicationServerVersion);
+        settings.put("applicationServerFullName", applicationServerFullName);
+        settings.put("selectedWarArtifactId", selectedWarArtifactId);
+        settings.put("vmParameters", vmParameters);
+        settings.put("openInBrowser", openInBrowser);
+        settings.put("openInBrowserUrl", openInBrowserUrl);
+        settings.put("deploymentContextPath", deploymentContextPath);
+        settings.put("hideEmptyPackages", hideEmptyPackages);
+        settings.put("autoscrollToSource", autoscrollToSource);
+        settings.put("autoscrollFromSource", autoscrollFromSource);
+        settings.put("sortByType", sortByType);
+        settings.put("optimizeImportsBeforeCommit", optimizeImportsBeforeCommit);
+        settings.put("reformatCodeBeforeCommit", reformatCodeBeforeCommit);
+        settings.put("performCodeAnalysisBeforeCommit", performCodeAnalysisBeforeCommit);
+        settings.put("templateEngine", templateEngine);
+        settings.put("templateDirectory", templateDirectory);
+        settings.put("focusModules", focusModules);
+        settings.put("exportedDependencies", exportedDependencies);
+    }
+
+    @Override
+    protected boolean isStreamingSupported() {
+        // the exported mode needs the order entries of all modules
+        return !exportedDependencies;
+    }
+
+    @Override
+    protected void startStreaming() throws Exception {
+        startRendering(true);
+    }
+
+    @Override
+    protected void moduleResolved(MavenProject project) {
+        Callable<Object> task = createModuleTask(project);
+        if (task != null)
+            renderFutures.add(renderExecutor.submit(task));
+    }
+
     protected void doExecute() throws Exception {
-        // prepare
-        ArtifactHolder artifactHolder = getArtifactHolder();
-        VelocityWorker velocityWorker = getVelocityWorker();
-        VelocityContext context = new VelocityContext();
-        MavenProject project = getProject();
+        try {
+            if (renderFutures == null) {
+                orderEntries = exportedDependencies ? createOrderEntries() : null;
+                // generate iml files concurrently, each module has its own immutable model
+                startRendering(false);
+                for (MavenProject project : getReactorProjects()) {
+                    Callable<Object> task = createModuleTask(project);
+                    if (task == null)
+                        continue;
+                    if (renderExecutor == null)
+                        task.call();
+                    else
+                        renderFutures.add(renderExecutor.submit(task));
+                }
+            }
+            for (Future<?> future : renderFutures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Exception) throw (Exception) e.getCause();
+                    if (e.getCause() instanceof Error) throw (Error) e.getCause();
+                    throw e;
+                }
+            }
+        } finally {
+            if (renderExecutor != null)
+                renderExecutor.shutdownNow();
+            // the watch goal renders the workspace again
+            renderExecutor = null;
+            renderFutures = null;
+        }
 
-        // fill iml-attributes
+        if (downloadSources || downloadJavadocs)
+            downloadAttachments();
+
+        // ipr and iws files for the execution root, when all modules are done
+        for (MavenProject project : getReactorProjects())
+            if (project.isExecutionRoot())
+                createProjectFiles(project, new HashMap<String, Object>(createModuleModel(project)));
+
+        getLog().info("");
+        getLog().info("Workspace Files: " + writtenFiles.get() + " written, " + unchangedFiles.get() + " unchanged");
+    }
+
+    /**
+     * @return order entries of the exported mode, null if the classpath of a module would change
+     */
+    private ExportedDependencies createOrderEntries() {
+        ExecutionProfiler.Timer timer = getProfiler().start("exported-dependencies");
+        ExportedDependencies entries = new ExportedDependencies(getReactorProjects(), getArtifactHolder());
+        List<String> differences = entries.verify();
+        timer.stop();
+        getLog().info("");
+        if (!differences.isEmpty()) {
+            for (String difference : differences)
+                getLog().warn("Exported Dependencies: " + difference);
+            getLog().warn("Exported Dependencies: classpath differs, full dependencies are written");
+            return null;
+        }
+        int fullCount = 0;
+        for (MavenProject project : getReactorProjects())
+            fullCount += getDependencies(project).size();
+        getLog().info("Exported Dependencies: " + entries.getEntryCount() + " of " + fullCount + " order entries, classpath verified");
+        return entries;
+    }
+
+    /**
+     * Download the attachments before the project file lists the present ones
+     */
+    private void downloadAttachments() throws IOException {
+        if (isOffline()) {
+            getLog().info("");
+            getLog().info("Attachments: not downloaded in the offline mode");
+            return;
+        }
+        List<String> classifiers = new ArrayList<String>();
+        if (downloadSources)
+            classifiers.add("sources");
+        if (downloadJavadocs)
+            classifiers.add("javadoc");
+        ExecutionProfiler.Timer timer = getProfiler().start("attachments");
+        getAttachmentDownloader().download(getAllDependencies(), classifiers, downloadThreads);
+        timer.stop();
+    }
+
+    /**
+     * @param streaming true if modules are submitted while they are resolved, the queue of the workers is bounded then
+     *                  and the resolution thread renders modules itself when the queue is full
+     */
+    private void startRendering(boolean streaming) throws Exception {
+        initTemplates();
+        writtenFiles = new AtomicInteger();
+        unchangedFiles = new AtomicInteger();
+
+        int threads = Math.min(renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors(), getReactorProjects().size());
+        if (streaming)
+            renderExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(2 * threads), new ThreadPoolExecutor.CallerRunsPolicy());
+        else
+            renderExecutor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        renderFutures = new ArrayList<Future<?>>();
+    }
+
+    /**
+     * Check the template engine and load the templates once
+     */
+    void initTemplates() throws Exception {
+        if ("velocity".equals(templateEngine)) {
+            if (velocityWorker == null) {
+                ExecutionProfiler.Timer timer = getProfiler().start("template-init");
+                velocityWorker = new VelocityWorker(templateDirectory);
+                timer.stop();
+            }
+        } else if (!"native".equals(templateEngine))
+            throw new MojoExecutionException("Unknown templateEngine: " + templateEngine + ", possible values: native, velocity");
+        gaeHomePath = gaeHome == null ? null : new File(gaeHome).getCanonicalPath();
+    }
+
+    /**
+     * @param project reactor project
+     * @return task to generate the iml file, null if the module is unchanged since the previous incremental run or is unloaded
+     */
+    private Callable<Object> createModuleTask(final MavenProject project) {
+        // IDEA doesn't read unloaded modules, the file of a previous run is kept for the time they are loaded again
+        // exports of an unchanged module depend on the modules using it, its entries are written again
+        if ((isUnchanged(project) && orderEntries == null || isUnloaded(project)) && new File(project.getBasedir(), project.getArtifactId() + ".iml").isFile()) {
+            unchangedFiles.incrementAndGet();
+            return null;
+        }
+        final Map<String, Object> context = createModuleModel(project);
+        return new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                createFile(project, context, "iml");
+                getArtifactHolder().release(project);
+                return null;
+            }
+        };
+    }
+
+    /**
+     * @param project reactor project
+     * @return model of the module for the iml file
+     */
+    Map<String, Object> createModuleModel(MavenProject project) {
+        Map<String, Object> context = new HashMap<String, Object>();
         String buildDirectory = project.getBuild().getDirectory();
         String standardBuildDirectory = project.getFile().getParent() + File.separator + "target";
         context.put("buildDirectory", buildDirectory.startsWith(standardBuildDirectory) ? standardBuildDirectory : buildDirectory);
         context.put("context", this);
-        context.put("gaeHome", gaeHome == null ? null : new File(gaeHome).getCanonicalPath());
+        context.put("gaeHome", gaeHomePath);
         context.put("MD", "$MODULE_DIR$");
         context.put("packagingPom", "pom".equals(project.getPackaging()));
         context.put("packagingWar", "war".equals(project.getPackaging()));
         context.put("project", project);
+        return Collections.unmodifiableMap(context);
+    }
 
-        // generate iml file
-        createFile(context, velocityWorker.getImlTemplate(), "iml");
-
-        // for non execution root just exit
-        if (!getProject().isExecutionRoot()) return;
-
-        // fill ipr-attributes
-        context.put("M", getLocalRepositoryBasePath());
-        context.put("assembleModulesIntoJars", assembleModulesIntoJars);
-        context.put("jdkName", jdkName);
-        context.put("jdkLevel", jdkLevel);
-        context.put("wildcardResourcePatterns", Util.escapeXmlAttribute(wildcardResourcePatterns));
-        List<MavenProject> warProjects = artifactHolder.getProjectsWithPackaging("war");
-        // check id uniques
-        Set<String> used = new HashSet<String>();
-        for (MavenProject item : warProjects)
-            if (!used.add(item.getArtifactId()))
-                throw new MojoExecutionException("Two or more war-packagins projects in reactor have the same artifactId, please make sure that <artifactId> is unique for each war-packagins project.");
-        Collections.sort(warProjects, ProjectComparator.INSTANCE);
-        context.put("warProjects", warProjects);
-
-        IssueManagement issueManagement = getProject().getIssueManagement();
-        if (issueManagement != null) {
-            String system = issueManagement.getSystem();
-            String url = issueManagement.getUrl();
-            if ("Redmine".equalsIgnoreCase(system)) {
-                context.put("issueNavigationExist", Boolean.TRUE);
-                context.put("issueRegexp", "\\d+");
-                context.put("linkRegexp", url + "/issues/$0");
-            } else if ("JIRA".equalsIgnoreCase(system)) {
-                context.put("issueNavigationExist", Boolean.TRUE);
-                context.put("issueRegexp", "[A-Z]+\\-\\d+");
-                context.put("linkRegexp", url + "/browse/$0");
-            } else if ("YouTrack".equalsIgnoreCase(system)) {
-                context.put("issueNavigationExist", Boolean.TRUE);
-                context.put("issueRegexp", "[A-Z]+\\-\\d+");
-                context.put("linkRegexp", url + "/issue/$0");
-            } else if ("Google Code".equalsIgnoreCase(system)) {
-                context.put("issueNavigationExist", Boolean.TRUE);
-                context.put("issueRegexp", "\\d+");
-                context.put("linkRegexp", url + "/issues/detail?id=$0");
-            } else if ("GitHub".equalsIgnoreCase(system)) {
-                context.put("issueNavigationExist", Boolean.TRUE);
-                context.put("issueRegexp", "\\d+");
-                context.put("linkRegexp", url + "/$0");
-            }
-        }
-
-        createFile(context, velocityWorker.getIprTemplate(), "ipr");
+    /**
+     * @param project execution root
+     * @param context model of the execution root module, project level attributes are added to it
+     */
+    private void createProjectFiles(MavenProject project, Map<String, Object> context) throws Exception {
+        List<MavenProject> warProjects = addProjectModel(project, context);
+        createFile(project, context, "ipr");
 
         // fill iws-attributes
         context.put("compileInBackground", compileInBackground);
@@ -285,7 +532,7 @@ public class IdeaPluginMojo extends IdeaPluginMojoBase {
                 throw new MojoExecutionException("Unknown applicationServerName: " + applicationServerName + ", possible values: Tomcat, Jetty");
         }
 
-        createFile(context, velocityWorker.getIwsTemplate(), "iws");
+        createFile(project, context, "iws");
 
         File idea = new File(project.getBasedir(), ".idea");
         if (idea.exists()) {
@@ -296,6 +543,56 @@ public class IdeaPluginMojo extends IdeaPluginMojoBase {
         }
     }
 
+    /**
+     * @param project execution root
+     * @param context model of the execution root module, ipr attributes are added to it
+     * @return war modules sorted by artifactId
+     */
+    List<MavenProject> addProjectModel(MavenProject project, Map<String, Object> context) throws Exception {
+        // fill ipr-attributes
+        context.put("M", getLocalRepositoryBasePath());
+        context.put("assembleModulesIntoJars", assembleModulesIntoJars);
+        context.put("jdkName", jdkName);
+        context.put("jdkLevel", jdkLevel);
+        context.put("wildcardResourcePatterns", Util.escapeXmlAttribute(wildcardResourcePatterns));
+        List<MavenProject> warProjects = getArtifactHolder().getProjectsWithPackaging("war");
+        // check id uniques
+        Set<String> used = new HashSet<String>();
+        for (MavenProject item : warProjects)
+            if (!used.add(item.getArtifactId()))
+                throw new MojoExecutionException("Two or more war-packagins projects in reactor have the same artifactId, please make sure that <artifactId> is unique for each war-packagins project.");
+        Collections.sort(warProjects, ProjectComparator.INSTANCE);
+        context.put("warProjects", warProjects);
+
+        IssueManagement issueManagement = project.getIssueManagement();
+        if (issueManagement != null) {
+            String system = issueManagement.getSystem();
+            String url = issueManagement.getUrl();
+            if ("Redmine".equalsIgnoreCase(system)) {
+                context.put("issueNavigationExist", Boolean.TRUE);
+                context.put("issueRegexp", "\\d+");
+                context.put("linkRegexp", url + "/issues/$0");
+            } else if ("JIRA".equalsIgnoreCase(system)) {
+                context.put("issueNavigationExist", Boolean.TRUE);
+                context.put("issueRegexp", "[A-Z]+\\-\\d+");
+                context.put("linkRegexp", url + "/browse/$0");
+            } else if ("YouTrack".equalsIgnoreCase(system)) {
+                context.put("issueNavigationExist", Boolean.TRUE);
+                context.put("issueRegexp", "[A-Z]+\\-\\d+");
+                context.put("linkRegexp", url + "/issue/$0");
+            } else if ("Google Code".equalsIgnoreCase(system)) {
+                context.put("issueNavigationExist", Boolean.TRUE);
+                context.put("issueRegexp", "\\d+");
+                context.put("linkRegexp", url + "/issues/detail?id=$0");
+            } else if ("GitHub".equalsIgnoreCase(system)) {
+                context.put("issueNavigationExist", Boolean.TRUE);
+                context.put("issueRegexp", "\\d+");
+                context.put("linkRegexp", url + "/$0");
+            }
+        }
+        return warProjects;
+    }
+
     private MavenProject getDefaultWarProject(List<MavenProject> warProjects) {
         if (warProjects.size() > 1 && StringUtils.isNotEmpty(selectedWarArtifactId)) {
             int i = 0;
@@ -305,12 +602,60 @@ public class IdeaPluginMojo extends IdeaPluginMojoBase {
             return warProjects.get(0);
     }
 
-    private void createFile(VelocityContext context, Template template, String extension) throws Exception {
-        File file = new File(getProject().getBasedir(), getProject().getArtifactId() + "." + extension);
-        FileOutputStream output = new FileOutputStream(file);
-        OutputStreamWriter writer = new OutputStreamWriter(output, "UTF-8");
-        template.merge(context, writer);
+    /**
+     * Render the file in memory and replace the existing file only if the content is changed,
+     * so IDEA doesn't reload unchanged files
+     */
+    private void createFile(MavenProject project, Map<String, Object> context, String extension) throws Exception {
+        File file = new File(project.getBasedir(), project.getArtifactId() + "." + extension);
+        ExecutionProfiler.Timer timer = getProfiler().start("render", project);
+        ByteArrayOutputStream output = new ByteArrayOutputStream(16 * 1024);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, "UTF-8"));
+        render(writer, context, extension);
         writer.close();
+        timer.stop();
+
+        byte[] content = output.toByteArray();
+        timer = getProfiler().start("write", project);
+        if (Util.hasContent(file, content)) {
+            unchangedFiles.incrementAndGet();
+        } else {
+            Util.writeBytes(file, content);
+            writtenFiles.incrementAndGet();
+        }
+        timer.stop();
+    }
+
+    /**
+     * @param writer    output
+     * @param context   model of the file
+     * @param extension iml, ipr or iws
+     */
+    void render(Writer writer, Map<String, Object> context, String extension) throws Exception {
+        if (velocityWorker != null) {
+            Template template = "iml".equals(extension) ? velocityWorker.getImlTemplate() : "ipr".equals(extension) ? velocityWorker.getIprTemplate() : velocityWorker.getIwsTemplate();
+            template.merge(new VelocityContext(new HashMap<String, Object>(context)), writer);
+        } else {
+            WorkspaceWriter workspaceWriter = new WorkspaceWriter(writer);
+            if ("iml".equals(extension))
+                workspaceWriter.writeIml(context);
+            else if ("ipr".equals(extension))
+                workspaceWriter.writeIpr(context);
+            else
+                workspaceWriter.writeIws(context);
+        }
+    }
+
+    /**
+     * @param project reactor project
+     * @return order entries of the iml file, the full closure if the exported mode is off
+     */
+    public List<Artifact> getOrderEntries(MavenProject project) {
+        return orderEntries == null ? getDependencies(project) : orderEntries.getEntries(project);
+    }
+
+    public boolean isExported(MavenProject project, Artifact artifact) {
+        return orderEntries != null && orderEntries.isExported(project, artifact);
     }
 
     public List<String> getGaeApiJars() {
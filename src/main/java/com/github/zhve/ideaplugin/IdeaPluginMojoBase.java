@@ -20,10 +20,14 @@ package com.github.zhve.ideaplugin;
  */
 
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
 import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.artifact.manager.WagonManager;
 import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
 import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.resolver.ArtifactCollector;
 import org.apache.maven.artifact.resolver.ArtifactResolver;
+import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -33,10 +37,8 @@ import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.MavenProjectBuilder;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
+import java.util.*;
 
 /**
  * @author Vasiliy Zhukov
@@ -55,15 +57,103 @@ public abstract class IdeaPluginMojoBase extends AbstractMojo {
     @Component(role = ArtifactMetadataSource.class, hint = "maven")
     private ArtifactMetadataSource artifactMetadataSource;
 
+    @Component
+    private ArtifactCollector artifactCollector;
+
+    @Component
+    private WagonManager wagonManager;
+
     @Parameter(property = "reactorProjects", required = true, readonly = true)
     private List<MavenProject> reactorProjects;
 
     @Parameter(property = "localRepository", required = true, readonly = true)
     private ArtifactRepository localRepository;
 
+    /**
+     * Number of threads used to resolve remote dependencies of the reactor modules, 1 means sequential resolution.
+     * Maven 2 always resolves sequentially, its artifact resolver is not thread safe
+     */
+    @Parameter(property = "resolveThreads", defaultValue = "1")
+    private int resolveThreads;
+
+    /**
+     * Enables/disables the persistent cache of resolution results in target/idea-plugin of the execution root.
+     * Cache entries are keyed by the module dependencies, results with SNAPSHOT or version range artifacts are not cached.
+     */
+    @Parameter(property = "resolutionCache", defaultValue = "false")
+    private boolean resolutionCache;
+
+    /**
+     * How often SNAPSHOT and version range metadata is checked in remote repositories: repository (update policies
+     * of the repositories), always, ttl=&lt;duration&gt; (90s, 30m, 12h, 7d) or offline (local repository only).
+     * Artifacts resolved from out of date metadata are logged.
+     */
+    @Parameter(property = "resolutionPolicy", defaultValue = "repository")
+    private String resolutionPolicy;
+
+    /**
+     * Backend of the transitive resolution: maven (Maven artifact resolver), local (POMs and artifacts are read from
+     * the local repository, Maven resolves the missing ones) or verify (both, differences of local are logged)
+     */
+    @Parameter(property = "resolverBackend", defaultValue = "maven")
+    private String resolverBackend;
+
+    /**
+     * Dependency lockfile written by the lock goal
+     */
+    @Parameter(property = "lockfile", defaultValue = "${project.basedir}/idea.lock")
+    private File lockfile;
+
+    /**
+     * Enables/disables reading dependencies from the lockfile instead of resolving them
+     */
+    @Parameter(property = "useLockfile", defaultValue = "false")
+    private boolean useLockfile;
+
+    /**
+     * Enables/disables the incremental mode: only modules with changed POMs and their dependents are resolved and generated again.
+     * The state of the previous run is kept in target/idea-plugin of the execution root.
+     */
+    @Parameter(property = "incremental", defaultValue = "false")
+    private boolean incremental;
+
+    /**
+     * Enables/disables the streaming mode: files of each module are generated as soon as the module is resolved,
+     * so dependencies of all modules are never kept at once. Not used with useLockfile and incremental.
+     */
+    @Parameter(property = "streaming", defaultValue = "false")
+    private boolean streaming;
+
+    /**
+     * Enables/disables logging of the time and allocation of the plugin phases and of the slowest modules.
+     * The report is also written in JSON to target/idea-plugin/profile.json of the execution root.
+     */
+    @Parameter(property = "profile", defaultValue = "false")
+    private boolean profile;
+
+    /**
+     * Number of the slowest modules logged in the profile
+     */
+    @Parameter(property = "profileTopModules", defaultValue = "10")
+    private int profileTopModules;
+
+    /**
+     * Enables/disables the trace of every dependency of every module in JSON lines to target/idea-plugin/trace.jsonl
+     * of the execution root. The same trace is logged at debug level.
+     */
+    @Parameter(property = "trace", defaultValue = "false")
+    private boolean trace;
+
+    @Parameter(defaultValue = "${settings.offline}", readonly = true)
+    private boolean offline;
+
+    private ExecutionProfiler profiler = ExecutionProfiler.DISABLED;
+    private Map<MavenProject, ArtifactDependencyResolver.DependencyData> dependencyDataMap;
+    private Set<MavenProject> unchangedProjects = Collections.emptySet();
+    private Set<MavenProject> unloadedProjects = Collections.emptySet();
     private ArtifactHolder artifactHolder;
-    private VelocityWorker velocityWorker;
-    private MavenProject project;
+    private ArtifactDependencyResolver resolver;
+    private LocalRepositoryIndex localRepositoryIndex;
 
     // Getters
 
@@ -71,39 +161,388 @@ public abstract class IdeaPluginMojoBase extends AbstractMojo {
         return reactorProjects;
     }
 
+    /**
+     * @return resolved dependencies of all modules, null in the streaming mode
+     */
+    protected Map<MavenProject, ArtifactDependencyResolver.DependencyData> getDependencyDataMap() {
+        return dependencyDataMap;
+    }
+
+    protected boolean isOffline() {
+        return offline;
+    }
+
+    protected DependencyLockfile getLockfile() {
+        return new DependencyLockfile(lockfile, artifactFactory);
+    }
+
+    /**
+     * @return downloader of the library attachments from the remote repositories of all modules, the attachments
+     *         not found are kept in target/idea-plugin of the execution root
+     */
+    protected AttachmentDownloader getAttachmentDownloader() {
+        Map<String, ArtifactRepository> repositoryMap = new LinkedHashMap<String, ArtifactRepository>();
+        for (MavenProject project : reactorProjects) {
+            for (Object object : project.getRemoteArtifactRepositories()) {
+                ArtifactRepository repository = (ArtifactRepository) object;
+                if (!repositoryMap.containsKey(repository.getId()))
+                    repositoryMap.put(repository.getId(), repository);
+            }
+        }
+        return new AttachmentDownloader(getLog(), artifactFactory, artifactResolver, wagonManager, localRepository,
+                new ArrayList<ArtifactRepository>(repositoryMap.values()), new File(getWorkDirectory(), "missing-attachments.txt"));
+    }
+
+    /**
+     * @param project reactor project
+     * @return true if the project and its dependencies are the same as in the previous run of the incremental mode
+     */
+    protected boolean isUnchanged(MavenProject project) {
+        return unchangedProjects.contains(project);
+    }
+
+    /**
+     * @param project reactor project
+     * @return true if the module is listed in the workspace but is not resolved and loaded
+     */
+    protected boolean isUnloaded(MavenProject project) {
+        return unloadedProjects.contains(project);
+    }
+
+    protected ExecutionProfiler getProfiler() {
+        return profiler;
+    }
+
     protected ArtifactHolder getArtifactHolder() {
         return artifactHolder;
     }
 
-    public MavenProject getProject() {
-        return project;
+    /**
+     * @return execution root or the first reactor module if there is no execution root in the reactor
+     */
+    protected MavenProject getExecutionRoot() {
+        for (MavenProject reactorProject : reactorProjects)
+            if (reactorProject.isExecutionRoot())
+                return reactorProject;
+        return reactorProjects.get(0);
     }
 
-    protected VelocityWorker getVelocityWorker() {
-        return velocityWorker;
+    /**
+     * @return directory for the plugin data in the build directory of the execution root
+     */
+    protected File getWorkDirectory() {
+        return new File(getExecutionRoot().getBuild().getDirectory(), "idea-plugin");
     }
 
     // AbstractMojo
 
     @Override
     public final void execute() throws MojoExecutionException, MojoFailureException {
+        ResolutionTrace resolutionTrace = null;
+        ResolutionPolicy policy = null;
         try {
-            ArtifactDependencyResolver resolver = new ArtifactDependencyResolver(getLog(), artifactFactory, artifactResolver, localRepository, artifactMetadataSource);
-            artifactHolder = new ArtifactHolder(getLog(), resolver, reactorProjects);
-            velocityWorker = new VelocityWorker();
-            for (MavenProject project : reactorProjects) {
-                this.project = project;
-                doExecute();
+            if (profile)
+                profiler = new ExecutionProfiler(true);
+            boolean lockfileMode = useLockfile && !isLockfileIgnored();
+            boolean incrementalMode = incremental && !isIncrementalIgnored();
+            boolean streamingMode = streaming && isStreamingSupported();
+            if (streamingMode && (lockfileMode || incrementalMode)) {
+                getLog().warn("The streaming mode is ignored with useLockfile and incremental");
+                streamingMode = false;
             }
+            unloadedProjects = findUnloadedProjects(reactorProjects);
+            Map<MavenProject, ArtifactDependencyResolver.DependencyData> unloadedMap = getUnloadedMap();
+            if (lockfileMode) {
+                DependencyLockfile dependencyLockfile = getLockfile();
+                getLog().info("Read Lockfile " + dependencyLockfile.getFile().getAbsolutePath());
+                ExecutionProfiler.Timer timer = profiler.start("lockfile");
+                dependencyDataMap = new LinkedHashMap<MavenProject, ArtifactDependencyResolver.DependencyData>(dependencyLockfile.read(reactorProjects));
+                dependencyDataMap.putAll(unloadedMap);
+                timer.stop();
+            } else {
+                policy = new ResolutionPolicy(resolutionPolicy);
+                policy.apply(reactorProjects);
+                ResolutionCache cache = resolutionCache ? new ResolutionCache(new File(getWorkDirectory(), "resolution-cache"), artifactFactory) : null;
+                resolutionTrace = createResolutionTrace(trace ? new File(getWorkDirectory(), "trace.jsonl") : null);
+                int threads = resolveThreads;
+                if (threads > 1 && Util.isMaven2Runtime()) {
+                    getLog().warn("resolveThreads is ignored in Maven 2, its artifact resolver and project builder are not thread safe");
+                    threads = 1;
+                }
+                resolver = new ArtifactDependencyResolver(getLog(), artifactFactory, artifactResolver, localRepository, artifactMetadataSource, threads, cache, profiler, resolutionTrace);
+                resolver.setTransitiveResolver(createTransitiveResolver(resolver.getTransitiveResolver()));
+                if (incrementalMode) {
+                    IncrementalState state = new IncrementalState(new File(getWorkDirectory(), "incremental"), artifactFactory);
+                    String settings = getIncrementalSettings();
+                    ExecutionProfiler.Timer timer = profiler.start("incremental-check");
+                    Map<MavenProject, ArtifactDependencyResolver.DependencyData> unchangedMap = state.findUnchanged(getLog(), reactorProjects, settings);
+                    timer.stop();
+                    Map<MavenProject, ArtifactDependencyResolver.DependencyData> skippedMap = new HashMap<MavenProject, ArtifactDependencyResolver.DependencyData>(unchangedMap);
+                    skippedMap.putAll(unloadedMap);
+                    dependencyDataMap = resolver.findDependencies(reactorProjects, skippedMap);
+                    timer = profiler.start("incremental-store");
+                    state.store(reactorProjects, dependencyDataMap, settings);
+                    timer.stop();
+                    unchangedProjects = unchangedMap.keySet();
+                } else if (streamingMode) {
+                    // modules are handed to the goal as soon as they are resolved, the dependency map is not kept
+                    final ArtifactHolder holder = new ArtifactHolder(getLog(), reactorProjects);
+                    artifactHolder = holder;
+                    startStreaming();
+                    resolver.findDependencies(reactorProjects, unloadedMap, new ArtifactDependencyResolver.DependencyListener() {
+                        @Override
+                        public void resolved(MavenProject project, ArtifactDependencyResolver.DependencyData dependencyData) {
+                            ExecutionProfiler.Timer timer = profiler.start("holder", project);
+                            holder.add(project, dependencyData);
+                            timer.stop();
+                            moduleResolved(project);
+                        }
+                    });
+                    ExecutionProfiler.Timer timer = profiler.start("holder");
+                    holder.complete();
+                    timer.stop();
+                } else {
+                    dependencyDataMap = resolver.findDependencies(reactorProjects, unloadedMap);
+                }
+            }
+            if (resolutionTrace != null && resolutionTrace.getFile() != null) {
+                resolutionTrace.close();
+                getLog().info("Resolution Trace " + resolutionTrace.getFile().getAbsolutePath());
+            }
+            if (artifactHolder == null) {
+                ExecutionProfiler.Timer timer = profiler.start("holder");
+                artifactHolder = new ArtifactHolder(getLog(), reactorProjects, dependencyDataMap);
+                timer.stop();
+            }
+            if (policy != null) {
+                policy.logStale(getLog(), localRepository, artifactHolder.getAllDependencies());
+                policy.restore();
+            }
+            doExecute();
+            if (profiler.isEnabled()) {
+                profiler.log(getLog(), profileTopModules);
+                File report = new File(getWorkDirectory(), "profile.json");
+                Util.writeText(report, profiler.toJson());
+                getLog().info("");
+                getLog().info("Profile Report " + report.getAbsolutePath());
+            }
+        } catch (InvalidVersionSpecificationException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
         } catch (MojoExecutionException e) {
             throw e;
         } catch (MojoFailureException e) {
             throw e;
         } catch (Exception e) {
             throw new MojoFailureException(e.getMessage(), e);
+        } finally {
+            if (policy != null)
+                policy.restore();
+            // the writer thread is stopped if the resolution failed
+            if (resolutionTrace != null) {
+                try {
+                    resolutionTrace.close();
+                } catch (IOException e) {
+                    getLog().warn(e.getMessage());
+                }
+            }
         }
     }
 
+    /**
+     * Resolve the reactor again after changes of module POMs: the changed modules and the modules inheriting from
+     * them are built again by the project builder, they and the modules depending on them are resolved again,
+     * the others keep their dependencies and are reported by {@link #isUnchanged(MavenProject)}.
+     * Modules can't be added or removed, a changed module list is only logged.
+     *
+     * @param changedFiles changed POM files of the reactor modules
+     * @return modules resolved again
+     * @throws Exception if a POM can't be built or the resolution failed, the previous state is kept then
+     */
+    protected Set<MavenProject> reload(Set<File> changedFiles) throws Exception {
+        if (resolver == null)
+            throw new IllegalStateException("The reactor was not resolved");
+        List<MavenProject> projects = new ArrayList<MavenProject>(reactorProjects);
+        Set<MavenProject> dirtyProjects = new LinkedHashSet<MavenProject>();
+        Set<String> dirtyKeys = new HashSet<String>();
+        for (int i = 0; i < projects.size(); i++) {
+            MavenProject project = projects.get(i);
+            if (!isInherited(project, changedFiles))
+                continue;
+            ExecutionProfiler.Timer timer = profiler.start("reload", project);
+            MavenProject reloaded = projectBuilder.build(project.getFile(), localRepository, null);
+            timer.stop();
+            reloaded.setExecutionRoot(project.isExecutionRoot());
+            if (!reloaded.getModules().equals(project.getModules()))
+                getLog().warn("Modules of " + project.getId() + " are changed, run the goal again to add or remove them");
+            projects.set(i, reloaded);
+            dirtyProjects.add(reloaded);
+            dirtyKeys.add(ArtifactUtils.versionlessKey(project.getArtifact()));
+            dirtyKeys.add(ArtifactUtils.versionlessKey(reloaded.getArtifact()));
+        }
+        // the project builder doesn't know the reactor, aggregators get their modules from the old projects
+        for (int i = 0; i < projects.size(); i++) {
+            MavenProject project = reactorProjects.get(i);
+            if (project.getCollectedProjects() == null || !dirtyProjects.contains(projects.get(i)))
+                continue;
+            List<MavenProject> collectedProjects = new ArrayList<MavenProject>();
+            for (Object collectedProject : project.getCollectedProjects()) {
+                int index = reactorProjects.indexOf(collectedProject);
+                collectedProjects.add(index < 0 ? (MavenProject) collectedProject : projects.get(index));
+            }
+            projects.get(i).setCollectedProjects(collectedProjects);
+        }
+        IncrementalState.addAffected(projects, dependencyDataMap, dirtyProjects, dirtyKeys, Collections.<String>emptySet());
+
+        Map<MavenProject, ArtifactDependencyResolver.DependencyData> unchangedMap = new HashMap<MavenProject, ArtifactDependencyResolver.DependencyData>();
+        for (MavenProject project : projects)
+            if (!dirtyProjects.contains(project))
+                unchangedMap.put(project, dependencyDataMap.get(project));
+        Set<MavenProject> previousUnloadedProjects = unloadedProjects;
+        unloadedProjects = findUnloadedProjects(projects);
+        Map<MavenProject, ArtifactDependencyResolver.DependencyData> skippedMap = new HashMap<MavenProject, ArtifactDependencyResolver.DependencyData>(unchangedMap);
+        skippedMap.putAll(getUnloadedMap());
+        ResolutionPolicy policy = new ResolutionPolicy(resolutionPolicy);
+        policy.apply(projects);
+        try {
+            dependencyDataMap = resolver.findDependencies(projects, skippedMap);
+        } catch (Exception e) {
+            unloadedProjects = previousUnloadedProjects;
+            throw e;
+        } finally {
+            policy.restore();
+        }
+        reactorProjects = projects;
+        unchangedProjects = unchangedMap.keySet();
+        ExecutionProfiler.Timer timer = profiler.start("holder");
+        artifactHolder = new ArtifactHolder(getLog(), reactorProjects, dependencyDataMap);
+        timer.stop();
+        // libraries and their javadoc and sources jars may have changed
+        localRepositoryIndex = null;
+        return dirtyProjects;
+    }
+
+    /**
+     * @return empty dependencies of the unloaded modules, they are not resolved
+     */
+    private Map<MavenProject, ArtifactDependencyResolver.DependencyData> getUnloadedMap() {
+        Map<MavenProject, ArtifactDependencyResolver.DependencyData> unloadedMap = new HashMap<MavenProject, ArtifactDependencyResolver.DependencyData>();
+        for (MavenProject project : unloadedProjects)
+            unloadedMap.put(project, new ArtifactDependencyResolver.DependencyData(Collections.<Artifact>emptyList(), Collections.<Artifact>emptyList()));
+        return unloadedMap;
+    }
+
+    /**
+     * @param project reactor module
+     * @param files   POM files
+     * @return true if the POM of the module or of one of its parents is in the files
+     */
+    private static boolean isInherited(MavenProject project, Set<File> files) {
+        for (MavenProject item = project; item != null; item = item.getParent())
+            if (item.getFile() != null && files.contains(item.getFile().getAbsoluteFile()))
+                return true;
+        return false;
+    }
+
+    /**
+     * @return goal, local repository and the parameters which affect the resolved dependencies or the generated files,
+     *         a change of them makes all modules dirty in the incremental mode
+     */
+    private String getIncrementalSettings() {
+        Map<String, Object> settings = new LinkedHashMap<String, Object>();
+        settings.put("localRepository", localRepository.getBasedir());
+        settings.put("offline", offline);
+        settings.put("resolutionPolicy", resolutionPolicy);
+        settings.put("resolverBackend", resolverBackend);
+        settings.put("lockfile", lockfile);
+        settings.put("useLockfile", useLockfile);
+        addIncrementalSettings(settings);
+        StringBuilder sb = new StringBuilder(getClass().getName()).append('\n');
+        for (Map.Entry<String, Object> entry : settings.entrySet())
+            sb.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+        return sb.toString();
+    }
+
+    /**
+     * Thread counts, diagnostics and the other parameters which don't change the output are not added
+     *
+     * @param settings goal parameters which affect the resolved dependencies or the generated files
+     */
+    protected void addIncrementalSettings(Map<String, Object> settings) {
+    }
+
+    /**
+     * @return true if the goal always resolves dependencies, even if useLockfile is set
+     */
+    protected boolean isLockfileIgnored() {
+        return false;
+    }
+
+    /**
+     * @return true if the goal always resolves all modules, even if incremental is set
+     */
+    protected boolean isIncrementalIgnored() {
+        return false;
+    }
+
+    /**
+     * @param maven backend of the Maven artifact resolver
+     * @return backend selected by resolverBackend
+     * @throws MojoExecutionException if the backend is unknown
+     */
+    private TransitiveResolver createTransitiveResolver(TransitiveResolver maven) throws MojoExecutionException {
+        if ("maven".equals(resolverBackend))
+            return maven;
+        LocalRepositoryMetadataSource metadataSource = new LocalRepositoryMetadataSource(artifactFactory, artifactMetadataSource);
+        LocalRepositoryResolver local = new LocalRepositoryResolver(artifactCollector, artifactResolver, localRepository, metadataSource, maven);
+        if ("local".equals(resolverBackend))
+            return local;
+        if ("verify".equals(resolverBackend))
+            return new VerifyingTransitiveResolver(maven, local);
+        throw new MojoExecutionException("Unknown resolverBackend: " + resolverBackend + ", possible values: maven, local, verify");
+    }
+
+    /**
+     * @param file JSON lines file of the trace or null to trace at debug level only
+     * @return trace passed to the resolver
+     * @throws IOException if the file can't be created
+     */
+    protected ResolutionTrace createResolutionTrace(File file) throws IOException {
+        return file != null ? new ResolutionTrace(file) : new ResolutionTrace();
+    }
+
+    /**
+     * @param reactorProjects reactor modules
+     * @return modules which are listed in the workspace but are not resolved and loaded, none by default
+     * @throws MojoExecutionException if the selection is invalid
+     */
+    protected Set<MavenProject> findUnloadedProjects(List<MavenProject> reactorProjects) throws MojoExecutionException {
+        return Collections.emptySet();
+    }
+
+    /**
+     * @return true if the goal can handle modules one by one in the streaming mode
+     */
+    protected boolean isStreamingSupported() {
+        return false;
+    }
+
+    /**
+     * Called in the streaming mode before the resolution starts
+     */
+    protected void startStreaming() throws Exception {
+    }
+
+    /**
+     * Called in the streaming mode for each module in the reactor order as soon as its dependencies are known
+     *
+     * @param project reactor project
+     */
+    protected void moduleResolved(MavenProject project) {
+    }
+
+    /**
+     * Called once for the whole reactor when dependencies of all modules are known
+     */
     protected abstract void doExecute() throws Exception;
 
     // Velocity Bindings
@@ -136,29 +575,62 @@ public abstract class IdeaPluginMojoBase extends AbstractMojo {
     }
 
     public String getModuleLibraryJar(Artifact artifact) {
-        return localRepository.pathOf(artifact);
+        return getLocalRepositoryIndex().getEntry(artifact).getJar();
     }
 
     public String getModuleLibraryJavadocs(Artifact artifact) {
-        String path = localRepository.pathOf(artifact);
-        return path.substring(0, path.length() - 4) + "-javadoc.jar";
+        return getLocalRepositoryIndex().getEntry(artifact).getJavadocs();
     }
 
     public String getModuleLibrarySources(Artifact artifact) {
-        String path = localRepository.pathOf(artifact);
-        return path.substring(0, path.length() - 4) + "-sources.jar";
+        return getLocalRepositoryIndex().getEntry(artifact).getSources();
+    }
+
+    public boolean isModuleLibraryJavadocsPresent(Artifact artifact) {
+        return getLocalRepositoryIndex().getEntry(artifact).isJavadocsPresent();
+    }
+
+    public boolean isModuleLibrarySourcesPresent(Artifact artifact) {
+        return getLocalRepositoryIndex().getEntry(artifact).isSourcesPresent();
+    }
+
+    /**
+     * @return index of all libraries, it's built once for the resolved dependencies
+     */
+    private synchronized LocalRepositoryIndex getLocalRepositoryIndex() {
+        if (localRepositoryIndex == null) {
+            ExecutionProfiler.Timer timer = profiler.start("local-repository-index");
+            localRepositoryIndex = new LocalRepositoryIndex(localRepository, artifactHolder.getAllDependencies(), Runtime.getRuntime().availableProcessors());
+            timer.stop();
+            getLog().info("");
+            getLog().info("Local Repository Index: " + localRepositoryIndex.getSize() + " libraries, "
+                    + localRepositoryIndex.getJavadocsCount() + " with javadocs, " + localRepositoryIndex.getSourcesCount() + " with sources");
+        }
+        return localRepositoryIndex;
     }
 
     public String getLocalRepositoryBasePath() {
         return localRepository.getBasedir();
     }
 
+    /**
+     * @return names of the unloaded modules in the reactor order
+     */
+    public List<String> getUnloadedModules() {
+        List<String> list = new ArrayList<String>();
+        for (MavenProject project : reactorProjects)
+            if (unloadedProjects.contains(project))
+                list.add(project.getArtifactId());
+        return list;
+    }
+
     public String getReactorArtifactJarName(Artifact artifact) {
         return artifact.getArtifactId() + "-" + artifact.getVersion() + ".jar";
     }
 
     public List<String> getReactorPaths() {
         List<String> list = new ArrayList<String>();
+        MavenProject project = getExecutionRoot();
         list.add(new File(project.getFile().getParentFile(), project.getArtifactId() + ".iml").getAbsolutePath());
         for (Object collectedProject : project.getCollectedProjects()) {
             MavenProject reactorProject = (MavenProject) collectedProject;
@@ -0,0 +1,184 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import com.github.zhve.ideaplugin.DependencyStatistics.ModuleStatistics;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Logs graph metrics of the reactor to find the modules and libraries which make the resolution and the workspace expensive.
+ * The full report is written in JSON to target/idea-plugin/stats.json of the execution root.
+ *
+ * @since 10/18/2026
+ */
+@Mojo(name = "stats", aggregator = true)
+public class IdeaStatsMojo extends IdeaPluginMojoBase {
+    /**
+     * Number of modules and libraries logged in each top list
+     */
+    @Parameter(property = "statsTop", defaultValue = "10")
+    private int statsTop;
+
+    private transient DependencyStatistics statistics;
+
+    @Override
+    protected boolean isLockfileIgnored() {
+        return true;
+    }
+
+    @Override
+    protected boolean isIncrementalIgnored() {
+        return true;
+    }
+
+    @Override
+    protected ResolutionTrace createResolutionTrace(File file) throws IOException {
+        statistics = file != null ? new DependencyStatistics(file) : new DependencyStatistics();
+        return statistics;
+    }
+
+    @Override
+    protected void doExecute() throws Exception {
+        List<ModuleStatistics> modules = statistics.getModules(getReactorProjects(), getDependencyDataMap());
+        List<Map.Entry<String, Integer>> libraries = DependencyStatistics.getSharedLibraries(getReactorProjects(), getDependencyDataMap());
+
+        long entries = 0;
+        int maxDepth = 0;
+        int duplicates = 0;
+        int conflicts = 0;
+        for (ModuleStatistics module : modules) {
+            entries += module.getEntries();
+            maxDepth = Math.max(maxDepth, module.getDepth());
+            duplicates += module.getDuplicates();
+            conflicts += module.getConflicts();
+        }
+
+        getLog().info("");
+        getLog().info("Reactor Statistics: " + modules.size() + " modules, " + libraries.size() + " libraries, " + entries + " order entries, closure depth " + maxDepth + ", " + duplicates + " duplicate edges, " + conflicts + " conflicting edges");
+
+        List<ModuleStatistics> largest = sort(modules, new Comparator<ModuleStatistics>() {
+            @Override
+            public int compare(ModuleStatistics o1, ModuleStatistics o2) {
+                return o2.getEntries() - o1.getEntries();
+            }
+        });
+        getLog().info("");
+        getLog().info("Largest Modules (order entries, share of all iml entries)");
+        getLog().info("");
+        for (ModuleStatistics module : largest.subList(0, Math.min(statsTop, largest.size())))
+            getLog().info("  " + module.getProject().getId() + ": " + module.getEntries() + " (" + percent(module.getEntries(), entries) + "), " + module.getLibraries() + " libraries, " + module.getReactorClosure() + " modules" + (module.isResolved() ? "" : ", unresolved"));
+
+        List<ModuleStatistics> fanIn = sort(modules, new Comparator<ModuleStatistics>() {
+            @Override
+            public int compare(ModuleStatistics o1, ModuleStatistics o2) {
+                return o2.getTransitiveFanIn() - o1.getTransitiveFanIn();
+            }
+        });
+        getLog().info("");
+        getLog().info("Highest Fan-in (dependent modules: transitive, direct)");
+        getLog().info("");
+        for (ModuleStatistics module : fanIn.subList(0, Math.min(statsTop, fanIn.size())))
+            getLog().info("  " + module.getProject().getId() + ": " + module.getTransitiveFanIn() + ", " + module.getDirectFanIn());
+
+        List<ModuleStatistics> deepest = sort(modules, new Comparator<ModuleStatistics>() {
+            @Override
+            public int compare(ModuleStatistics o1, ModuleStatistics o2) {
+                return o2.getDepth() - o1.getDepth();
+            }
+        });
+        getLog().info("");
+        getLog().info("Deepest Modules (reactor closure depth)");
+        getLog().info("");
+        for (ModuleStatistics module : deepest.subList(0, Math.min(statsTop, deepest.size())))
+            getLog().info("  " + module.getProject().getId() + ": " + module.getDepth());
+
+        List<ModuleStatistics> edges = sort(modules, new Comparator<ModuleStatistics>() {
+            @Override
+            public int compare(ModuleStatistics o1, ModuleStatistics o2) {
+                return o2.getDuplicates() + o2.getConflicts() - o1.getDuplicates() - o1.getConflicts();
+            }
+        });
+        getLog().info("");
+        getLog().info("Most Duplicate and Conflicting Edges (duplicate, conflicting)");
+        getLog().info("");
+        if (duplicates + conflicts == 0)
+            getLog().info("  none");
+        for (ModuleStatistics module : edges.subList(0, Math.min(statsTop, edges.size())))
+            if (module.getDuplicates() + module.getConflicts() > 0)
+                getLog().info("  " + module.getProject().getId() + ": " + module.getDuplicates() + ", " + module.getConflicts());
+
+        getLog().info("");
+        getLog().info("Most Shared Libraries (modules)");
+        getLog().info("");
+        for (Map.Entry<String, Integer> library : libraries.subList(0, Math.min(statsTop, libraries.size())))
+            getLog().info("  " + library.getKey() + ": " + library.getValue());
+
+        File report = new File(getWorkDirectory(), "stats.json");
+        Util.writeText(report, toJson(modules, libraries));
+        getLog().info("");
+        getLog().info("Statistics Report " + report.getAbsolutePath());
+    }
+
+    private static List<ModuleStatistics> sort(List<ModuleStatistics> modules, Comparator<ModuleStatistics> comparator) {
+        List<ModuleStatistics> list = new ArrayList<ModuleStatistics>(modules);
+        // stable, so ties keep the reactor order
+        Collections.sort(list, comparator);
+        return list;
+    }
+
+    private static String percent(long value, long total) {
+        return String.format(Locale.ENGLISH, "%.1f%%", total == 0 ? 0.0 : 100.0 * value / total);
+    }
+
+    private static String toJson(List<ModuleStatistics> modules, List<Map.Entry<String, Integer>> libraries) {
+        StringBuilder b = new StringBuilder();
+        b.append("{\n  \"modules\": [");
+        for (int i = 0; i < modules.size(); i++) {
+            ModuleStatistics module = modules.get(i);
+            b.append(i == 0 ? "\n" : ",\n");
+            b.append("    {\"module\": \"").append(Util.escapeJson(module.getProject().getId()));
+            b.append("\", \"libraries\": ").append(module.getLibraries());
+            b.append(", \"reactorClosure\": ").append(module.getReactorClosure());
+            b.append(", \"entries\": ").append(module.getEntries());
+            b.append(", \"depth\": ").append(module.getDepth());
+            b.append(", \"directFanIn\": ").append(module.getDirectFanIn());
+            b.append(", \"transitiveFanIn\": ").append(module.getTransitiveFanIn());
+            b.append(", \"duplicates\": ").append(module.getDuplicates());
+            b.append(", \"conflicts\": ").append(module.getConflicts());
+            b.append(", \"resolved\": ").append(module.isResolved()).append('}');
+        }
+        b.append(modules.isEmpty() ? "]" : "\n  ]");
+        b.append(",\n  \"libraries\": [");
+        for (int i = 0; i < libraries.size(); i++) {
+            Map.Entry<String, Integer> library = libraries.get(i);
+            b.append(i == 0 ? "\n" : ",\n");
+            b.append("    {\"library\": \"").append(Util.escapeJson(library.getKey()));
+            b.append("\", \"modules\": ").append(library.getValue()).append('}');
+        }
+        b.append(libraries.isEmpty() ? "]" : "\n  ]");
+        b.append("\n}\n");
+        return b.toString();
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Creates the workspace files and keeps them in sync with the reactor POMs until Maven is stopped: the resolved
+ * reactor stays in memory, on a POM change only the affected modules are built, resolved and rendered again.
+ * The POMs are polled, the plugin is built for Java 5 which has no file system notifications.
+ *
+ * @since 10/18/2026
+ */
+@Mojo(name = "watch", aggregator = true)
+public class IdeaWatchMojo extends IdeaPluginMojo {
+    /**
+     * Interval in milliseconds between the checks of the reactor POMs
+     */
+    @Parameter(property = "watchInterval", defaultValue = "500")
+    private int watchInterval;
+
+    /**
+     * Time in milliseconds without further POM changes before the workspace is updated
+     */
+    @Parameter(property = "watchDebounce", defaultValue = "300")
+    private int watchDebounce;
+
+    /**
+     * POM file -> last modified time and length
+     */
+    private transient Map<File, String> stamps;
+
+    /**
+     * Changed POM files of the failed updates, they are updated with the next change
+     */
+    private transient Set<File> failedFiles = new LinkedHashSet<File>();
+
+    @Override
+    protected boolean isLockfileIgnored() {
+        return true;
+    }
+
+    @Override
+    protected boolean isIncrementalIgnored() {
+        return true;
+    }
+
+    @Override
+    protected boolean isStreamingSupported() {
+        // the dependencies of all modules are kept for the next change
+        return false;
+    }
+
+    @Override
+    protected ResolutionTrace createResolutionTrace(File file) throws IOException {
+        // the trace file is closed after the first resolution
+        return super.createResolutionTrace(null);
+    }
+
+    @Override
+    protected void doExecute() throws Exception {
+        super.doExecute();
+        stamps = new LinkedHashMap<File, String>();
+        for (MavenProject project : getReactorProjects())
+            stamps.put(project.getFile().getAbsoluteFile(), getStamp(project.getFile()));
+        getLog().info("");
+        getLog().info("Watch: " + stamps.size() + " POMs, stop Maven to finish");
+
+        while (true) {
+            Thread.sleep(watchInterval);
+            Set<File> changedFiles = findChanged();
+            if (changedFiles.isEmpty())
+                continue;
+            // an editor or a VCS update may write several POMs, wait until they are quiet
+            long quietTime = System.currentTimeMillis();
+            while (System.currentTimeMillis() - quietTime < watchDebounce) {
+                Thread.sleep(Math.min(watchInterval, watchDebounce));
+                Set<File> moreFiles = findChanged();
+                if (!moreFiles.isEmpty()) {
+                    changedFiles.addAll(moreFiles);
+                    quietTime = System.currentTimeMillis();
+                }
+            }
+
+            long start = System.currentTimeMillis();
+            getLog().info("");
+            for (File file : changedFiles)
+                getLog().info("Watch: " + file.getPath() + " is changed");
+            changedFiles.addAll(failedFiles);
+            try {
+                Set<MavenProject> dirtyProjects = reload(changedFiles);
+                failedFiles.clear();
+                super.doExecute();
+                getLog().info("Watch: " + dirtyProjects.size() + " of " + getReactorProjects().size() + " modules updated in " + (System.currentTimeMillis() - start) + " ms");
+            } catch (Exception e) {
+                // a POM in the middle of an edit, the next change will try again
+                failedFiles.addAll(changedFiles);
+                if (e.getMessage() == null || getLog().isDebugEnabled())
+                    getLog().error("Watch: " + e, e);
+                else
+                    getLog().error("Watch: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return POM files changed since the previous check
+     */
+    private Set<File> findChanged() {
+        Set<File> changedFiles = new LinkedHashSet<File>();
+        for (Map.Entry<File, String> entry : stamps.entrySet()) {
+            String stamp = getStamp(entry.getKey());
+            if (!stamp.equals(entry.getValue())) {
+                entry.setValue(stamp);
+                changedFiles.add(entry.getKey());
+            }
+        }
+        return changedFiles;
+    }
+
+    private static String getStamp(File file) {
+        return file.lastModified() + ":" + file.length();
+    }
+}
@@ -0,0 +1,216 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Profile;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * State of the previous run for the incremental mode: POM hashes and resolved dependencies of the reactor modules.
+ * A module is dirty if its POM, a parent POM or its active profiles changed, if it depends on a dirty module,
+ * or if a module it refers to was added to or removed from the reactor. All modules are dirty if the settings changed.
+ *
+ * @since 10/18/2026
+ */
+class IncrementalState {
+    private static final String SETTINGS = "settings";
+    private static final String MODULE = "module";
+
+    private final File manifestFile;
+    private final DependencyLockfile dependencies;
+
+    public IncrementalState(File directory, ArtifactFactory artifactFactory) {
+        this.manifestFile = new File(directory, "manifest");
+        this.dependencies = new DependencyLockfile(new File(directory, "dependencies"), artifactFactory);
+    }
+
+    /**
+     * @param log             log
+     * @param reactorProjects reactor modules
+     * @param settings        everything else the generated files depend on
+     * @return dependencies of the previous run for the modules which are not dirty
+     * @throws IOException if the state can't be read
+     */
+    public Map<MavenProject, ArtifactDependencyResolver.DependencyData> findUnchanged(Log log, List<MavenProject> reactorProjects, String settings) throws IOException {
+        Map<String, String> hashes = readManifest();
+        if (hashes == null) {
+            log.info("Incremental: no previous run, all modules are dirty");
+            return Collections.emptyMap();
+        }
+        if (!hash(settings.getBytes("UTF-8")).equals(hashes.remove(SETTINGS))) {
+            log.info("Incremental: settings changed, all modules are dirty");
+            return Collections.emptyMap();
+        }
+        Map<MavenProject, ArtifactDependencyResolver.DependencyData> previousMap = dependencies.readAvailable(reactorProjects);
+
+        // changed modules
+        Set<MavenProject> dirtyProjects = new LinkedHashSet<MavenProject>();
+        Set<String> dirtyKeys = new HashSet<String>();
+        Set<String> addedKeys = new HashSet<String>();
+        for (MavenProject project : reactorProjects) {
+            String previousHash = hashes.remove(project.getId());
+            if (previousHash == null)
+                addedKeys.add(ArtifactUtils.versionlessKey(project.getArtifact()));
+            if (previousHash == null || !previousMap.containsKey(project) || !previousHash.equals(hash(project))) {
+                dirtyProjects.add(project);
+                dirtyKeys.add(ArtifactUtils.versionlessKey(project.getArtifact()));
+            }
+        }
+        // removed modules, ids are groupId:artifactId:packaging:version
+        for (String id : hashes.keySet()) {
+            String[] parts = id.split(":");
+            dirtyKeys.add(ArtifactUtils.versionlessKey(parts[0], parts[1]));
+        }
+
+        addAffected(reactorProjects, previousMap, dirtyProjects, dirtyKeys, addedKeys);
+
+        log.info("Incremental: " + dirtyProjects.size() + " of " + reactorProjects.size() + " modules are dirty");
+        for (MavenProject project : dirtyProjects)
+            log.debug("  " + project.getId());
+        Map<MavenProject, ArtifactDependencyResolver.DependencyData> unchangedMap = new HashMap<MavenProject, ArtifactDependencyResolver.DependencyData>(previousMap);
+        unchangedMap.keySet().removeAll(dirtyProjects);
+        return unchangedMap;
+    }
+
+    /**
+     * Add modules which depend on dirty modules or on added modules as remote artifacts
+     *
+     * @param reactorProjects reactor modules
+     * @param previousMap     dependencies of the previous run, every module which is not dirty must have them
+     * @param dirtyProjects   changed modules, the affected modules are added to them
+     * @param dirtyKeys       groupId:artifactId of the changed and removed modules
+     * @param addedKeys       groupId:artifactId of the added modules
+     */
+    static void addAffected(List<MavenProject> reactorProjects, Map<MavenProject, ArtifactDependencyResolver.DependencyData> previousMap, Set<MavenProject> dirtyProjects, Set<String> dirtyKeys, Set<String> addedKeys) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (MavenProject project : reactorProjects) {
+                if (!dirtyProjects.contains(project) && isAffected(project, previousMap.get(project), dirtyKeys, addedKeys)) {
+                    dirtyProjects.add(project);
+                    dirtyKeys.add(ArtifactUtils.versionlessKey(project.getArtifact()));
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    private static boolean isAffected(MavenProject project, ArtifactDependencyResolver.DependencyData previousData, Set<String> dirtyKeys, Set<String> addedKeys) {
+        for (Object object : project.getDependencies()) {
+            Dependency dependency = (Dependency) object;
+            if (dirtyKeys.contains(ArtifactUtils.versionlessKey(dependency.getGroupId(), dependency.getArtifactId())))
+                return true;
+        }
+        for (Artifact artifact : previousData.getReactorList())
+            if (dirtyKeys.contains(ArtifactUtils.versionlessKey(artifact)))
+                return true;
+        for (Artifact artifact : previousData.getRemoteList())
+            if (addedKeys.contains(ArtifactUtils.versionlessKey(artifact)))
+                return true;
+        return false;
+    }
+
+    /**
+     * Save the state of this run, modules with failed resolution stay dirty
+     *
+     * @param reactorProjects reactor modules
+     * @param dependencyMap   resolved dependencies of the reactor modules
+     * @param settings        everything else the generated files depend on
+     * @throws IOException if the state can't be written
+     */
+    public void store(List<MavenProject> reactorProjects, Map<MavenProject, ArtifactDependencyResolver.DependencyData> dependencyMap, String settings) throws IOException {
+        dependencies.write(dependencies.format(reactorProjects, dependencyMap));
+        StringBuilder sb = new StringBuilder();
+        sb.append(SETTINGS).append('\t').append(hash(settings.getBytes("UTF-8"))).append('\n');
+        for (MavenProject project : reactorProjects) {
+            ArtifactDependencyResolver.DependencyData data = dependencyMap.get(project);
+            if (data != null && data.isResolved())
+                sb.append(MODULE).append('\t').append(project.getId()).append('\t').append(hash(project)).append('\n');
+        }
+        // the manifest is written last, so the dependencies are never older than the manifest
+        Util.writeText(manifestFile, sb.toString());
+    }
+
+    private Map<String, String> readManifest() throws IOException {
+        if (!manifestFile.isFile())
+            return null;
+        String content = Util.readText(manifestFile);
+        Map<String, String> hashes = new HashMap<String, String>();
+        for (String line : content.split("\n")) {
+            String[] fields = line.split("\t");
+            if (SETTINGS.equals(fields[0]) && fields.length == 2)
+                hashes.put(SETTINGS, fields[1]);
+            else if (MODULE.equals(fields[0]) && fields.length == 3)
+                hashes.put(fields[1], fields[2]);
+            else
+                throw new IOException("Malformed manifest " + manifestFile.getAbsolutePath());
+        }
+        return hashes;
+    }
+
+    /**
+     * @param project reactor module
+     * @return hash of the module id, active profiles and content of the module POM and all parent POMs
+     * @throws IOException if a POM can't be read
+     */
+    private static String hash(MavenProject project) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Writer writer = new OutputStreamWriter(bytes, "UTF-8");
+        writer.write(project.getId() + '\n');
+        for (Object object : project.getActiveProfiles())
+            writer.write("profile " + ((Profile) object).getId() + '\n');
+        for (MavenProject item = project; item != null; item = item.getParent()) {
+            writer.write("pom " + item.getId() + '\n');
+            writer.flush();
+            File file = item.getFile();
+            if (file != null && file.isFile()) {
+                InputStream input = new FileInputStream(file);
+                try {
+                    byte[] buffer = new byte[8192];
+                    int count;
+                    while ((count = input.read(buffer)) != -1)
+                        bytes.write(buffer, 0, count);
+                } finally {
+                    input.close();
+                }
+            }
+        }
+        writer.close();
+        return hash(bytes.toByteArray());
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            return Util.toHex(MessageDigest.getInstance("MD5").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Paths of the library jars and their javadoc and sources jars in the local repository, the presence of the javadoc
+ * and sources jars is taken from one listing of each artifact directory, the directories are listed in parallel.
+ *
+ * @since 10/18/2026
+ */
+class LocalRepositoryIndex {
+    private final ArtifactRepository localRepository;
+
+    /**
+     * Library -> paths, identity keys as the index is asked for the same artifacts it's built from
+     */
+    private final Map<Artifact, Entry> entryMap = new IdentityHashMap<Artifact, Entry>();
+
+    private int javadocsCount;
+    private int sourcesCount;
+
+    /**
+     * @param localRepository local repository
+     * @param artifacts       libraries
+     * @param threads         number of threads listing the directories
+     */
+    public LocalRepositoryIndex(ArtifactRepository localRepository, List<Artifact> artifacts, int threads) {
+        this.localRepository = localRepository;
+
+        // directory -> libraries in it
+        Map<String, List<Entry>> directoryMap = new HashMap<String, List<Entry>>();
+        for (Artifact artifact : artifacts) {
+            Entry entry = new Entry(localRepository.pathOf(artifact));
+            entryMap.put(artifact, entry);
+            int index = entry.jar.lastIndexOf('/');
+            String directory = index < 0 ? "" : entry.jar.substring(0, index);
+            List<Entry> list = directoryMap.get(directory);
+            if (list == null)
+                directoryMap.put(directory, list = new ArrayList<Entry>());
+            list.add(entry);
+        }
+
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(directoryMap.size());
+        for (final Map.Entry<String, List<Entry>> directory : directoryMap.entrySet())
+            tasks.add(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    String[] names = new File(LocalRepositoryIndex.this.localRepository.getBasedir(), directory.getKey()).list();
+                    Set<String> nameSet = names == null ? Collections.<String>emptySet() : new HashSet<String>(Arrays.asList(names));
+                    for (Entry entry : directory.getValue()) {
+                        entry.javadocsPresent = nameSet.contains(getName(entry.javadocs));
+                        entry.sourcesPresent = nameSet.contains(getName(entry.sources));
+                    }
+                    return null;
+                }
+            });
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, tasks.size())));
+        try {
+            executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+        }
+        for (Entry entry : entryMap.values()) {
+            if (entry.javadocsPresent) javadocsCount++;
+            if (entry.sourcesPresent) sourcesCount++;
+        }
+    }
+
+    /**
+     * @param artifact library
+     * @return paths of the library, an artifact not in the index is looked up in the local repository
+     */
+    public Entry getEntry(Artifact artifact) {
+        Entry entry = entryMap.get(artifact);
+        if (entry == null) {
+            entry = new Entry(localRepository.pathOf(artifact));
+            entry.javadocsPresent = new File(localRepository.getBasedir(), entry.javadocs).isFile();
+            entry.sourcesPresent = new File(localRepository.getBasedir(), entry.sources).isFile();
+        }
+        return entry;
+    }
+
+    public int getSize() {
+        return entryMap.size();
+    }
+
+    public int getJavadocsCount() {
+        return javadocsCount;
+    }
+
+    public int getSourcesCount() {
+        return sourcesCount;
+    }
+
+    private static String getName(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Paths of a library relative to the local repository
+     */
+    public static class Entry {
+        private final String jar;
+        private final String javadocs;
+        private final String sources;
+        private boolean javadocsPresent;
+        private boolean sourcesPresent;
+
+        Entry(String jar) {
+            this.jar = jar;
+            String base = jar.substring(0, jar.length() - 4);
+            javadocs = base + "-javadoc.jar";
+            sources = base + "-sources.jar";
+        }
+
+        public String getJar() {
+            return jar;
+        }
+
+        public String getJavadocs() {
+            return javadocs;
+        }
+
+        public String getSources() {
+            return sources;
+        }
+
+        public boolean isJavadocsPresent() {
+            return javadocsPresent;
+        }
+
+        public boolean isSourcesPresent() {
+            return sourcesPresent;
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import com.github.zhve.ideaplugin.RepositoryPom.PomDependency;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.artifact.metadata.ArtifactMetadataRetrievalException;
+import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
+import org.apache.maven.artifact.metadata.ResolutionGroup;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.resolver.filter.AndArtifactFilter;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.artifact.resolver.filter.ExcludesArtifactFilter;
+import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
+import org.apache.maven.artifact.versioning.VersionRange;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ArtifactMetadataSource which reads POMs from the local repository directly: parents, properties, dependency
+ * management and imported BOMs are applied the same way as the Maven model builder does it for repository POMs.
+ * Artifacts without a readable local POM (missing, SNAPSHOT, system scope, profiles, relocation,
+ * unresolved expressions, POM properties overridden by system properties) are retrieved from the delegate.
+ * <p/>
+ * Parsed POMs and their effective dependencies are cached for the plugin execution,
+ * every call gets fresh artifacts because the collector mutates them.
+ *
+ * @since 10/18/2026
+ */
+class LocalRepositoryMetadataSource implements ArtifactMetadataSource {
+    private static final int MAX_PARENTS = 32;
+
+    private final ArtifactFactory artifactFactory;
+    private final ArtifactMetadataSource delegate;
+
+    /**
+     * groupId:artifactId:version -> RepositoryPom with the inherited values or the reason it can't be read locally
+     */
+    private final ConcurrentMap<String, Object> inheritedPoms = new ConcurrentHashMap<String, Object>();
+
+    /**
+     * groupId:artifactId:version -> EffectivePom or the reason it can't be read locally
+     */
+    private final ConcurrentMap<String, Object> effectivePoms = new ConcurrentHashMap<String, Object>();
+
+    private final AtomicInteger parsed = new AtomicInteger();
+    private final AtomicInteger local = new AtomicInteger();
+    private final ConcurrentMap<String, AtomicInteger> delegated = new ConcurrentHashMap<String, AtomicInteger>();
+
+    public LocalRepositoryMetadataSource(ArtifactFactory artifactFactory, ArtifactMetadataSource delegate) {
+        this.artifactFactory = artifactFactory;
+        this.delegate = delegate;
+    }
+
+    public String getStatistics() {
+        int delegatedCount = 0;
+        StringBuilder reasons = new StringBuilder();
+        for (Map.Entry<String, AtomicInteger> entry : new TreeMap<String, AtomicInteger>(delegated).entrySet()) {
+            delegatedCount += entry.getValue().get();
+            reasons.append(reasons.length() == 0 ? " (" : ", ").append(entry.getKey()).append(' ').append(entry.getValue().get());
+        }
+        if (reasons.length() > 0)
+            reasons.append(')');
+        return parsed.get() + " POMs parsed, metadata " + local.get() + " local, " + delegatedCount + " from Maven" + reasons;
+    }
+
+    /**
+     * Maven 3 collector calls the methods taking MetadataResolutionRequest, they don't exist in the Maven 2 API
+     * the plugin is compiled against, the proxy implements the interface of the running Maven and passes the
+     * requests to the Maven 2 methods.
+     *
+     * @return the source to pass to the Maven artifact collector
+     */
+    public ArtifactMetadataSource toRuntimeSource() {
+        return (ArtifactMetadataSource) Proxy.newProxyInstance(ArtifactMetadataSource.class.getClassLoader(), new Class<?>[]{ArtifactMetadataSource.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                try {
+                    if (method.getDeclaringClass() == Object.class)
+                        return method.invoke(LocalRepositoryMetadataSource.this, args);
+                    Object[] values = args;
+                    if (args != null && args.length == 1) {
+                        // MetadataResolutionRequest
+                        Class<?> requestClass = method.getParameterTypes()[0];
+                        values = new Object[]{
+                                requestClass.getMethod("getArtifact").invoke(args[0]),
+                                requestClass.getMethod("getLocalRepository").invoke(args[0]),
+                                requestClass.getMethod("getRemoteRepositories").invoke(args[0])
+                        };
+                    }
+                    if (values != null && values.length == 3 && values[0] instanceof Artifact && !(values[2] instanceof ArtifactRepository)) {
+                        if ("retrieve".equals(method.getName()))
+                            return retrieve((Artifact) values[0], (ArtifactRepository) values[1], (List<?>) values[2]);
+                        if ("retrieveRelocatedArtifact".equals(method.getName()))
+                            return retrieveRelocatedArtifact((Artifact) values[0], (ArtifactRepository) values[1], (List<?>) values[2]);
+                        if ("retrieveAvailableVersions".equals(method.getName()))
+                            return retrieveAvailableVersions((Artifact) values[0], (ArtifactRepository) values[1], (List<?>) values[2]);
+                    }
+                    synchronized (delegate) {
+                        return method.invoke(delegate, args);
+                    }
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        });
+    }
+
+    // ArtifactMetadataSource
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public ResolutionGroup retrieve(Artifact artifact, ArtifactRepository localRepository, List remoteRepositories) throws ArtifactMetadataRetrievalException {
+        Object pom = getEffectivePom(artifact, localRepository);
+        if (!(pom instanceof EffectivePom)) {
+            countDelegated((String) pom);
+            synchronized (delegate) {
+                return delegate.retrieve(artifact, localRepository, remoteRepositories);
+            }
+        }
+        local.incrementAndGet();
+        Artifact pomArtifact = artifactFactory.createProjectArtifact(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), artifact.getScope());
+        Set<Artifact> artifacts = new LinkedHashSet<Artifact>();
+        if (!artifact.getArtifactHandler().isIncludesDependencies()) {
+            // the same as MavenMetadataSource.createArtifacts
+            ArtifactFilter dependencyFilter = artifact.getDependencyFilter();
+            for (PomDependency dependency : ((EffectivePom) pom).dependencies) {
+                Artifact dependencyArtifact;
+                try {
+                    dependencyArtifact = artifactFactory.createDependencyArtifact(dependency.getGroupId(), dependency.getArtifactId(),
+                            VersionRange.createFromVersionSpec(dependency.getVersion()), dependency.getType(), dependency.getClassifier(),
+                            dependency.getScope() == null ? Artifact.SCOPE_COMPILE : dependency.getScope(), artifact.getScope(), dependency.isOptional());
+                } catch (InvalidVersionSpecificationException e) {
+                    throw new ArtifactMetadataRetrievalException("Error in metadata for artifact '" + artifact.getDependencyConflictId() + "': " + e.getMessage(), e, artifact);
+                }
+                if (dependencyArtifact == null || (dependencyFilter != null && !dependencyFilter.include(dependencyArtifact)))
+                    continue;
+                if (Artifact.SCOPE_SYSTEM.equals(dependencyArtifact.getScope()))
+                    dependencyArtifact.setFile(new File(dependency.getSystemPath()));
+                ArtifactFilter filter = dependencyFilter;
+                if (!dependency.getExclusions().isEmpty()) {
+                    ArtifactFilter exclusionFilter = new ExcludesArtifactFilter(dependency.getExclusions());
+                    if (filter != null) {
+                        AndArtifactFilter andFilter = new AndArtifactFilter();
+                        andFilter.add(filter);
+                        andFilter.add(exclusionFilter);
+                        filter = andFilter;
+                    } else {
+                        filter = exclusionFilter;
+                    }
+                }
+                dependencyArtifact.setDependencyFilter(filter);
+                artifacts.add(dependencyArtifact);
+            }
+        }
+        return new ResolutionGroup(pomArtifact, artifacts, remoteRepositories);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Artifact retrieveRelocatedArtifact(Artifact artifact, ArtifactRepository localRepository, List remoteRepositories) throws ArtifactMetadataRetrievalException {
+        // relocated POMs are never read locally
+        if (getEffectivePom(artifact, localRepository) instanceof EffectivePom)
+            return artifact;
+        synchronized (delegate) {
+            return delegate.retrieveRelocatedArtifact(artifact, localRepository, remoteRepositories);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public List retrieveAvailableVersions(Artifact artifact, ArtifactRepository localRepository, List remoteRepositories) throws ArtifactMetadataRetrievalException {
+        // version ranges need the repository metadata
+        synchronized (delegate) {
+            return delegate.retrieveAvailableVersions(artifact, localRepository, remoteRepositories);
+        }
+    }
+
+    private void countDelegated(String reason) {
+        AtomicInteger count = delegated.get(reason);
+        if (count == null) {
+            AtomicInteger newCount = new AtomicInteger();
+            count = delegated.putIfAbsent(reason, newCount);
+            if (count == null)
+                count = newCount;
+        }
+        count.incrementAndGet();
+    }
+
+    /**
+     * @return EffectivePom or the reason the metadata is retrieved from the delegate
+     */
+    private Object getEffectivePom(Artifact artifact, ArtifactRepository localRepository) {
+        if (artifact.getVersion() == null || artifact.isSnapshot())
+            return "snapshot";
+        if (Artifact.SCOPE_SYSTEM.equals(artifact.getScope()))
+            return "system";
+        return getEffectivePom(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), localRepository, 0);
+    }
+
+    /**
+     * @return EffectivePom or the reason it can't be built locally
+     */
+    private Object getEffectivePom(String groupId, String artifactId, String version, ArtifactRepository localRepository, int depth) {
+        String key = groupId + ":" + artifactId + ":" + version;
+        Object pom = effectivePoms.get(key);
+        if (pom == null) {
+            pom = buildEffectivePom(groupId, artifactId, version, localRepository, depth);
+            effectivePoms.putIfAbsent(key, pom);
+        }
+        return pom;
+    }
+
+    private Object buildEffectivePom(String groupId, String artifactId, String version, ArtifactRepository localRepository, int depth) {
+        if (depth > MAX_PARENTS)
+            return "cycle";
+        Object inherited = getInheritedPom(groupId, artifactId, version, localRepository, depth);
+        if (!(inherited instanceof RepositoryPom))
+            return inherited;
+        RepositoryPom pom = (RepositoryPom) inherited;
+        final Map<String, String> values = new HashMap<String, String>();
+        for (String prefix : new String[]{"project.", "pom.", ""}) {
+            values.put(prefix + "groupId", pom.getGroupId());
+            values.put(prefix + "artifactId", pom.getArtifactId());
+            values.put(prefix + "version", pom.getVersion());
+        }
+        for (String prefix : new String[]{"project.parent.", "parent."}) {
+            values.put(prefix + "groupId", pom.getParentGroupId());
+            values.put(prefix + "artifactId", pom.getParentArtifactId());
+            values.put(prefix + "version", pom.getParentVersion());
+        }
+        final Map<String, String> properties = pom.getProperties();
+        RepositoryPom.Interpolator interpolator = new RepositoryPom.Interpolator() {
+            @Override
+            public String interpolate(String value) {
+                return LocalRepositoryMetadataSource.interpolate(value, values, properties, 0);
+            }
+        };
+        try {
+            // dependency management, own entries win over imported ones, earlier imports win over later ones
+            Map<String, PomDependency> managed = new LinkedHashMap<String, PomDependency>();
+            List<PomDependency> imports = new ArrayList<PomDependency>();
+            for (PomDependency dependency : pom.getManagedDependencies()) {
+                PomDependency resolved = dependency.interpolate(interpolator);
+                if ("import".equals(resolved.getScope()) && "pom".equals(resolved.getType()))
+                    imports.add(resolved);
+                else if (!managed.containsKey(resolved.getManagementKey()))
+                    managed.put(resolved.getManagementKey(), resolved);
+            }
+            for (PomDependency bom : imports) {
+                if (bom.getVersion() == null)
+                    return "import";
+                Object bomPom = getEffectivePom(bom.getGroupId(), bom.getArtifactId(), bom.getVersion(), localRepository, depth + 1);
+                if (!(bomPom instanceof EffectivePom))
+                    return bomPom;
+                for (Map.Entry<String, PomDependency> entry : ((EffectivePom) bomPom).managed.entrySet())
+                    if (!managed.containsKey(entry.getKey()))
+                        managed.put(entry.getKey(), entry.getValue());
+            }
+
+            List<PomDependency> dependencies = new ArrayList<PomDependency>();
+            for (PomDependency dependency : pom.getDependencies()) {
+                PomDependency resolved = dependency.interpolate(interpolator);
+                PomDependency managedDependency = managed.get(resolved.getManagementKey());
+                if (managedDependency != null)
+                    resolved = resolved.manage(managedDependency);
+                if (resolved.getGroupId() == null || resolved.getArtifactId() == null || resolved.getVersion() == null)
+                    return "invalid";
+                if (Artifact.SCOPE_SYSTEM.equals(resolved.getScope()) && resolved.getSystemPath() == null)
+                    return "invalid";
+                for (String exclusion : resolved.getExclusions())
+                    if (exclusion.indexOf('*') >= 0)
+                        return "wildcard";
+                VersionRange.createFromVersionSpec(resolved.getVersion());
+                dependencies.add(resolved);
+            }
+            return new EffectivePom(dependencies, managed);
+        } catch (OverriddenPropertyException e) {
+            return "overridden";
+        } catch (IllegalArgumentException e) {
+            return "expression";
+        } catch (InvalidVersionSpecificationException e) {
+            return "invalid";
+        }
+    }
+
+    /**
+     * @return POM with the values inherited from its parents, not interpolated, or the reason it can't be read locally
+     */
+    private Object getInheritedPom(String groupId, String artifactId, String version, ArtifactRepository localRepository, int depth) {
+        String key = groupId + ":" + artifactId + ":" + version;
+        Object pom = inheritedPoms.get(key);
+        if (pom == null) {
+            pom = readInheritedPom(groupId, artifactId, version, localRepository, depth);
+            inheritedPoms.putIfAbsent(key, pom);
+        }
+        return pom;
+    }
+
+    private Object readInheritedPom(String groupId, String artifactId, String version, ArtifactRepository localRepository, int depth) {
+        if (depth > MAX_PARENTS)
+            return "cycle";
+        Artifact pomArtifact = artifactFactory.createProjectArtifact(groupId, artifactId, version);
+        File file = new File(localRepository.getBasedir(), localRepository.pathOf(pomArtifact));
+        if (!file.isFile())
+            return "missing";
+        RepositoryPom pom;
+        try {
+            pom = RepositoryPom.read(file);
+            parsed.incrementAndGet();
+        } catch (IOException e) {
+            return "malformed";
+        }
+        if (pom.getUnsupported() != null)
+            return pom.getUnsupported();
+        // Maven reports duplicates and keeps one of them, leave the choice to Maven
+        Set<String> keys = new HashSet<String>();
+        for (PomDependency dependency : pom.getDependencies())
+            if (!keys.add(dependency.getManagementKey()))
+                return "duplicates";
+        if (pom.getParentArtifactId() == null)
+            return pom;
+
+        Object parent = getInheritedPom(pom.getParentGroupId(), pom.getParentArtifactId(), pom.getParentVersion(), localRepository, depth + 1);
+        if (!(parent instanceof RepositoryPom))
+            return parent;
+        return pom.inherit((RepositoryPom) parent);
+    }
+
+    /**
+     * Maven gives user properties (-D of the command line, they are system properties too) priority over POM
+     * properties and system properties the lowest one, the two can't be told apart here
+     *
+     * @param value      value with ${} expressions or null
+     * @param values     values of the project expressions
+     * @param properties POM properties
+     * @param depth      depth of the nested expressions
+     * @return resolved value
+     * @throws OverriddenPropertyException if a POM property has another value in the system properties
+     * @throws IllegalArgumentException    if an expression can't be resolved
+     */
+    private static String interpolate(String value, Map<String, String> values, Map<String, String> properties, int depth) {
+        if (value == null || value.indexOf("${") < 0)
+            return value;
+        if (depth > 10)
+            throw new IllegalArgumentException(value);
+        StringBuilder b = new StringBuilder();
+        int position = 0;
+        for (int start = value.indexOf("${"); start >= 0; start = value.indexOf("${", position)) {
+            int end = value.indexOf('}', start);
+            if (end < 0)
+                break;
+            String name = value.substring(start + 2, end);
+            String external = name.startsWith("env.") ? System.getenv(name.substring(4)) : System.getProperty(name);
+            String resolved = values.get(name);
+            if (resolved == null) {
+                resolved = properties.get(name);
+                if (resolved != null && external != null && !external.equals(resolved))
+                    throw new OverriddenPropertyException(name);
+            }
+            if (resolved == null)
+                resolved = external;
+            if (resolved == null)
+                throw new IllegalArgumentException(name);
+            b.append(value, position, start).append(interpolate(resolved, values, properties, depth + 1));
+            position = end + 1;
+        }
+        b.append(value, position, value.length());
+        return b.toString();
+    }
+
+    /**
+     * Expression whose value depends on the priority of user and system properties
+     */
+    private static class OverriddenPropertyException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        private OverriddenPropertyException(String name) {
+            super(name);
+        }
+    }
+
+    /**
+     * Dependencies of a POM after inheritance, interpolation and dependency management
+     */
+    private static class EffectivePom {
+        private final List<PomDependency> dependencies;
+        private final Map<String, PomDependency> managed;
+
+        private EffectivePom(List<PomDependency> dependencies, Map<String, PomDependency> managed) {
+            this.dependencies = dependencies;
+            this.managed = managed;
+        }
+    }
+}
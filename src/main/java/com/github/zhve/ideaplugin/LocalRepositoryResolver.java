@@ -0,0 +1,143 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.resolver.*;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transitive resolution from the local repository: the Maven artifact collector builds the graph, so nearest-wins,
+ * scopes, exclusions and managed versions are applied by the Maven code itself, but the POMs are read by
+ * {@link LocalRepositoryMetadataSource} and the artifacts found in the local repository are taken as they are.
+ * Missing artifacts are resolved by the Maven artifact resolver, graphs Maven can't collect completely are
+ * resolved by the Maven backend.
+ *
+ * @since 10/18/2026
+ */
+class LocalRepositoryResolver implements TransitiveResolver {
+    private final ArtifactCollector artifactCollector;
+    private final ArtifactResolver artifactResolver;
+    private final ArtifactRepository localRepository;
+    private final LocalRepositoryMetadataSource metadataSource;
+    private final ArtifactMetadataSource runtimeSource;
+    private final TransitiveResolver fallback;
+
+    private final AtomicInteger resolutions = new AtomicInteger();
+    private final AtomicInteger fallbacks = new AtomicInteger();
+    private final AtomicInteger localArtifacts = new AtomicInteger();
+    private final AtomicInteger resolvedArtifacts = new AtomicInteger();
+
+    /**
+     * @param artifactCollector Maven artifact collector
+     * @param artifactResolver  Maven artifact resolver for the missing artifacts
+     * @param localRepository   local repository
+     * @param metadataSource    local POM reader
+     * @param fallback          backend for the graphs which can't be collected locally
+     */
+    public LocalRepositoryResolver(ArtifactCollector artifactCollector, ArtifactResolver artifactResolver, ArtifactRepository localRepository, LocalRepositoryMetadataSource metadataSource, TransitiveResolver fallback) {
+        this.artifactCollector = artifactCollector;
+        this.artifactResolver = artifactResolver;
+        this.localRepository = localRepository;
+        this.metadataSource = metadataSource;
+        this.runtimeSource = metadataSource.toRuntimeSource();
+        this.fallback = fallback;
+    }
+
+    @Override
+    public List<Artifact> resolve(Log log, Set<Artifact> artifacts, Artifact originatingArtifact, Map<String, Artifact> managedVersions, List<ArtifactRepository> remoteRepositories, ArtifactFilter filter) throws ArtifactResolutionException, ArtifactNotFoundException {
+        resolutions.incrementAndGet();
+        // the collector changes the artifacts, keep the originals for the fallback
+        Set<Artifact> copies = new LinkedHashSet<Artifact>();
+        for (Artifact artifact : artifacts)
+            copies.add(Util.copyArtifact(artifact));
+        ArtifactResolutionResult resolutionResult = artifactCollector.collect(
+                copies,
+                originatingArtifact,
+                managedVersions,
+                localRepository,
+                remoteRepositories,
+                runtimeSource,
+                filter,
+                Collections.EMPTY_LIST
+        );
+        if (hasExceptions(resolutionResult))
+            return fallback(log, artifacts, originatingArtifact, managedVersions, remoteRepositories, filter, "the graph has errors");
+
+        List<Artifact> resolvedList = new ArrayList<Artifact>();
+        for (Object resolutionNode : resolutionResult.getArtifactResolutionNodes()) {
+            Artifact artifact = ((ResolutionNode) resolutionNode).getArtifact();
+            if (filter == null || filter.include(artifact)) {
+                File file = artifact.isSnapshot() || Artifact.SCOPE_SYSTEM.equals(artifact.getScope()) ? null : new File(localRepository.getBasedir(), localRepository.pathOf(artifact));
+                if (file != null && file.isFile()) {
+                    artifact.setFile(file);
+                    artifact.setResolved(true);
+                    localArtifacts.incrementAndGet();
+                } else {
+                    try {
+                        artifactResolver.resolve(artifact, remoteRepositories, localRepository);
+                        resolvedArtifacts.incrementAndGet();
+                    } catch (ArtifactNotFoundException e) {
+                        return fallback(log, artifacts, originatingArtifact, managedVersions, remoteRepositories, filter, artifact.getId() + " is not found");
+                    }
+                }
+            }
+            resolvedList.add(artifact);
+        }
+        return resolvedList;
+    }
+
+    private List<Artifact> fallback(Log log, Set<Artifact> artifacts, Artifact originatingArtifact, Map<String, Artifact> managedVersions, List<ArtifactRepository> remoteRepositories, ArtifactFilter filter, String reason) throws ArtifactResolutionException, ArtifactNotFoundException {
+        fallbacks.incrementAndGet();
+        if (log.isDebugEnabled())
+            log.debug("Local Resolver: " + originatingArtifact.getId() + " is resolved by Maven, " + reason);
+        return fallback.resolve(log, artifacts, originatingArtifact, managedVersions, remoteRepositories, filter);
+    }
+
+    /**
+     * Maven 3 collects the graph with errors (missing POMs, unresolvable ranges) and reports them in the result,
+     * Maven 2 throws them, the method doesn't exist there
+     */
+    private static boolean hasExceptions(ArtifactResolutionResult resolutionResult) {
+        try {
+            Method method = resolutionResult.getClass().getMethod("hasExceptions");
+            return (Boolean) method.invoke(resolutionResult);
+        } catch (NoSuchMethodException e) {
+            return false;
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    @Override
+    public String getStatistics() {
+        return "Local Resolver: " + resolutions.get() + " resolutions, " + fallbacks.get() + " by Maven, " +
+                metadataSource.getStatistics() + ", artifacts " + localArtifacts.get() + " local, " + resolvedArtifacts.get() + " resolved by Maven" +
+                "\n" + fallback.getStatistics();
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.resolver.*;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.plugin.logging.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Transitive resolution by the Maven artifact resolver
+ *
+ * @since 10/18/2026
+ */
+class MavenTransitiveResolver implements TransitiveResolver {
+    private final ArtifactResolver artifactResolver;
+    private final ArtifactRepository localRepository;
+    private final MemoizingArtifactMetadataSource artifactMetadataSource;
+
+    public MavenTransitiveResolver(ArtifactResolver artifactResolver, ArtifactRepository localRepository, ArtifactMetadataSource artifactMetadataSource) {
+        this.artifactResolver = artifactResolver;
+        this.localRepository = localRepository;
+        // POM metadata is shared by most of the modules, retrieve it once
+        this.artifactMetadataSource = new MemoizingArtifactMetadataSource(artifactMetadataSource);
+    }
+
+    @Override
+    public List<Artifact> resolve(Log log, Set<Artifact> artifacts, Artifact originatingArtifact, Map<String, Artifact> managedVersions, List<ArtifactRepository> remoteRepositories, ArtifactFilter filter) throws ArtifactResolutionException, ArtifactNotFoundException {
+        ArtifactResolutionResult resolutionResult = artifactResolver.resolveTransitively(
+                artifacts,
+                originatingArtifact,
+                managedVersions,
+                localRepository,
+                remoteRepositories,
+                artifactMetadataSource,
+                filter
+        );
+        List<Artifact> resolvedList = new ArrayList<Artifact>();
+        for (Object resolutionNode : resolutionResult.getArtifactResolutionNodes())
+            resolvedList.add(((ResolutionNode) resolutionNode).getArtifact());
+        return resolvedList;
+    }
+
+    @Override
+    public String getStatistics() {
+        return "Metadata Cache: " + artifactMetadataSource.getStatistics();
+    }
+}
@@ -0,0 +1,243 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.metadata.ArtifactMetadataRetrievalException;
+import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
+import org.apache.maven.artifact.metadata.ResolutionGroup;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.resolver.filter.AndArtifactFilter;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread safe ArtifactMetadataSource which retrieves metadata of each artifact at most once per plugin execution.
+ * <p/>
+ * Metadata is cached per coordinate and remote repositories. It's retrieved for the compile scope, the copies get
+ * the scope of the requested artifact by the rules of the ArtifactFactory: test and provided dependencies are
+ * dropped for any inherited scope, so only the top level artifacts without scope are retrieved separately.
+ * Retrieved artifacts are mutated by the artifact collector, so the cache keeps the metadata retrieved without
+ * dependency filter and every call gets fresh copies filtered with the filter of the requested artifact,
+ * the same way as MavenMetadataSource creates them. Relocated and system artifacts are not cached.
+ * <p/>
+ * A coordinate is retrieved by the first caller, the others wait for it only. The Maven 2 project builder shares
+ * the plexus context between threads and fails to lookup profile activators under concurrent access, so in
+ * Maven 2 the calls building projects are serialized.
+ *
+ * @since 10/18/2026
+ */
+class MemoizingArtifactMetadataSource implements ArtifactMetadataSource {
+    private final ArtifactMetadataSource delegate;
+    private final Object projectBuilderLock;
+    private final ConcurrentMap<String, FutureTask<ResolutionGroup>> groups = new ConcurrentHashMap<String, FutureTask<ResolutionGroup>>();
+    private final ConcurrentMap<String, FutureTask<List<?>>> versions = new ConcurrentHashMap<String, FutureTask<List<?>>>();
+    private final AtomicInteger groupHits = new AtomicInteger();
+    private final AtomicInteger groupMisses = new AtomicInteger();
+    private final AtomicInteger versionHits = new AtomicInteger();
+    private final AtomicInteger versionMisses = new AtomicInteger();
+
+    /**
+     * Marker of the relocated artifacts
+     */
+    private static final ResolutionGroup RELOCATED = new ResolutionGroup(null, null, null);
+
+    public MemoizingArtifactMetadataSource(ArtifactMetadataSource delegate) {
+        this.delegate = delegate;
+        this.projectBuilderLock = Util.isMaven2Runtime() ? new Object() : null;
+    }
+
+    public String getStatistics() {
+        return "metadata " + groupHits.get() + " hits, " + groupMisses.get() + " misses; " +
+                "versions " + versionHits.get() + " hits, " + versionMisses.get() + " misses";
+    }
+
+    // ArtifactMetadataSource
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public ResolutionGroup retrieve(Artifact artifact, ArtifactRepository localRepository, List remoteRepositories) throws ArtifactMetadataRetrievalException {
+        ResolutionGroup group = retrieveUnfiltered(artifact, localRepository, remoteRepositories);
+        if (group == null || group == RELOCATED)
+            return retrieveFromDelegate(artifact, localRepository, remoteRepositories);
+
+        // copy artifacts, inherit the scope and apply the filter
+        String scope = artifact.getScope();
+        ArtifactFilter filter = artifact.getDependencyFilter();
+        Set<Artifact> artifacts = new LinkedHashSet<Artifact>();
+        for (Object object : group.getArtifacts()) {
+            Artifact cachedArtifact = (Artifact) object;
+            Artifact copy = Util.copyArtifact(cachedArtifact);
+            if (scope != null)
+                copy.setScope(inheritScope(cachedArtifact.getScope(), scope));
+            if (filter != null && !filter.include(copy))
+                continue;
+            if (filter != null) {
+                if (cachedArtifact.getDependencyFilter() == null) {
+                    copy.setDependencyFilter(filter);
+                } else {
+                    AndArtifactFilter andFilter = new AndArtifactFilter();
+                    andFilter.add(filter);
+                    andFilter.add(cachedArtifact.getDependencyFilter());
+                    copy.setDependencyFilter(andFilter);
+                }
+            }
+            artifacts.add(copy);
+        }
+        return new ResolutionGroup(group.getPomArtifact(), artifacts, group.getResolutionRepositories());
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Artifact retrieveRelocatedArtifact(Artifact artifact, ArtifactRepository localRepository, List remoteRepositories) throws ArtifactMetadataRetrievalException {
+        ResolutionGroup group = retrieveUnfiltered(artifact, localRepository, remoteRepositories);
+        if (group == null || group == RELOCATED) {
+            if (projectBuilderLock == null)
+                return delegate.retrieveRelocatedArtifact(artifact, localRepository, remoteRepositories);
+            synchronized (projectBuilderLock) {
+                return delegate.retrieveRelocatedArtifact(artifact, localRepository, remoteRepositories);
+            }
+        }
+        return artifact;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public List retrieveAvailableVersions(final Artifact artifact, final ArtifactRepository localRepository, final List remoteRepositories) throws ArtifactMetadataRetrievalException {
+        String key = artifact.getGroupId() + ":" + artifact.getArtifactId() + toString(remoteRepositories);
+        FutureTask<List<?>> task = versions.get(key);
+        if (task == null) {
+            // repository metadata only, the project builder isn't involved
+            FutureTask<List<?>> newTask = new FutureTask<List<?>>(new Callable<List<?>>() {
+                @Override
+                public List<?> call() throws Exception {
+                    return delegate.retrieveAvailableVersions(artifact, localRepository, remoteRepositories);
+                }
+            });
+            task = versions.putIfAbsent(key, newTask);
+            if (task == null) {
+                task = newTask;
+                versionMisses.incrementAndGet();
+                task.run();
+            } else {
+                versionHits.incrementAndGet();
+            }
+        } else {
+            versionHits.incrementAndGet();
+        }
+        // the collector sorts the list
+        return new ArrayList<Object>(await(versions, key, task, artifact));
+    }
+
+    /**
+     * @return metadata retrieved without dependency filter, null or RELOCATED if it can't be cached
+     */
+    private ResolutionGroup retrieveUnfiltered(Artifact artifact, final ArtifactRepository localRepository, final List<?> remoteRepositories) throws ArtifactMetadataRetrievalException {
+        if (artifact.getVersionRange() == null || Artifact.SCOPE_SYSTEM.equals(artifact.getScope()))
+            return null;
+        boolean scoped = artifact.getScope() != null;
+        String key = artifact.getId() + (scoped ? "" : " unscoped") + toString(remoteRepositories);
+        FutureTask<ResolutionGroup> task = groups.get(key);
+        if (task == null) {
+            final Artifact copy = Util.copyArtifact(artifact);
+            copy.setDependencyFilter(null);
+            copy.setScope(scoped ? Artifact.SCOPE_COMPILE : null);
+            FutureTask<ResolutionGroup> newTask = new FutureTask<ResolutionGroup>(new Callable<ResolutionGroup>() {
+                @Override
+                public ResolutionGroup call() throws Exception {
+                    String id = copy.getId();
+                    ResolutionGroup group = retrieveFromDelegate(copy, localRepository, remoteRepositories);
+                    // relocation changes the artifact coordinates
+                    return group == null || !id.equals(copy.getId()) ? RELOCATED : group;
+                }
+            });
+            task = groups.putIfAbsent(key, newTask);
+            if (task == null) {
+                task = newTask;
+                groupMisses.incrementAndGet();
+                task.run();
+            } else {
+                groupHits.incrementAndGet();
+            }
+        } else {
+            groupHits.incrementAndGet();
+        }
+        return await(groups, key, task, artifact);
+    }
+
+    private ResolutionGroup retrieveFromDelegate(Artifact artifact, ArtifactRepository localRepository, List<?> remoteRepositories) throws ArtifactMetadataRetrievalException {
+        if (projectBuilderLock == null)
+            return delegate.retrieve(artifact, localRepository, remoteRepositories);
+        synchronized (projectBuilderLock) {
+            return delegate.retrieve(artifact, localRepository, remoteRepositories);
+        }
+    }
+
+    /**
+     * Scope of a dependency retrieved for the compile scope, the same as the ArtifactFactory gives it
+     *
+     * @param compileScope   scope of the dependency retrieved for the compile scope
+     * @param inheritedScope scope of the requested artifact
+     * @return scope of the dependency of the requested artifact
+     */
+    private static String inheritScope(String compileScope, String inheritedScope) {
+        if (Artifact.SCOPE_SYSTEM.equals(compileScope))
+            return Artifact.SCOPE_SYSTEM;
+        if (Artifact.SCOPE_TEST.equals(inheritedScope) || Artifact.SCOPE_PROVIDED.equals(inheritedScope))
+            return inheritedScope;
+        if (Artifact.SCOPE_COMPILE.equals(compileScope) && Artifact.SCOPE_COMPILE.equals(inheritedScope))
+            return Artifact.SCOPE_COMPILE;
+        return Artifact.SCOPE_RUNTIME;
+    }
+
+    private static String toString(List<?> remoteRepositories) {
+        StringBuilder b = new StringBuilder();
+        if (remoteRepositories != null) {
+            for (Object object : remoteRepositories) {
+                ArtifactRepository repository = (ArtifactRepository) object;
+                b.append(' ').append(repository.getId()).append('=').append(repository.getUrl());
+            }
+        }
+        return b.toString();
+    }
+
+    private static <T> T await(ConcurrentMap<String, FutureTask<T>> map, String key, FutureTask<T> task, Artifact artifact) throws ArtifactMetadataRetrievalException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ArtifactMetadataRetrievalException(e.getMessage(), e, artifact);
+        } catch (ExecutionException e) {
+            // failures are not cached
+            map.remove(key, task);
+            Throwable cause = e.getCause();
+            if (cause instanceof ArtifactMetadataRetrievalException) throw (ArtifactMetadataRetrievalException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new ArtifactMetadataRetrievalException(cause.getMessage(), cause, artifact);
+        }
+    }
+}
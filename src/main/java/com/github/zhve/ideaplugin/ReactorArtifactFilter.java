@@ -0,0 +1,69 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+
+import java.util.*;
+
+/**
+ * Keeps reactor modules out of the transitive resolution: the resolver doesn't retrieve metadata and files
+ * of the artifacts the reactor builds. Excluded reactor artifacts are remembered in the order of appearance,
+ * the first one wins for every module. The resolved modules themselves are not special, a module reached through
+ * a library is recorded like any other one.
+ *
+ * @since 10/18/2026
+ */
+class ReactorArtifactFilter implements ArtifactFilter {
+    private final Set<String> reactorKeys;
+    private final Map<String, Artifact> reactorArtifacts = new LinkedHashMap<String, Artifact>();
+
+    /**
+     * @param reactorKeys groupId:artifactId of reactor modules
+     */
+    public ReactorArtifactFilter(Set<String> reactorKeys) {
+        this.reactorKeys = reactorKeys;
+    }
+
+    /**
+     * @return reactor artifacts met during the resolution
+     */
+    public List<Artifact> getReactorArtifacts() {
+        synchronized (reactorArtifacts) {
+            return new ArrayList<Artifact>(reactorArtifacts.values());
+        }
+    }
+
+    // ArtifactFilter
+
+    @Override
+    public boolean include(Artifact artifact) {
+        String key = ArtifactUtils.versionlessKey(artifact);
+        if (!reactorKeys.contains(key))
+            return true;
+        synchronized (reactorArtifacts) {
+            if (!reactorArtifacts.containsKey(key))
+                reactorArtifacts.put(key, artifact);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,559 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+
+import java.util.*;
+
+/**
+ * Reactor dependency graph with dense int ids of modules, edges and remote coordinates.
+ * <p/>
+ * The transitive closure of every module is computed once in topological order and reused by all dependent
+ * modules. A closure lists nodes and remote dependencies in the breadth-first order, the first occurrence of a
+ * coordinate wins, so the result is the same as the breadth-first walk of every module. The inherited scope is
+ * kept as a transform table: scope of the closure root -> scope of the node.
+ *
+ * @since 10/18/2026
+ */
+class ReactorDependencyGraph {
+    // scope codes
+    private static final int COMPILE = 0;
+    private static final int RUNTIME = 1;
+    private static final int TEST = 2;
+    private static final int PROVIDED = 3;
+    private static final int SYSTEM = 4;
+    private static final int OTHER = 5;
+    private static final int NONE = 6;
+    private static final int EXCLUDED = 7;
+    private static final String[] SCOPE_NAMES = {Artifact.SCOPE_COMPILE, Artifact.SCOPE_RUNTIME, Artifact.SCOPE_TEST, Artifact.SCOPE_PROVIDED, Artifact.SCOPE_SYSTEM};
+
+    // scope transforms are interned: id -> table with 3 bits per input scope code
+    private static final int IDENTITY = 0;
+    private static final int[] INHERIT = new int[OTHER + 1];
+    private static final int[][] INHERIT_THEN = new int[OTHER + 1][];
+    private static final int[] TRANSFORMS;
+
+    static {
+        List<Integer> transforms = new ArrayList<Integer>();
+        Map<Integer, Integer> transformIds = new HashMap<Integer, Integer>();
+        int identity = 0;
+        for (int scope = 0; scope <= EXCLUDED; scope++)
+            identity |= scope << (3 * scope);
+        intern(identity, transforms, transformIds);
+        int[] inheritTables = new int[OTHER + 1];
+        for (int scope = 0; scope <= OTHER; scope++) {
+            for (int inherited = 0; inherited <= EXCLUDED; inherited++)
+                inheritTables[scope] |= inheritScope(scope, inherited) << (3 * inherited);
+            INHERIT[scope] = intern(inheritTables[scope], transforms, transformIds);
+        }
+        // the composition is closed over a handful of transforms
+        List<int[]> inheritThen = new ArrayList<int[]>();
+        for (int id = 0; id < transforms.size(); id++) {
+            int[] row = new int[OTHER + 1];
+            for (int scope = 0; scope <= OTHER; scope++) {
+                int transform = 0;
+                for (int inherited = 0; inherited <= EXCLUDED; inherited++)
+                    transform |= apply(transforms.get(id), apply(inheritTables[scope], inherited)) << (3 * inherited);
+                row[scope] = intern(transform, transforms, transformIds);
+            }
+            inheritThen.add(row);
+        }
+        for (int scope = 0; scope <= OTHER; scope++) {
+            INHERIT_THEN[scope] = new int[transforms.size()];
+            for (int id = 0; id < transforms.size(); id++)
+                INHERIT_THEN[scope][id] = inheritThen.get(id)[scope];
+        }
+        TRANSFORMS = new int[transforms.size()];
+        for (int id = 0; id < transforms.size(); id++)
+            TRANSFORMS[id] = transforms.get(id);
+    }
+
+    private final Log log;
+    private final ArtifactFactory artifactFactory;
+    private final List<MavenProject> projects;
+    private final ResolutionTrace trace;
+    private int conflictCount;
+
+    // module -> edge ids, module -> remote dependency ids
+    private final int[][] moduleEdges;
+    private final int[][] moduleRemotes;
+
+    // edges between reactor modules
+    private final int[] edgeTarget;
+    private final int[] edgeScope;
+    private final Artifact[] edgeArtifact;
+    private final Artifact[][] edgeArtifactByScope;
+
+    // remote dependencies: coordinate - id of the dependency conflict id, version - id of the full artifact id
+    private final int[] remoteCoordinate;
+    private final int[] remoteVersion;
+    private final int[] remoteScope;
+    private final Artifact[] remoteArtifact;
+    private final int coordinateCount;
+
+    /**
+     * @param log              log
+     * @param artifactFactory  standard Maven's factory to create artifacts
+     * @param projects         reactor projects
+     * @param dependencyMap    reactor project artifact -> declared dependencies
+     */
+    public ReactorDependencyGraph(Log log, ArtifactFactory artifactFactory, List<MavenProject> projects, Map<Artifact, ArtifactDependencyResolver.DependencyData> dependencyMap) {
+        this(log, artifactFactory, projects, dependencyMap, new ResolutionTrace());
+    }
+
+    /**
+     * @param log              log
+     * @param artifactFactory  standard Maven's factory to create artifacts
+     * @param projects         reactor projects
+     * @param dependencyMap    reactor project artifact -> declared dependencies
+     * @param trace            trace of the dependencies and conflicts of each module
+     */
+    public ReactorDependencyGraph(Log log, ArtifactFactory artifactFactory, List<MavenProject> projects, Map<Artifact, ArtifactDependencyResolver.DependencyData> dependencyMap, ResolutionTrace trace) {
+        this.log = log;
+        this.artifactFactory = artifactFactory;
+        this.projects = projects;
+        this.trace = trace;
+
+        // groupId:artifactId -> module
+        Map<String, Integer> moduleIds = new HashMap<String, Integer>();
+        for (MavenProject project : projects)
+            moduleIds.put(ArtifactUtils.versionlessKey(project.getArtifact()), moduleIds.size());
+
+        int edgeCount = 0;
+        int remoteCount = 0;
+        for (MavenProject project : projects) {
+            ArtifactDependencyResolver.DependencyData dependencyData = dependencyMap.get(project.getArtifact());
+            edgeCount += dependencyData.getReactorList().size();
+            remoteCount += dependencyData.getRemoteList().size();
+        }
+
+        moduleEdges = new int[projects.size()][];
+        moduleRemotes = new int[projects.size()][];
+        edgeTarget = new int[edgeCount];
+        edgeScope = new int[edgeCount];
+        edgeArtifact = new Artifact[edgeCount];
+        edgeArtifactByScope = new Artifact[edgeCount][];
+        remoteCoordinate = new int[remoteCount];
+        remoteVersion = new int[remoteCount];
+        remoteScope = new int[remoteCount];
+        remoteArtifact = new Artifact[remoteCount];
+
+        Map<String, Integer> coordinateIds = new HashMap<String, Integer>();
+        Map<String, Integer> versionIds = new HashMap<String, Integer>();
+        int edge = 0;
+        int remote = 0;
+        for (int module = 0; module < projects.size(); module++) {
+            ArtifactDependencyResolver.DependencyData dependencyData = dependencyMap.get(projects.get(module).getArtifact());
+            List<Artifact> reactorList = dependencyData.getReactorList();
+            moduleEdges[module] = new int[reactorList.size()];
+            for (int i = 0; i < reactorList.size(); i++, edge++) {
+                Artifact artifact = reactorList.get(i);
+                moduleEdges[module][i] = edge;
+                edgeTarget[edge] = moduleIds.get(ArtifactUtils.versionlessKey(artifact));
+                edgeScope[edge] = toScopeCode(artifact.getScope());
+                edgeArtifact[edge] = artifact;
+            }
+            List<Artifact> remoteList = dependencyData.getRemoteList();
+            moduleRemotes[module] = new int[remoteList.size()];
+            for (int i = 0; i < remoteList.size(); i++, remote++) {
+                Artifact artifact = remoteList.get(i);
+                Integer coordinate = coordinateIds.get(artifact.getDependencyConflictId());
+                if (coordinate == null) {
+                    coordinate = coordinateIds.size();
+                    coordinateIds.put(artifact.getDependencyConflictId(), coordinate);
+                }
+                Integer version = versionIds.get(artifact.getId());
+                if (version == null) {
+                    version = versionIds.size();
+                    versionIds.put(artifact.getId(), version);
+                }
+                moduleRemotes[module][i] = remote;
+                remoteCoordinate[remote] = coordinate;
+                remoteVersion[remote] = version;
+                remoteScope[remote] = toScopeCode(artifact.getScope());
+                remoteArtifact[remote] = artifact;
+            }
+        }
+        coordinateCount = coordinateIds.size();
+    }
+
+    /**
+     * Resolve reactor dependencies of all modules
+     *
+     * @return dependency map: reactor project -> dependency data
+     */
+    public Map<MavenProject, ArtifactDependencyResolver.DependencyData> resolve() {
+        int moduleCount = projects.size();
+
+        // closures are released as soon as all dependent modules are resolved
+        int[] parentCount = new int[moduleCount];
+        BitSet seen = new BitSet(moduleCount);
+        for (int module = 0; module < moduleCount; module++) {
+            seen.clear();
+            for (int edge : moduleEdges[module]) {
+                if (!seen.get(edgeTarget[edge])) {
+                    seen.set(edgeTarget[edge]);
+                    parentCount[edgeTarget[edge]]++;
+                }
+            }
+        }
+
+        Closure[] closures = new Closure[moduleCount];
+        ArtifactDependencyResolver.DependencyData[] result = new ArtifactDependencyResolver.DependencyData[moduleCount];
+        Scratch scratch = new Scratch(moduleCount, coordinateCount);
+        for (int module : topologicalOrder()) {
+            int inherited = toScopeCode(projects.get(module).getArtifact().getScope());
+            // the root view is the transitive closure if all dependencies are followed transitively
+            boolean shared = inherited == NONE && isTransitive(module);
+            if (parentCount[module] > 0)
+                closures[module] = merge(module, closures, true, inherited, shared, scratch);
+            Closure closure = shared && closures[module] != null ? closures[module] : merge(module, closures, false, inherited, true, scratch);
+            result[module] = toDependencyData(module, closure, inherited);
+            seen.clear();
+            for (int edge : moduleEdges[module]) {
+                int target = edgeTarget[edge];
+                if (!seen.get(target)) {
+                    seen.set(target);
+                    if (--parentCount[target] == 0)
+                        closures[target] = null;
+                }
+            }
+        }
+
+        Map<MavenProject, ArtifactDependencyResolver.DependencyData> dependencyDataMap = new LinkedHashMap<MavenProject, ArtifactDependencyResolver.DependencyData>();
+        for (int module = 0; module < moduleCount; module++)
+            dependencyDataMap.put(projects.get(module), result[module]);
+        log.info("Reactor Closure: " + moduleCount + " modules, " + conflictCount + " version conflicts");
+        return dependencyDataMap;
+    }
+
+    /**
+     * @return modules ordered so that dependencies go before dependent modules
+     */
+    private int[] topologicalOrder() {
+        int moduleCount = projects.size();
+        int[] order = new int[moduleCount];
+        int orderSize = 0;
+        // 0 - new, 1 - in progress, 2 - done
+        int[] state = new int[moduleCount];
+        int[] stackModule = new int[moduleCount];
+        int[] stackEdge = new int[moduleCount];
+        for (int start = 0; start < moduleCount; start++) {
+            if (state[start] != 0)
+                continue;
+            int top = 0;
+            stackModule[0] = start;
+            stackEdge[0] = 0;
+            state[start] = 1;
+            while (top >= 0) {
+                int module = stackModule[top];
+                if (stackEdge[top] < moduleEdges[module].length) {
+                    int target = edgeTarget[moduleEdges[module][stackEdge[top]++]];
+                    if (state[target] == 1)
+                        throw new IllegalStateException("Cyclic reactor dependency: " + projects.get(module).getId() + " -> " + projects.get(target).getId());
+                    if (state[target] == 0) {
+                        state[target] = 1;
+                        top++;
+                        stackModule[top] = target;
+                        stackEdge[top] = 0;
+                    }
+                } else {
+                    state[module] = 2;
+                    order[orderSize++] = module;
+                    top--;
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * @return true if the module has no test and provided dependencies
+     */
+    private boolean isTransitive(int module) {
+        for (int edge : moduleEdges[module])
+            if (edgeScope[edge] == TEST || edgeScope[edge] == PROVIDED)
+                return false;
+        for (int remote : moduleRemotes[module])
+            if (remoteScope[remote] == TEST || remoteScope[remote] == PROVIDED)
+                return false;
+        return true;
+    }
+
+    /**
+     * Merge closures of the module dependencies level by level: depth, dependency index, position in the dependency
+     * closure. This is the order of the breadth-first walk, so the first occurrence of a node or a coordinate wins.
+     *
+     * @param module           module
+     * @param closures         closures of the dependencies
+     * @param transitive       true to follow dependencies as a transitive dependency, test and provided are skipped
+     * @param inherited        scope code of the module in the root view
+     * @param reportConflicts  true to report version conflicts of the root view
+     * @param scratch          reusable buffers
+     * @return closure of the module
+     */
+    private Closure merge(int module, Closure[] closures, boolean transitive, int inherited, boolean reportConflicts, Scratch scratch) {
+        int probe = transitive ? RUNTIME : inherited;
+        BitSet visited = scratch.visited;
+        BitSet seenCoordinates = scratch.seenCoordinates;
+        visited.clear();
+        seenCoordinates.clear();
+
+        // dependencies to follow
+        int[] edges = moduleEdges[module];
+        int childCount = 0;
+        int[] childEdges = new int[edges.length];
+        int nodeCapacity = 1;
+        int remoteCapacity = moduleRemotes[module].length;
+        for (int edge : edges) {
+            if (inheritScope(edgeScope[edge], probe) != EXCLUDED && !visited.get(edgeTarget[edge])) {
+                // the first declaration wins, duplicates are ignored
+                visited.set(edgeTarget[edge]);
+                childEdges[childCount++] = edge;
+                nodeCapacity += closures[edgeTarget[edge]].nodeSize;
+                remoteCapacity += closures[edgeTarget[edge]].remoteSize;
+            }
+        }
+        visited.clear();
+
+        // the module itself
+        Closure closure = new Closure(Math.min(nodeCapacity, projects.size()), Math.min(remoteCapacity, coordinateCount));
+        closure.addNode(module, 0, IDENTITY, -1);
+        visited.set(module);
+        for (int remote : moduleRemotes[module]) {
+            if (inheritScope(remoteScope[remote], probe) != EXCLUDED)
+                addRemote(closure, module, remote, 0, INHERIT[remoteScope[remote]], reportConflicts, inherited, scratch);
+        }
+
+        // the dependencies level by level
+        int[] nodeCursor = new int[childCount];
+        int[] remoteCursor = new int[childCount];
+        for (int depth = 1; ; depth++) {
+            boolean more = false;
+            for (int i = 0; i < childCount; i++) {
+                Closure child = closures[edgeTarget[childEdges[i]]];
+                int[] inheritThen = INHERIT_THEN[edgeScope[childEdges[i]]];
+                int cursor = nodeCursor[i];
+                while (cursor < child.nodeSize && child.nodeDepth[cursor] == depth - 1) {
+                    int node = child.node[cursor];
+                    if (!visited.get(node)) {
+                        visited.set(node);
+                        closure.addNode(node, depth, inheritThen[child.nodeScope[cursor]], cursor == 0 ? childEdges[i] : child.nodeEdge[cursor]);
+                    }
+                    cursor++;
+                }
+                nodeCursor[i] = cursor;
+                cursor = remoteCursor[i];
+                while (cursor < child.remoteSize && child.remoteDepth[cursor] == depth - 1) {
+                    addRemote(closure, module, child.remote[cursor], depth, inheritThen[child.remoteScope[cursor]], reportConflicts, inherited, scratch);
+                    cursor++;
+                }
+                remoteCursor[i] = cursor;
+                more |= nodeCursor[i] < child.nodeSize || remoteCursor[i] < child.remoteSize;
+            }
+            if (!more)
+                break;
+        }
+        return closure;
+    }
+
+    private void addRemote(Closure closure, int module, int remote, int depth, int transform, boolean reportConflicts, int inherited, Scratch scratch) {
+        int coordinate = remoteCoordinate[remote];
+        if (!scratch.seenCoordinates.get(coordinate)) {
+            scratch.seenCoordinates.set(coordinate);
+            scratch.winners[coordinate] = remote;
+            scratch.winnerScopes[coordinate] = transform;
+            closure.addRemote(remote, depth, transform);
+        } else if (reportConflicts) {
+            // report version conflicts once, in the module where they meet
+            int winner = scratch.winners[coordinate];
+            if (remoteVersion[winner] != remoteVersion[remote]) {
+                conflictCount++;
+                if (trace.isEnabled(log))
+                    trace.record(log, projects.get(module), ResolutionTrace.CLOSURE, ResolutionTrace.CONFLICT, remoteArtifact[remote].getId(), toScope(remoteArtifact[remote], toScopeCode(transform, inherited)),
+                            "winner=" + remoteArtifact[winner].getId() + ":" + toScope(remoteArtifact[winner], toScopeCode(scratch.winnerScopes[coordinate], inherited)));
+            }
+        }
+    }
+
+    private ArtifactDependencyResolver.DependencyData toDependencyData(int module, Closure closure, int inherited) {
+        List<Artifact> reactorData = new ArrayList<Artifact>(closure.nodeSize - 1);
+        for (int i = 1; i < closure.nodeSize; i++) {
+            int edge = closure.nodeEdge[i];
+            int scope = toScopeCode(closure.nodeScope[i], inherited);
+            Artifact[] artifacts = edgeArtifactByScope[edge];
+            if (artifacts == null)
+                artifacts = edgeArtifactByScope[edge] = new Artifact[OTHER + 1];
+            // artifacts of reactor modules are shared by all dependent modules
+            if (artifacts[scope] == null)
+                artifacts[scope] = createArtifact(edgeArtifact[edge], toScope(edgeArtifact[edge], scope));
+            reactorData.add(artifacts[scope]);
+        }
+        List<Artifact> remoteData = new ArrayList<Artifact>(closure.remoteSize);
+        for (int i = 0; i < closure.remoteSize; i++) {
+            Artifact artifact = remoteArtifact[closure.remote[i]];
+            remoteData.add(createArtifact(artifact, toScope(artifact, toScopeCode(closure.remoteScope[i], inherited))));
+        }
+
+        if (trace.isEnabled(log)) {
+            MavenProject project = projects.get(module);
+            log.debug("");
+            log.debug(project.getId() + ": " + reactorData.size() + " reactor, " + remoteData.size() + " remote dependencies");
+            for (Artifact artifact : reactorData)
+                trace.record(log, project, ResolutionTrace.CLOSURE, ResolutionTrace.REACTOR, artifact.getId(), artifact.getScope(), null);
+            for (Artifact artifact : remoteData)
+                trace.record(log, project, ResolutionTrace.CLOSURE, ResolutionTrace.LIBRARY, artifact.getId(), artifact.getScope(), null);
+        }
+        return new ArtifactDependencyResolver.DependencyData(remoteData, reactorData);
+    }
+
+    private Artifact createArtifact(Artifact dependency, String scope) {
+        Artifact artifact = artifactFactory.createDependencyArtifact(dependency.getGroupId(),
+                dependency.getArtifactId(),
+                dependency.getVersionRange(),
+                dependency.getType(),
+                dependency.getClassifier(),
+                scope,
+                dependency.isOptional()
+        );
+        artifact.setDependencyFilter(dependency.getDependencyFilter());
+        return artifact;
+    }
+
+    // Scopes
+
+    private static int toScopeCode(String scope) {
+        if (scope == null) return NONE;
+        for (int code = 0; code < SCOPE_NAMES.length; code++)
+            if (SCOPE_NAMES[code].equals(scope))
+                return code;
+        return OTHER;
+    }
+
+    /**
+     * @return name of the scope code, the declared scope is kept for unknown scopes
+     */
+    private static String toScope(Artifact dependency, int scope) {
+        return scope == OTHER ? dependency.getScope() : SCOPE_NAMES[scope];
+    }
+
+    /**
+     * The same rules as DefaultArtifactFactory uses to create a dependency artifact with inherited scope
+     */
+    private static int inheritScope(int scope, int inherited) {
+        if (inherited == EXCLUDED) return EXCLUDED;
+        if (inherited == NONE) return scope;
+        if (scope == TEST || scope == PROVIDED) return EXCLUDED;
+        int desiredScope = scope == COMPILE && inherited == COMPILE ? COMPILE : RUNTIME;
+        if (inherited == TEST) desiredScope = TEST;
+        if (inherited == PROVIDED) desiredScope = PROVIDED;
+        if (scope == SYSTEM) desiredScope = SYSTEM;
+        return desiredScope;
+    }
+
+    private static int apply(int table, int scope) {
+        return (table >>> (3 * scope)) & 7;
+    }
+
+    private static int intern(int table, List<Integer> transforms, Map<Integer, Integer> transformIds) {
+        Integer id = transformIds.get(table);
+        if (id == null) {
+            id = transforms.size();
+            transforms.add(table);
+            transformIds.put(table, id);
+        }
+        return id;
+    }
+
+    /**
+     * @return scope of the node: transform of the root scope
+     */
+    private static int toScopeCode(int transform, int inherited) {
+        return apply(TRANSFORMS[transform], inherited);
+    }
+
+    // Classes
+
+    /**
+     * Nodes and remote dependencies in the breadth-first order with the transform of the closure root scope
+     */
+    private static class Closure {
+        private int nodeSize;
+        private final int[] node;
+        private final int[] nodeDepth;
+        private final int[] nodeScope;
+        private final int[] nodeEdge;
+        private int remoteSize;
+        private final int[] remote;
+        private final int[] remoteDepth;
+        private final int[] remoteScope;
+
+        /**
+         * @param nodeCapacity   maximum number of nodes
+         * @param remoteCapacity maximum number of remote dependencies
+         */
+        private Closure(int nodeCapacity, int remoteCapacity) {
+            node = new int[nodeCapacity];
+            nodeDepth = new int[nodeCapacity];
+            nodeScope = new int[nodeCapacity];
+            nodeEdge = new int[nodeCapacity];
+            remote = new int[remoteCapacity];
+            remoteDepth = new int[remoteCapacity];
+            remoteScope = new int[remoteCapacity];
+        }
+
+        private void addNode(int node, int depth, int scope, int edge) {
+            this.node[nodeSize] = node;
+            nodeDepth[nodeSize] = depth;
+            nodeScope[nodeSize] = scope;
+            nodeEdge[nodeSize] = edge;
+            nodeSize++;
+        }
+
+        private void addRemote(int remote, int depth, int scope) {
+            this.remote[remoteSize] = remote;
+            remoteDepth[remoteSize] = depth;
+            remoteScope[remoteSize] = scope;
+            remoteSize++;
+        }
+    }
+
+    /**
+     * Buffers reused by all merges
+     */
+    private static class Scratch {
+        private final BitSet visited;
+        private final BitSet seenCoordinates;
+        private final int[] winners;
+        private final int[] winnerScopes;
+
+        private Scratch(int moduleCount, int coordinateCount) {
+            visited = new BitSet(moduleCount);
+            seenCoordinates = new BitSet(coordinateCount);
+            winners = new int[coordinateCount];
+            winnerScopes = new int[coordinateCount];
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * The part of a POM from the local repository needed for the dependency resolution: coordinates, parent,
+ * properties, dependencies and dependency management. The POM is read by a SAX parser without building the model,
+ * parts which need the Maven project builder (profiles, relocation) are reported by {@link #getUnsupported()}.
+ *
+ * @since 10/18/2026
+ */
+class RepositoryPom {
+    private static final SAXParserFactory PARSER_FACTORY = SAXParserFactory.newInstance();
+
+    static {
+        PARSER_FACTORY.setNamespaceAware(false);
+        PARSER_FACTORY.setValidating(false);
+        try {
+            // POMs have no DTD, don't let a malformed one reach the network
+            PARSER_FACTORY.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            PARSER_FACTORY.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+            PARSER_FACTORY.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        } catch (Exception e) {
+            // the parser doesn't support the features
+        }
+    }
+
+    private String groupId;
+    private String artifactId;
+    private String version;
+    private String parentGroupId;
+    private String parentArtifactId;
+    private String parentVersion;
+    private String unsupported;
+    private final Map<String, String> properties = new LinkedHashMap<String, String>();
+    private final List<PomDependency> dependencies = new ArrayList<PomDependency>();
+    private final List<PomDependency> managedDependencies = new ArrayList<PomDependency>();
+
+    /**
+     * @param file POM file
+     * @return POM
+     * @throws IOException if the file can't be read or isn't well formed
+     */
+    public static RepositoryPom read(File file) throws IOException {
+        RepositoryPom pom = new RepositoryPom();
+        try {
+            SAXParser parser;
+            synchronized (PARSER_FACTORY) {
+                parser = PARSER_FACTORY.newSAXParser();
+            }
+            parser.parse(file, pom.new Handler());
+        } catch (SAXException e) {
+            throw new IOException("Malformed POM " + file.getAbsolutePath() + ": " + e.getMessage());
+        } catch (ParserConfigurationException e) {
+            throw new IOException(e.getMessage());
+        }
+        return pom;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getParentGroupId() {
+        return parentGroupId;
+    }
+
+    public String getParentArtifactId() {
+        return parentArtifactId;
+    }
+
+    public String getParentVersion() {
+        return parentVersion;
+    }
+
+    /**
+     * @return the reason the POM needs the Maven project builder or null
+     */
+    public String getUnsupported() {
+        return unsupported;
+    }
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    public List<PomDependency> getDependencies() {
+        return dependencies;
+    }
+
+    public List<PomDependency> getManagedDependencies() {
+        return managedDependencies;
+    }
+
+    /**
+     * @param parent parent POM with its own inherited values
+     * @return copy with the groupId, version, properties, dependencies and dependency management inherited from
+     *         the parent, the child values win and go first as in the Maven 3 model merger
+     */
+    public RepositoryPom inherit(RepositoryPom parent) {
+        RepositoryPom pom = new RepositoryPom();
+        pom.groupId = groupId != null ? groupId : parentGroupId;
+        pom.artifactId = artifactId;
+        pom.version = version != null ? version : parentVersion;
+        pom.parentGroupId = parentGroupId;
+        pom.parentArtifactId = parentArtifactId;
+        pom.parentVersion = parentVersion;
+        pom.unsupported = unsupported != null ? unsupported : parent.unsupported;
+        pom.properties.putAll(parent.properties);
+        pom.properties.putAll(properties);
+        inherit(pom.dependencies, dependencies, parent.dependencies);
+        inherit(pom.managedDependencies, managedDependencies, parent.managedDependencies);
+        return pom;
+    }
+
+    private static void inherit(List<PomDependency> target, List<PomDependency> child, List<PomDependency> parent) {
+        Set<String> keys = new HashSet<String>();
+        for (PomDependency dependency : child) {
+            keys.add(dependency.getManagementKey());
+            target.add(dependency);
+        }
+        for (PomDependency dependency : parent)
+            if (!keys.contains(dependency.getManagementKey()))
+                target.add(dependency);
+    }
+
+    /**
+     * Collects the elements by their path from the root, values are trimmed as the Maven model reader does
+     */
+    private class Handler extends DefaultHandler {
+        private final List<String> stack = new ArrayList<String>();
+        private final StringBuilder text = new StringBuilder();
+        private String path = "";
+        private PomDependency dependency;
+        private String exclusionGroupId;
+        private String exclusionArtifactId;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            stack.add(path);
+            path = path.length() == 0 ? qName : path + "/" + qName;
+            text.setLength(0);
+            if ("project/dependencies/dependency".equals(path) || "project/dependencyManagement/dependencies/dependency".equals(path)) {
+                dependency = new PomDependency();
+            } else if ("project/distributionManagement/relocation".equals(path)) {
+                unsupported = "relocation";
+            } else if ("project/profiles/profile/dependencies".equals(path) || "project/profiles/profile/dependencyManagement".equals(path)
+                    || "project/profiles/profile/properties".equals(path)) {
+                unsupported = "profiles";
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            text.append(ch, start, length);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            String value = text.toString().trim();
+            text.setLength(0);
+            if (path.startsWith("project/dependencies/dependency"))
+                endDependency(path.substring("project/dependencies/dependency".length()), value, dependencies);
+            else if (path.startsWith("project/dependencyManagement/dependencies/dependency"))
+                endDependency(path.substring("project/dependencyManagement/dependencies/dependency".length()), value, managedDependencies);
+            else if (path.startsWith("project/properties/") && path.indexOf('/', "project/properties/".length()) < 0)
+                properties.put(qName, value);
+            else if ("project/groupId".equals(path))
+                groupId = value;
+            else if ("project/artifactId".equals(path))
+                artifactId = value;
+            else if ("project/version".equals(path))
+                version = value;
+            else if ("project/parent/groupId".equals(path))
+                parentGroupId = value;
+            else if ("project/parent/artifactId".equals(path))
+                parentArtifactId = value;
+            else if ("project/parent/version".equals(path))
+                parentVersion = value;
+            path = stack.remove(stack.size() - 1);
+        }
+
+        private void endDependency(String field, String value, List<PomDependency> list) {
+            if (field.length() == 0) {
+                list.add(dependency);
+            } else if ("/groupId".equals(field)) {
+                dependency.groupId = value;
+            } else if ("/artifactId".equals(field)) {
+                dependency.artifactId = value;
+            } else if ("/version".equals(field)) {
+                dependency.version = value;
+            } else if ("/type".equals(field)) {
+                dependency.type = value;
+            } else if ("/classifier".equals(field)) {
+                dependency.classifier = value.length() == 0 ? null : value;
+            } else if ("/scope".equals(field)) {
+                dependency.scope = value;
+            } else if ("/optional".equals(field)) {
+                dependency.optional = value;
+            } else if ("/systemPath".equals(field)) {
+                dependency.systemPath = value;
+            } else if ("/exclusions/exclusion/groupId".equals(field)) {
+                exclusionGroupId = value;
+            } else if ("/exclusions/exclusion/artifactId".equals(field)) {
+                exclusionArtifactId = value;
+            } else if ("/exclusions/exclusion".equals(field)) {
+                dependency.exclusions.add(exclusionGroupId + ":" + exclusionArtifactId);
+                exclusionGroupId = null;
+                exclusionArtifactId = null;
+            }
+        }
+    }
+
+    /**
+     * Dependency as declared, values may have ${} expressions
+     */
+    public static class PomDependency {
+        private String groupId;
+        private String artifactId;
+        private String version;
+        private String type;
+        private String classifier;
+        private String scope;
+        private String optional;
+        private String systemPath;
+        private List<String> exclusions = new ArrayList<String>();
+
+        public String getGroupId() {
+            return groupId;
+        }
+
+        public String getArtifactId() {
+            return artifactId;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public String getType() {
+            return type == null ? "jar" : type;
+        }
+
+        public String getClassifier() {
+            return classifier;
+        }
+
+        public String getScope() {
+            return scope;
+        }
+
+        public boolean isOptional() {
+            return "true".equals(optional);
+        }
+
+        public String getSystemPath() {
+            return systemPath;
+        }
+
+        /**
+         * @return groupId:artifactId of the excluded dependencies
+         */
+        public List<String> getExclusions() {
+            return exclusions;
+        }
+
+        /**
+         * @return groupId:artifactId:type[:classifier], the key of the inheritance and the dependency management
+         */
+        public String getManagementKey() {
+            return groupId + ":" + artifactId + ":" + getType() + (classifier == null ? "" : ":" + classifier);
+        }
+
+        /**
+         * @param interpolator expression resolver
+         * @return copy with the expressions resolved
+         * @throws IllegalArgumentException if an expression can't be resolved
+         */
+        public PomDependency interpolate(Interpolator interpolator) {
+            PomDependency copy = new PomDependency();
+            copy.groupId = interpolator.interpolate(groupId);
+            copy.artifactId = interpolator.interpolate(artifactId);
+            copy.version = interpolator.interpolate(version);
+            copy.type = interpolator.interpolate(type);
+            copy.classifier = interpolator.interpolate(classifier);
+            copy.scope = interpolator.interpolate(scope);
+            copy.optional = interpolator.interpolate(optional);
+            copy.systemPath = interpolator.interpolate(systemPath);
+            for (String exclusion : exclusions)
+                copy.exclusions.add(interpolator.interpolate(exclusion));
+            return copy;
+        }
+
+        /**
+         * @param managed managed dependency with the same key
+         * @return copy with the missing version, scope, system path and exclusions taken from the managed dependency
+         */
+        public PomDependency manage(PomDependency managed) {
+            PomDependency copy = new PomDependency();
+            copy.groupId = groupId;
+            copy.artifactId = artifactId;
+            copy.version = version != null ? version : managed.version;
+            copy.type = type;
+            copy.classifier = classifier;
+            copy.scope = scope != null ? scope : managed.scope;
+            copy.optional = optional;
+            copy.systemPath = systemPath != null ? systemPath : managed.systemPath;
+            copy.exclusions = exclusions.isEmpty() ? managed.exclusions : exclusions;
+            return copy;
+        }
+    }
+
+    /**
+     * Resolver of ${} expressions
+     */
+    public interface Interpolator {
+        /**
+         * @param value value or null
+         * @return value with the expressions resolved
+         * @throws IllegalArgumentException if an expression can't be resolved
+         */
+        String interpolate(String value);
+    }
+}
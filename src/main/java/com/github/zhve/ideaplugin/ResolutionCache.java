@@ -0,0 +1,125 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.factory.ArtifactFactory;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persistent cache of transitive resolution results.
+ * Each entry is a file named by the {@link ResolutionFingerprint} of the resolution input.
+ * Results with SNAPSHOT or version range artifacts depend on the repository metadata, not on the input,
+ * they are not stored.
+ *
+ * @since 10/18/2026
+ */
+class ResolutionCache {
+    private final File directory;
+    private final ArtifactSerializer serializer;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    public ResolutionCache(File directory, ArtifactFactory artifactFactory) {
+        this.directory = directory;
+        this.serializer = new ArtifactSerializer(artifactFactory);
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @param fingerprint fingerprint of the resolution input
+     * @return cached resolved artifacts or null if there is no entry or a file of the entry is missing
+     * @throws IOException if the cache entry can't be read
+     */
+    public List<Artifact> load(String fingerprint) throws IOException {
+        File file = new File(directory, fingerprint);
+        if (!file.isFile()) {
+            misses.incrementAndGet();
+            return null;
+        }
+        List<Artifact> resolvedList = new ArrayList<Artifact>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null)
+                resolvedList.add(serializer.read(line));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed cache entry " + file.getAbsolutePath());
+        } finally {
+            reader.close();
+        }
+        // the local repository may have been cleaned since the entry was stored
+        for (Artifact artifact : resolvedList) {
+            if (artifact.getFile() != null && !artifact.getFile().isFile()) {
+                misses.incrementAndGet();
+                return null;
+            }
+        }
+        hits.incrementAndGet();
+        return Collections.unmodifiableList(resolvedList);
+    }
+
+    /**
+     * @param resolvedList resolved libraries
+     * @return true if no SNAPSHOT or version range artifact is resolved, so the result can't change
+     *         while the input is the same
+     */
+    public static boolean isStable(List<Artifact> resolvedList) {
+        for (Artifact artifact : resolvedList) {
+            if (artifact.isSnapshot())
+                return false;
+            if (artifact.getVersionRange() != null && artifact.getVersionRange().getRecommendedVersion() == null)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param fingerprint    fingerprint of the resolution input
+     * @param resolvedList resolved artifacts
+     * @throws IOException if the cache entry can't be written
+     */
+    public void store(String fingerprint, List<Artifact> resolvedList) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("Can't create directory " + directory.getAbsolutePath());
+        File file = new File(directory, fingerprint);
+        File temp = File.createTempFile(fingerprint, ".tmp", directory);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temp), "UTF-8"));
+        try {
+            for (Artifact artifact : resolvedList)
+                writer.write(serializer.write(artifact) + '\n');
+        } finally {
+            writer.close();
+        }
+        Util.replaceFile(temp, file);
+    }
+}
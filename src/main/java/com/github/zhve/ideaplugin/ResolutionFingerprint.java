@@ -0,0 +1,110 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Exclusion;
+import org.apache.maven.project.MavenProject;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Fingerprint of everything a transitive resolution depends on:
+ * unresolved dependencies, managed versions, reactor modules, remote repositories and local repository.
+ *
+ * @since 10/18/2026
+ */
+class ResolutionFingerprint {
+    private ResolutionFingerprint() {
+    }
+
+    /**
+     * @param project              reactor project
+     * @param remoteUnresolvedList dependencies to resolve transitively
+     * @param reactorKeys          groupId:artifactId of reactor projects
+     * @param localRepository      local repository
+     * @return MD5 of the resolution input or null if the input can't be fingerprinted
+     */
+    public static String of(MavenProject project, List<Artifact> remoteUnresolvedList, Set<String> reactorKeys, ArtifactRepository localRepository) {
+        StringBuilder b = new StringBuilder();
+        // results of the module rooted resolution are not reused
+        b.append("root shared\n");
+        b.append("local ").append(localRepository.getBasedir()).append('\n');
+        for (Object object : project.getRemoteArtifactRepositories()) {
+            ArtifactRepository repository = (ArtifactRepository) object;
+            b.append("repository ").append(repository.getId()).append(' ').append(repository.getUrl()).append('\n');
+        }
+
+        Map<?, ?> managedVersionMap = project.getManagedVersionMap();
+        if (managedVersionMap != null) {
+            Map<String, Artifact> managed = new TreeMap<String, Artifact>();
+            for (Map.Entry<?, ?> entry : managedVersionMap.entrySet())
+                managed.put(String.valueOf(entry.getKey()), (Artifact) entry.getValue());
+            for (Map.Entry<String, Artifact> entry : managed.entrySet())
+                b.append("managed ").append(entry.getKey()).append(' ').append(entry.getValue().getId()).append(':').append(entry.getValue().getScope()).append('\n');
+        }
+        if (project.getDependencyManagement() != null) {
+            // exclusions of managed artifacts are not readable from their filters
+            for (Dependency dependency : project.getDependencyManagement().getDependencies()) {
+                b.append("management ").append(dependency.getManagementKey());
+                for (Exclusion exclusion : dependency.getExclusions())
+                    b.append(' ').append(exclusion.getGroupId()).append(':').append(exclusion.getArtifactId());
+                b.append('\n');
+            }
+        }
+
+        // reactor modules are not resolved
+        for (String reactorKey : new TreeSet<String>(reactorKeys))
+            b.append("reactor ").append(reactorKey).append('\n');
+
+        for (Artifact artifact : remoteUnresolvedList) {
+            String filter = describe(artifact.getDependencyFilter());
+            if (filter == null)
+                return null;
+            b.append("dependency ").append(artifact.getId()).append(':').append(artifact.getScope())
+                    .append(' ').append(artifact.isOptional())
+                    .append(' ').append(artifact.getFile() == null ? "-" : artifact.getFile().getPath())
+                    .append(' ').append(filter).append('\n');
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            return Util.toHex(digest.digest(b.toString().getBytes("UTF-8")));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private static String describe(ArtifactFilter filter) {
+        if (filter == null)
+            return "-";
+        if (filter instanceof ExclusionFilter)
+            return ((ExclusionFilter) filter).getExclusions().toString();
+        return null;
+    }
+}
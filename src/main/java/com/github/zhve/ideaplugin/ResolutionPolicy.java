@@ -0,0 +1,251 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.metadata.ArtifactRepositoryMetadata;
+import org.apache.maven.artifact.repository.metadata.RepositoryMetadata;
+import org.apache.maven.artifact.repository.metadata.SnapshotArtifactRepositoryMetadata;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * How often the resolution checks remote repositories for SNAPSHOT and version range metadata:
+ * <ul>
+ * <li>repository - update policies of the repositories as configured</li>
+ * <li>always - check on every run</li>
+ * <li>ttl=&lt;duration&gt; - check metadata older than the duration: 90s, 30m, 12h or 7d, minutes if there is no unit</li>
+ * <li>offline - never check metadata found in the local repository and skip the repositories</li>
+ * </ul>
+ * The policy is applied to the remote repositories of the reactor for the time of the resolution only.
+ *
+ * @since 10/18/2026
+ */
+class ResolutionPolicy {
+    public static final String REPOSITORY = "repository";
+    public static final String ALWAYS = "always";
+    public static final String OFFLINE = "offline";
+    public static final String TTL = "ttl=";
+
+    private final String value;
+    private final String updatePolicy;
+    private final boolean offline;
+
+    // repositories changed by apply and their original state
+    private final List<ArtifactRepository> repositories = new ArrayList<ArtifactRepository>();
+    private final List<ArtifactRepositoryPolicy> originalSnapshots = new ArrayList<ArtifactRepositoryPolicy>();
+    private final List<ArtifactRepositoryPolicy> originalReleases = new ArrayList<ArtifactRepositoryPolicy>();
+    private final List<Boolean> originalBlacklisted = new ArrayList<Boolean>();
+
+    /**
+     * @param value repository, always, ttl=&lt;duration&gt; or offline
+     * @throws MojoExecutionException if the value is unknown
+     */
+    public ResolutionPolicy(String value) throws MojoExecutionException {
+        this.value = value;
+        if (REPOSITORY.equals(value)) {
+            updatePolicy = null;
+        } else if (ALWAYS.equals(value)) {
+            updatePolicy = ArtifactRepositoryPolicy.UPDATE_POLICY_ALWAYS;
+        } else if (OFFLINE.equals(value)) {
+            updatePolicy = ArtifactRepositoryPolicy.UPDATE_POLICY_NEVER;
+        } else if (value != null && value.startsWith(TTL)) {
+            long minutes = toMinutes(value.substring(TTL.length()));
+            updatePolicy = minutes == 0 ? ArtifactRepositoryPolicy.UPDATE_POLICY_ALWAYS : ArtifactRepositoryPolicy.UPDATE_POLICY_INTERVAL + ":" + minutes;
+        } else {
+            throw new MojoExecutionException("Unknown resolutionPolicy: " + value + ", possible values: repository, always, ttl=<duration>, offline");
+        }
+        offline = OFFLINE.equals(value);
+    }
+
+    /**
+     * @param duration 90s, 30m, 12h, 7d or minutes
+     * @return minutes rounded up, the interval unit of the repository update policy
+     * @throws MojoExecutionException if the duration is malformed
+     */
+    private static long toMinutes(String duration) throws MojoExecutionException {
+        if (duration.length() == 0)
+            throw new MojoExecutionException("Malformed resolutionPolicy duration: " + duration + ", use 90s, 30m, 12h or 7d");
+        String number = duration.substring(0, duration.length() - 1);
+        long seconds;
+        if (duration.endsWith("s")) {
+            seconds = 1;
+        } else if (duration.endsWith("m")) {
+            seconds = 60;
+        } else if (duration.endsWith("h")) {
+            seconds = 60 * 60;
+        } else if (duration.endsWith("d")) {
+            seconds = 24 * 60 * 60;
+        } else {
+            // no unit, an unknown one is rejected by the parser
+            number = duration;
+            seconds = 60;
+        }
+        try {
+            long value = Long.parseLong(number);
+            if (value < 0)
+                throw new NumberFormatException();
+            return (value * seconds + 59) / 60;
+        } catch (NumberFormatException e) {
+            throw new MojoExecutionException("Malformed resolutionPolicy duration: " + duration + ", use 90s, 30m, 12h or 7d");
+        }
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Set the update policy to the remote repositories of the projects
+     *
+     * @param projects reactor projects
+     */
+    public void apply(List<MavenProject> projects) {
+        if (updatePolicy == null)
+            return;
+        // modules usually share the repository instances
+        Map<ArtifactRepository, Boolean> seen = new IdentityHashMap<ArtifactRepository, Boolean>();
+        for (MavenProject project : projects) {
+            for (Object object : project.getRemoteArtifactRepositories()) {
+                ArtifactRepository repository = (ArtifactRepository) object;
+                if (seen.put(repository, Boolean.TRUE) != null)
+                    continue;
+                repositories.add(repository);
+                originalSnapshots.add(copy(repository.getSnapshots()));
+                originalReleases.add(copy(repository.getReleases()));
+                originalBlacklisted.add(repository.isBlacklisted());
+                repository.getSnapshots().setUpdatePolicy(updatePolicy);
+                repository.getReleases().setUpdatePolicy(updatePolicy);
+                // metadata cached in the local repository is still used, artifacts are not downloaded
+                if (offline)
+                    repository.setBlacklisted(true);
+            }
+        }
+    }
+
+    /**
+     * Give the repositories their original update policies back
+     */
+    public void restore() {
+        for (int i = 0; i < repositories.size(); i++) {
+            ArtifactRepository repository = repositories.get(i);
+            repository.getSnapshots().setUpdatePolicy(originalSnapshots.get(i).getUpdatePolicy());
+            repository.getReleases().setUpdatePolicy(originalReleases.get(i).getUpdatePolicy());
+            repository.setBlacklisted(originalBlacklisted.get(i));
+        }
+        repositories.clear();
+        originalSnapshots.clear();
+        originalReleases.clear();
+        originalBlacklisted.clear();
+    }
+
+    /**
+     * Log SNAPSHOT and version range artifacts resolved from metadata which is out of date:
+     * older than the duration of the ttl policy or than the own policy of the repository in the offline mode.
+     * Must be called before {@link #restore()}.
+     *
+     * @param log             log
+     * @param localRepository local repository with the cached metadata
+     * @param artifacts       resolved libraries
+     */
+    public void logStale(Log log, ArtifactRepository localRepository, Collection<Artifact> artifacts) {
+        if (repositories.isEmpty() || ArtifactRepositoryPolicy.UPDATE_POLICY_ALWAYS.equals(updatePolicy))
+            return;
+        long now = System.currentTimeMillis();
+        List<String> staleList = new ArrayList<String>();
+        for (Artifact artifact : artifacts) {
+            RepositoryMetadata metadata;
+            if (artifact.isSnapshot())
+                metadata = new SnapshotArtifactRepositoryMetadata(artifact);
+            else if (artifact.getVersionRange() != null && artifact.getVersionRange().getRecommendedVersion() == null)
+                metadata = new ArtifactRepositoryMetadata(artifact);
+            else
+                continue;
+            // the latest check of all repositories having the metadata
+            long checked = 0;
+            ArtifactRepositoryPolicy policy = null;
+            String repositoryId = null;
+            for (int i = 0; i < repositories.size(); i++) {
+                ArtifactRepository repository = repositories.get(i);
+                long fileChecked = getLastChecked(new File(localRepository.getBasedir(), localRepository.pathOfLocalRepositoryMetadata(metadata, repository)));
+                if (fileChecked > checked) {
+                    checked = fileChecked;
+                    policy = offline ? (artifact.isSnapshot() ? originalSnapshots.get(i) : originalReleases.get(i)) : (artifact.isSnapshot() ? repository.getSnapshots() : repository.getReleases());
+                    repositoryId = repository.getId();
+                }
+            }
+            if (policy != null && policy.checkOutOfDate(new Date(checked)))
+                staleList.add(artifact.getId() + " (" + repositoryId + ", checked " + (now - checked) / (60 * 1000) + " min ago)");
+        }
+        if (staleList.isEmpty())
+            return;
+        Collections.sort(staleList);
+        log.info("");
+        log.info("Stale Metadata: " + staleList.size() + " SNAPSHOT and version range artifacts, resolution policy " + value);
+        for (String stale : staleList)
+            log.info("  " + stale);
+    }
+
+    /**
+     * @param file metadata of a remote repository cached in the local repository
+     * @return time of the latest update check of the metadata or 0 if the metadata isn't cached
+     */
+    private static long getLastChecked(File file) {
+        if (!file.isFile())
+            return 0;
+        // Maven 3 keeps update checks in resolver-status.properties, Maven 2 touches the metadata file
+        File status = new File(file.getParentFile(), "resolver-status.properties");
+        if (status.isFile()) {
+            try {
+                Properties properties = new Properties();
+                InputStream in = new FileInputStream(status);
+                try {
+                    properties.load(in);
+                } finally {
+                    in.close();
+                }
+                long checked = 0;
+                for (Map.Entry<Object, Object> entry : properties.entrySet())
+                    if (((String) entry.getKey()).endsWith(file.getName() + ".lastUpdated"))
+                        checked = Math.max(checked, Long.parseLong(((String) entry.getValue()).trim()));
+                if (checked > 0)
+                    return checked;
+            } catch (IOException e) {
+                // fall back to the file time
+            } catch (NumberFormatException e) {
+                // fall back to the file time
+            }
+        }
+        return file.lastModified();
+    }
+
+    private static ArtifactRepositoryPolicy copy(ArtifactRepositoryPolicy policy) {
+        return new ArtifactRepositoryPolicy(policy.isEnabled(), policy.getUpdatePolicy(), policy.getChecksumPolicy());
+    }
+}
@@ -0,0 +1,171 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+
+import java.io.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Detailed trace of the dependency search: every dependency of every module with the action taken on it.
+ * The trace goes to the log at debug level and, if a file is given, to JSON lines written by a background thread,
+ * so the resolution doesn't wait for the disk.
+ *
+ * @since 10/18/2026
+ */
+class ResolutionTrace {
+    // phases
+    public static final String DECLARED = "declared";
+    public static final String CLOSURE = "closure";
+    public static final String BEFORE = "before";
+    public static final String RESOLVED = "resolved";
+
+    // actions
+    public static final char REACTOR = 'R';
+    public static final char LIBRARY = 'L';
+    public static final char DUPLICATE = 'D';
+    public static final char CONFLICT = 'C';
+    public static final char OMITTED = 'O';
+
+    private static final Object END = new Object();
+
+    private final File file;
+    private final BlockingQueue<Object> queue;
+    private final Thread writerThread;
+    private volatile IOException error;
+    private boolean closed;
+
+    /**
+     * Trace to the log at debug level only
+     */
+    public ResolutionTrace() {
+        file = null;
+        queue = null;
+        writerThread = null;
+    }
+
+    /**
+     * @param file JSON lines file, one object per dependency
+     * @throws IOException if the file can't be created
+     */
+    public ResolutionTrace(File file) throws IOException {
+        this.file = file;
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("Can't create directory " + directory.getAbsolutePath());
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"), 64 * 1024);
+        // bounded, so a slow disk holds the resolution back instead of filling the heap
+        queue = new ArrayBlockingQueue<Object>(16 * 1024);
+        writerThread = new Thread("idea-plugin-trace") {
+            @Override
+            public void run() {
+                try {
+                    for (Object line = queue.take(); line != END; line = queue.take()) {
+                        if (error == null) {
+                            try {
+                                writer.write((String) line);
+                                writer.write('\n');
+                            } catch (IOException e) {
+                                error = e;
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    try {
+                        writer.close();
+                    } catch (IOException e) {
+                        if (error == null)
+                            error = e;
+                    }
+                }
+            }
+        };
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @param log log of the current task
+     * @return true if records are used, callers may skip preparing them otherwise
+     */
+    public boolean isEnabled(Log log) {
+        return queue != null || log.isDebugEnabled();
+    }
+
+    /**
+     * @param log      log of the current task, the record is written at debug level
+     * @param project  module the dependency belongs to
+     * @param phase    phase of the search
+     * @param action   what happened to the dependency
+     * @param artifact dependency id
+     * @param scope    dependency scope
+     * @param detail   additional information or null
+     */
+    public void record(Log log, MavenProject project, String phase, char action, String artifact, String scope, String detail) {
+        if (log.isDebugEnabled()) {
+            String prefix = action == LIBRARY ? "  " : action + " ";
+            log.debug(prefix + artifact + ":" + scope + (detail == null ? "" : " (" + detail + ")"));
+        }
+        if (queue != null && error == null) {
+            StringBuilder b = new StringBuilder(160);
+            b.append("{\"module\":\"").append(Util.escapeJson(project.getId()));
+            b.append("\",\"phase\":\"").append(phase);
+            b.append("\",\"action\":\"").append(action);
+            b.append("\",\"artifact\":\"").append(Util.escapeJson(artifact));
+            b.append("\",\"scope\":\"").append(Util.escapeJson(String.valueOf(scope)));
+            if (detail != null)
+                b.append("\",\"detail\":\"").append(Util.escapeJson(detail));
+            b.append("\"}");
+            try {
+                queue.put(b.toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Wait until all records are written, next calls do nothing
+     *
+     * @throws IOException if the file can't be written
+     */
+    public void close() throws IOException {
+        if (writerThread == null || closed)
+            return;
+        closed = true;
+        try {
+            queue.put(END);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (error != null)
+            throw error;
+    }
+}
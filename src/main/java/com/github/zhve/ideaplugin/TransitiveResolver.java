@@ -0,0 +1,57 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.resolver.ArtifactNotFoundException;
+import org.apache.maven.artifact.resolver.ArtifactResolutionException;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.plugin.logging.Log;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Backend of the transitive resolution of the remote dependencies of a module.
+ * Implementations must be thread safe, the resolver calls them from several threads.
+ *
+ * @since 10/18/2026
+ */
+interface TransitiveResolver {
+    /**
+     * @param log                 log of the current resolution
+     * @param artifacts           direct dependencies
+     * @param originatingArtifact artifact of the module
+     * @param managedVersions     managed versions of the module
+     * @param remoteRepositories  remote repositories of the module
+     * @param filter              filter of the dependencies not to resolve
+     * @return resolved artifacts with files, in the order of the Maven artifact collector
+     * @throws ArtifactResolutionException if the resolution failed
+     * @throws ArtifactNotFoundException   if an artifact doesn't exist
+     */
+    List<Artifact> resolve(Log log, Set<Artifact> artifacts, Artifact originatingArtifact, Map<String, Artifact> managedVersions, List<ArtifactRepository> remoteRepositories, ArtifactFilter filter) throws ArtifactResolutionException, ArtifactNotFoundException;
+
+    /**
+     * @return summary of the backend work logged after the resolution, one or more lines
+     */
+    String getStatistics();
+}
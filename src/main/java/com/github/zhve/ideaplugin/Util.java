@@ -19,11 +19,15 @@ package com.github.zhve.ideaplugin;
  * under the License.
  */
 
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
 import org.apache.maven.plugin.logging.Log;
 
-import java.io.File;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * @author Vasiliy Zhukov
@@ -31,30 +35,207 @@ import java.util.regex.Pattern;
  * @since 08/07/2010
  */
 class Util {
-    private static String escapeXml(String text) {
-        text = text.replaceAll("&", "&amp;");
-        text = text.replaceAll("<", "&lt;");
-        text = text.replaceAll(">", "&gt;");
-        text = text.replaceAll("\"", "&quot;");
-        text = text.replaceAll("\'", "&apos;");
-        return text;
+    /**
+     * Escape XML special characters and control characters in a single pass, Windows line separators become one &amp;#10;
+     */
+    public static String escapeXmlAttribute(String text) {
+        StringBuilder b = null;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            String replacement;
+            int next = i;
+            switch (c) {
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '"':
+                    replacement = "&quot;";
+                    break;
+                case '\'':
+                    replacement = "&apos;";
+                    break;
+                case '\r':
+                    // Windows
+                    if (i + 1 < length && text.charAt(i + 1) == '\n') {
+                        replacement = "&#10;";
+                        next = i + 1;
+                    } else
+                        replacement = "&#13;";
+                    break;
+                default:
+                    replacement = c < ' ' ? "&#" + (int) c + ";" : null;
+            }
+            if (replacement != null) {
+                if (b == null)
+                    b = new StringBuilder(length + 16).append(text, 0, i);
+                b.append(replacement);
+                i = next;
+            } else if (b != null)
+                b.append(c);
+        }
+        return b == null ? text : b.toString();
     }
 
-    public static String escapeXmlAttribute(String text) {
-        text = escapeXml(text);
+    /**
+     * Escape a string value for JSON output, quotes are not added
+     */
+    public static String escapeJson(String text) {
+        StringBuilder b = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    b.append("\\\"");
+                    break;
+                case '\\':
+                    b.append("\\\\");
+                    break;
+                case '\n':
+                    b.append("\\n");
+                    break;
+                case '\r':
+                    b.append("\\r");
+                    break;
+                case '\t':
+                    b.append("\\t");
+                    break;
+                default:
+                    if (c < ' ')
+                        b.append(String.format("\\u%04x", (int) c));
+                    else
+                        b.append(c);
+            }
+        }
+        return b.toString();
+    }
 
-        // Windows
-        text = text.replaceAll("\r\n", "&#10;");
+    public static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte value : bytes)
+            hex.append(Character.forDigit((value >> 4) & 0xF, 16)).append(Character.forDigit(value & 0xF, 16));
+        return hex.toString();
+    }
 
-        Pattern pattern = Pattern.compile("([\000-\037])");
-        Matcher m = pattern.matcher(text);
-        StringBuffer b = new StringBuffer();
-        while (m.find()) {
-            m = m.appendReplacement(b, "&#" + Integer.toString(m.group(1).charAt(0)) + ";");
+    /**
+     * @return true if the plugin runs in Maven 2, its artifact resolver, wagons and project builder are not thread safe
+     */
+    public static boolean isMaven2Runtime() {
+        try {
+            // the project builder of Maven 3, plugins see the packages of the Maven core
+            Class.forName("org.apache.maven.project.ProjectBuilder", false, Util.class.getClassLoader());
+            return false;
+        } catch (ClassNotFoundException e) {
+            return true;
         }
-        m.appendTail(b);
+    }
 
-        return b.toString();
+    /**
+     * Copy of the artifact, ArtifactUtils.copyArtifact of Maven 2 fails on a version range which is not resolved yet
+     */
+    public static Artifact copyArtifact(Artifact artifact) {
+        if (artifact.getVersion() != null)
+            return ArtifactUtils.copyArtifact(artifact);
+        DefaultArtifact copy = new DefaultArtifact(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersionRange().cloneOf(),
+                artifact.getScope(), artifact.getType(), artifact.getClassifier(), artifact.getArtifactHandler(), artifact.isOptional());
+        copy.setRelease(artifact.isRelease());
+        copy.setResolved(artifact.isResolved());
+        copy.setFile(artifact.getFile());
+        copy.setAvailableVersions(artifact.getAvailableVersions() == null ? null : new ArrayList<ArtifactVersion>(artifact.getAvailableVersions()));
+        copy.setDependencyFilter(artifact.getDependencyFilter());
+        copy.setDependencyTrail(artifact.getDependencyTrail() == null ? null : new ArrayList<String>(artifact.getDependencyTrail()));
+        copy.setDownloadUrl(artifact.getDownloadUrl());
+        copy.setRepository(artifact.getRepository());
+        return copy;
+    }
+
+    public static String readText(File file) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+        try {
+            char[] buffer = new char[8192];
+            int count;
+            while ((count = reader.read(buffer)) != -1)
+                sb.append(buffer, 0, count);
+        } finally {
+            reader.close();
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write the text to a temporary file and rename it, so the file is never seen half written
+     */
+    public static void writeText(File file, String text) throws IOException {
+        writeBytes(file, text.getBytes("UTF-8"));
+    }
+
+    /**
+     * Write the content to a temporary file and rename it, so the file is never seen half written
+     */
+    public static void writeBytes(File file, byte[] content) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("Can't create directory " + directory.getAbsolutePath());
+        File temp = File.createTempFile(file.getName(), ".tmp", directory);
+        OutputStream output = new FileOutputStream(temp);
+        try {
+            output.write(content);
+        } finally {
+            output.close();
+        }
+        replaceFile(temp, file);
+    }
+
+    /**
+     * Move the temporary file in place of the file. Where a rename doesn't replace an existing file (Windows),
+     * the file is moved to a backup first and is restored if the temporary file can't take its place,
+     * so the file is never lost.
+     *
+     * @param temp new content in the same directory, it's deleted if the file can't be replaced
+     * @param file file to replace
+     * @throws IOException if the file can't be replaced, it keeps the old content then
+     */
+    public static void replaceFile(File temp, File file) throws IOException {
+        if (temp.renameTo(file))
+            return;
+        File backup = new File(file.getPath() + ".bak");
+        if (backup.exists() && !backup.delete() || file.exists() && !file.renameTo(backup)) {
+            temp.delete();
+            throw new IOException("Can't write " + file.getAbsolutePath());
+        }
+        if (temp.renameTo(file)) {
+            backup.delete();
+            return;
+        }
+        if (backup.exists())
+            backup.renameTo(file);
+        temp.delete();
+        throw new IOException("Can't write " + file.getAbsolutePath());
+    }
+
+    /**
+     * @return true if the file exists and has exactly the content
+     */
+    public static boolean hasContent(File file, byte[] content) throws IOException {
+        if (!file.isFile() || file.length() != content.length)
+            return false;
+        byte[] buffer = new byte[content.length];
+        DataInputStream input = new DataInputStream(new FileInputStream(file));
+        try {
+            input.readFully(buffer);
+        } catch (EOFException e) {
+            return false;
+        } finally {
+            input.close();
+        }
+        return Arrays.equals(buffer, content);
     }
 
     public static void deleteFileOrDirectory(Log log, File file) {
@@ -23,6 +23,8 @@ import org.apache.velocity.Template;
 import org.apache.velocity.app.Velocity;
 import org.apache.velocity.runtime.RuntimeConstants;
 
+import java.io.File;
+
 /**
  * Init velocity and load templates
  *
@@ -34,15 +36,28 @@ class VelocityWorker {
     private Template iprTemplate;
     private Template iwsTemplate;
 
-    public VelocityWorker() throws Exception {
+    /**
+     * @param templateDirectory directory with custom templates or null, missing templates are loaded from the plugin
+     */
+    public VelocityWorker(File templateDirectory) throws Exception {
+        if (templateDirectory != null) {
+            Velocity.addProperty("resource.loader", "file");
+            Velocity.addProperty("file.resource.loader.path", templateDirectory.getAbsolutePath());
+        }
         Velocity.addProperty("resource.loader", "class");
         Velocity.addProperty("class.resource.loader.class", "org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader");
         Velocity.addProperty(RuntimeConstants.RUNTIME_LOG, System.getProperty("java.io.tmpdir") + "/velocity.log");
         Velocity.init();
 
-        imlTemplate = Velocity.getTemplate("ideaplugin/idea-iml.vm");
-        iprTemplate = Velocity.getTemplate("ideaplugin/idea-ipr.vm");
-        iwsTemplate = Velocity.getTemplate("ideaplugin/idea-iws.vm");
+        imlTemplate = getTemplate(templateDirectory, "idea-iml.vm");
+        iprTemplate = getTemplate(templateDirectory, "idea-ipr.vm");
+        iwsTemplate = getTemplate(templateDirectory, "idea-iws.vm");
+    }
+
+    private static Template getTemplate(File templateDirectory, String name) throws Exception {
+        if (templateDirectory != null && new File(templateDirectory, name).isFile())
+            return Velocity.getTemplate(name);
+        return Velocity.getTemplate("ideaplugin/" + name);
     }
 
     // Getters
@@ -0,0 +1,94 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.resolver.ArtifactNotFoundException;
+import org.apache.maven.artifact.resolver.ArtifactResolutionException;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.plugin.logging.Log;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Conformance check of the local backend: every module is resolved by both backends, the Maven result is used
+ * and the differences of the local one are logged as warnings.
+ *
+ * @since 10/18/2026
+ */
+class VerifyingTransitiveResolver implements TransitiveResolver {
+    private final TransitiveResolver maven;
+    private final TransitiveResolver local;
+    private final AtomicInteger resolutions = new AtomicInteger();
+    private final AtomicInteger matches = new AtomicInteger();
+
+    public VerifyingTransitiveResolver(TransitiveResolver maven, TransitiveResolver local) {
+        this.maven = maven;
+        this.local = local;
+    }
+
+    @Override
+    public List<Artifact> resolve(Log log, Set<Artifact> artifacts, Artifact originatingArtifact, Map<String, Artifact> managedVersions, List<ArtifactRepository> remoteRepositories, ArtifactFilter filter) throws ArtifactResolutionException, ArtifactNotFoundException {
+        // Maven goes first: the filter remembers the first reactor artifacts met
+        Set<Artifact> copies = new LinkedHashSet<Artifact>();
+        for (Artifact artifact : artifacts)
+            copies.add(Util.copyArtifact(artifact));
+        List<Artifact> mavenList = maven.resolve(log, artifacts, originatingArtifact, managedVersions, remoteRepositories, filter);
+        List<String> expected = toKeys(mavenList);
+        List<String> actual;
+        try {
+            actual = toKeys(local.resolve(log, copies, originatingArtifact, managedVersions, remoteRepositories, filter));
+        } catch (Exception e) {
+            actual = Collections.singletonList(e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+        resolutions.incrementAndGet();
+        if (expected.equals(actual)) {
+            matches.incrementAndGet();
+        } else {
+            StringBuilder b = new StringBuilder("Local Resolver: ").append(originatingArtifact.getId()).append(" differs from Maven");
+            List<String> missing = new ArrayList<String>(expected);
+            missing.removeAll(actual);
+            List<String> extra = new ArrayList<String>(actual);
+            extra.removeAll(expected);
+            for (String key : missing)
+                b.append("\n  - ").append(key);
+            for (String key : extra)
+                b.append("\n  + ").append(key);
+            if (missing.isEmpty() && extra.isEmpty())
+                b.append("\n  order ").append(actual);
+            log.warn(b.toString());
+        }
+        return mavenList;
+    }
+
+    private static List<String> toKeys(List<Artifact> artifacts) {
+        List<String> keys = new ArrayList<String>();
+        for (Artifact artifact : artifacts)
+            keys.add(artifact.getId() + ":" + artifact.getScope() + (artifact.isOptional() ? ":optional" : "") + " " + artifact.getFile());
+        return keys;
+    }
+
+    @Override
+    public String getStatistics() {
+        return local.getStatistics() + "\nLocal Resolver Conformance: " + matches.get() + " of " + resolutions.get() + " resolutions match";
+    }
+}
@@ -0,0 +1,440 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.model.Resource;
+import org.apache.maven.project.MavenProject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Native generator of .iml, .ipr and .iws files, the output is the same as of the Velocity templates
+ * idea-iml.vm, idea-ipr.vm and idea-iws.vm for the same model. Values are written as they are in the model,
+ * escaping is done when the model is filled. A variable missing in the model is written as its reference,
+ * the way Velocity renders it.
+ *
+ * @since 10/18/2026
+ */
+class WorkspaceWriter {
+    private static final String HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!-- generated by com.github.zhve:idea-maven-plugin -->\n";
+
+    private final Writer out;
+
+    /**
+     * @param out buffered output, it's not closed by the writer
+     */
+    public WorkspaceWriter(Writer out) {
+        this.out = out;
+    }
+
+    // iml
+
+    public void writeIml(Map<String, Object> model) throws IOException {
+        IdeaPluginMojo context = (IdeaPluginMojo) model.get("context");
+        MavenProject project = (MavenProject) model.get("project");
+        String md = (String) model.get("MD");
+        String gaeHome = (String) model.get("gaeHome");
+        String buildDirectory = (String) model.get("buildDirectory");
+        boolean packagingPom = isTrue(model.get("packagingPom"));
+
+        out.write(HEADER);
+        out.write("<module relativePaths=\"false\" type=\"JAVA_MODULE\" version=\"4\">\n");
+        if (isTrue(model.get("packagingWar"))) {
+            out.write("  <component name=\"FacetManager\">\n");
+            write("    <facet type=\"web\" name=\"", project.getArtifactId(), "\">\n");
+            out.write("      <configuration>\n");
+            out.write("        <descriptors>\n");
+            write("          <deploymentDescriptor name=\"web.xml\" url=\"file://", md, "/src/main/webapp/WEB-INF/web.xml\" />\n");
+            out.write("        </descriptors>\n");
+            out.write("        <webroots>\n");
+            write("          <root url=\"file://", md, "/src/main/webapp\" relative=\"/\" />\n");
+            out.write("        </webroots>\n");
+            write("        <context-artifact name=\"", project.getArtifactId(), " exploded-war\" />\n");
+            out.write("      </configuration>\n");
+            if (gaeHome != null) {
+                out.write("      <facet type=\"google-app-engine\" name=\"Google App Engine\">\n");
+                out.write("        <configuration>\n");
+                write("          <sdk-home-path>", gaeHome, "</sdk-home-path>\n");
+                out.write("        </configuration>\n");
+                out.write("      </facet>\n");
+            }
+            out.write("    </facet>\n");
+            out.write("  </component>\n");
+        }
+        out.write("  <component name=\"NewModuleRootManager\" inherit-compiler-output=\"false\">\n");
+        if (packagingPom) {
+            write("    <content url=\"file://", md, "\">\n");
+            write("      <excludeFolder url=\"file://", buildDirectory, "\" />\n");
+            out.write("    </content>\n");
+        } else {
+            write("    <output url=\"file://", project.getBuild().getOutputDirectory(), "\" />\n");
+            write("    <output-test url=\"file://", project.getBuild().getTestOutputDirectory(), "\" />\n");
+            out.write("    <exclude-output />\n");
+            write("    <content url=\"file://", md, "\">\n");
+            for (Object directory : project.getCompileSourceRoots())
+                write("      <sourceFolder url=\"file://", String.valueOf(directory), "\" isTestSource=\"false\" />\n");
+            for (Object directory : project.getTestCompileSourceRoots())
+                write("      <sourceFolder url=\"file://", String.valueOf(directory), "\" isTestSource=\"true\" />\n");
+            writeResources(project.getBuild().getResources(), "\" isTestSource=\"false\" />\n");
+            writeResources(project.getBuild().getTestResources(), "\" isTestSource=\"true\" />\n");
+            write("      <excludeFolder url=\"file://", buildDirectory, "\" />\n");
+            out.write("    </content>\n");
+        }
+        out.write("    <orderEntry type=\"inheritedJdk\" />\n");
+        out.write("    <orderEntry type=\"sourceFolder\" forTests=\"false\" />\n");
+        if (!packagingPom && gaeHome != null) {
+            out.write("    <orderEntry type=\"library\" name=\"AppEngine API\" level=\"project\" />\n");
+            out.write("    <orderEntry type=\"library\" name=\"AppEngine ORM\" level=\"project\" />\n");
+        }
+        for (Artifact artifact : context.getOrderEntries(project)) {
+            if (context.isReactorArtifact(artifact)) {
+                write("    <orderEntry type=\"module\" scope=\"", context.getScope(artifact), "\" module-name=\"");
+                write(artifact.getArtifactId(), "\" />\n");
+            } else {
+                out.write("    <orderEntry type=\"library\"");
+                if (context.isExported(project, artifact))
+                    out.write(" exported=\"\"");
+                write(" scope=\"", context.getScope(artifact), "\" name=\"Maven: ");
+                write(artifact.getId(), "\" level=\"project\" />\n");
+            }
+        }
+        out.write("  </component>\n");
+        out.write("</module>\n");
+    }
+
+    private void writeResources(List<?> resources, String suffix) throws IOException {
+        for (Object object : resources) {
+            Resource resource = (Resource) object;
+            if (resource.getTargetPath() == null)
+                write("      <sourceFolder url=\"file://", resource.getDirectory(), suffix);
+        }
+    }
+
+    // ipr
+
+    @SuppressWarnings("unchecked")
+    public void writeIpr(Map<String, Object> model) throws IOException {
+        IdeaPluginMojo context = (IdeaPluginMojo) model.get("context");
+        String gaeHome = (String) model.get("gaeHome");
+        String m = (String) model.get("M");
+        boolean assembleModulesIntoJars = isTrue(model.get("assembleModulesIntoJars"));
+
+        out.write(HEADER);
+        out.write("<project version=\"4\">\n");
+        out.write("  <component name=\"ArtifactManager\">\n");
+        for (MavenProject project : (List<MavenProject>) model.get("warProjects")) {
+            String artifactId = project.getArtifactId();
+            write("    <artifact type=\"exploded-war\" build-on-make=\"true\" name=\"", artifactId, " exploded\">\n");
+            write("      <output-path>", project.getBuild().getDirectory(), "/");
+            write(artifactId, "-", project.getVersion());
+            out.write("</output-path>\n");
+            out.write("      <root id=\"root\">\n");
+            write("        <element id=\"javaee-facet-resources\" facet=\"", artifactId, "/web/");
+            write(artifactId, "\" />\n");
+            out.write("        <element id=\"directory\" name=\"WEB-INF\">\n");
+            out.write("          <element id=\"directory\" name=\"classes\">\n");
+            write("            <element id=\"module-output\" name=\"", artifactId, "\" />\n");
+            List<Artifact> dependencies = context.getDependencies(project);
+            if (!assembleModulesIntoJars)
+                for (Artifact artifact : dependencies)
+                    if (context.isReactorArtifact(artifact))
+                        write("            <element id=\"module-output\" name=\"", artifact.getArtifactId(), "\" />\n");
+            out.write("          </element>\n");
+            out.write("          <element id=\"directory\" name=\"lib\">\n");
+            for (Artifact artifact : dependencies) {
+                if (context.isReactorArtifact(artifact)) {
+                    if (assembleModulesIntoJars) {
+                        write("            <element id=\"archive\" name=\"", context.getReactorArtifactJarName(artifact), "\">\n");
+                        write("              <element id=\"module-output\" name=\"", artifact.getArtifactId(), "\" />\n");
+                        out.write("            </element>\n");
+                    }
+                } else if (context.isWebFriendlyScope(artifact))
+                    write("            <element id=\"library\" level=\"project\" name=\"Maven: ", artifact.getId(), "\" />\n");
+            }
+            if (gaeHome != null) {
+                out.write("            <element id=\"library\" level=\"project\" name=\"AppEngine API\" />\n");
+                out.write("            <element id=\"library\" level=\"project\" name=\"AppEngine ORM\" />\n");
+            }
+            out.write("          </element>\n");
+            out.write("        </element>\n");
+            out.write("      </root>\n");
+            out.write("    </artifact>\n");
+        }
+        out.write("  </component>\n");
+        out.write("  <component name=\"CodeStyleManager\">\n");
+        out.write("    <option name=\"USE_DEFAULT_CODE_STYLE_SCHEME\" value=\"true\" />\n");
+        out.write("    <option name=\"CODE_STYLE_SCHEME\" value=\"\" />\n");
+        out.write("  </component>\n");
+        out.write("  <component name=\"CompilerConfiguration\">\n");
+        out.write("    <option name=\"DEFAULT_COMPILER\" value=\"compAPI\" />\n");
+        out.write("    <resourceExtensions />\n");
+        out.write("    <wildcardResourcePatterns>\n");
+        write("      <entry name=\"", get(model, "wildcardResourcePatterns"), "\" />\n");
+        out.write("    </wildcardResourcePatterns>\n");
+        out.write("  </component>\n");
+        out.write("  <component name=\"Encoding\" useUTFGuessing=\"true\" native2AsciiForPropertiesFiles=\"true\" defaultCharsetForPropertiesFiles=\"UTF-8\" />\n");
+        if (isTrue(model.get("issueNavigationExist"))) {
+            out.write("  <component name=\"IssueNavigationConfiguration\">\n");
+            out.write("    <option name=\"links\">\n");
+            out.write("      <list>\n");
+            out.write("        <IssueNavigationLink>\n");
+            write("          <option name=\"issueRegexp\" value=\"", get(model, "issueRegexp"), "\" />\n");
+            write("          <option name=\"linkRegexp\" value=\"", get(model, "linkRegexp"), "\" />\n");
+            out.write("        </IssueNavigationLink>\n");
+            out.write("      </list>\n");
+            out.write("    </option>\n");
+            out.write("  </component>\n");
+        }
+        out.write("  <component name=\"MavenProjectsManager\">\n");
+        out.write("    <option name=\"originalFiles\">\n");
+        out.write("      <list>\n");
+        for (MavenProject reactorProject : context.getReactorProjects())
+            write("        <option value=\"", reactorProject.getFile().getAbsolutePath(), "\" />\n");
+        out.write("      </list>\n");
+        out.write("    </option>\n");
+        out.write("  </component>\n");
+        out.write("  <component name=\"ProjectModuleManager\">\n");
+        out.write("    <modules>\n");
+        for (String reactorPath : context.getReactorPaths())
+            write("      <module filepath=\"", reactorPath, "\" />\n");
+        out.write("    </modules>\n");
+        out.write("  </component>\n");
+        write("  <component name=\"ProjectRootManager\" version=\"2\" languageLevel=\"", get(model, "jdkLevel"), "\" assert-keyword=\"true\" jdk-15=\"true\" project-jdk-name=\"");
+        write(get(model, "jdkName"), "\" project-jdk-type=\"JavaSDK\" />\n");
+        out.write("  <component name=\"VcsDirectoryMappings\">\n");
+        for (Map.Entry<String, String> entry : context.getVcsMapping().entrySet()) {
+            write("    <mapping directory=\"", entry.getKey(), "\" vcs=\"");
+            write(entry.getValue(), "\" />\n");
+        }
+        out.write("  </component>\n");
+        out.write("  <component name=\"libraryTable\">\n");
+        for (Artifact artifact : context.getAllDependencies()) {
+            if (context.isReactorArtifact(artifact))
+                continue;
+            write("    <library name=\"Maven: ", artifact.getId(), "\">\n");
+            out.write("      <CLASSES>\n");
+            write("        <root url=\"jar://", m, "/");
+            write(context.getModuleLibraryJar(artifact), "!/\" />\n");
+            out.write("      </CLASSES>\n");
+            if (context.isModuleLibraryJavadocsPresent(artifact)) {
+                out.write("      <JAVADOC>\n");
+                write("        <root url=\"jar://", m, "/");
+                write(context.getModuleLibraryJavadocs(artifact), "!/\" />\n");
+                out.write("      </JAVADOC>\n");
+            } else
+                out.write("      <JAVADOC />\n");
+            if (context.isModuleLibrarySourcesPresent(artifact)) {
+                out.write("      <SOURCES>\n");
+                write("        <root url=\"jar://", m, "/");
+                write(context.getModuleLibrarySources(artifact), "!/\" />\n");
+                out.write("      </SOURCES>\n");
+            } else
+                out.write("      <SOURCES />\n");
+            out.write("    </library>\n");
+        }
+        if (gaeHome != null) {
+            out.write("    <library name=\"AppEngine API\">\n");
+            out.write("      <CLASSES>\n");
+            for (String jar : context.getGaeApiJars()) {
+                write("        <root url=\"jar://", gaeHome, "/lib/user/");
+                write(jar, "!/\" />\n");
+            }
+            out.write("      </CLASSES>\n");
+            out.write("      <JAVADOC />\n");
+            out.write("      <SOURCES />\n");
+            out.write("    </library>\n");
+            out.write("    <library name=\"AppEngine ORM\">\n");
+            out.write("      <CLASSES>\n");
+            for (String jar : context.getGaeOrmJars()) {
+                write("        <root url=\"jar://", gaeHome, "/lib/user/orm/");
+                write(jar, "!/\" />\n");
+            }
+            out.write("      </CLASSES>\n");
+            out.write("      <JAVADOC />\n");
+            out.write("      <SOURCES>\n");
+            for (String srcLib : context.getGaeSourceLibs()) {
+                write("        <root url=\"jar://", gaeHome, "/src/orm/");
+                write(srcLib, "\" />\n");
+            }
+            out.write("      </SOURCES>\n");
+            write("      <jarDirectory url=\"file://", gaeHome, "/lib/user/orm\" recursive=\"false\" />\n");
+            out.write("    </library>\n");
+        }
+        out.write("  </component>\n");
+        out.write("</project>\n");
+    }
+
+    // iws
+
+    @SuppressWarnings("unchecked")
+    public void writeIws(Map<String, Object> model) throws IOException {
+        IdeaPluginMojo context = (IdeaPluginMojo) model.get("context");
+        MavenProject project = (MavenProject) model.get("project");
+        MavenProject warProject = (MavenProject) model.get("warProject");
+
+        out.write(HEADER);
+        out.write("<project version=\"4\">\n");
+        out.write("  <component name=\"ChangeListManager\">\n");
+        out.write("    <ignored mask=\"*.iml\" />\n");
+        out.write("    <ignored mask=\"*.ipr\" />\n");
+        out.write("    <ignored mask=\"*.iws\" />\n");
+        out.write("    <ignored path=\"idea.bat\" />\n");
+        out.write("  </component>\n");
+        out.write("  <component name=\"CommittedChangesCache\">\n");
+        out.write("    <option name=\"initialCount\" value=\"100\" />\n");
+        out.write("  </component>\n");
+        out.write("  <component name=\"CompilerWorkspaceConfiguration\">\n");
+        write("    <option name=\"COMPILE_IN_BACKGROUND\" value=\"", get(model, "compileInBackground"), "\" />\n");
+        write("    <option name=\"ASSERT_NOT_NULL\" value=\"", get(model, "assertNotNull"), "\" />\n");
+        out.write("  </component>\n");
+        if (warProject != null) {
+            String applicationServerTitle = String.valueOf(get(model, "applicationServerTitle"));
+            write("  <component name=\"RunManager\" selected=\"", get(model, "applicationServerName"), " Server.");
+            write(applicationServerTitle, "\">\n");
+            writeRunConfiguration(model, applicationServerTitle, warProject, model.get("gaeHome") != null);
+            for (MavenProject otherWarProject : (List<MavenProject>) model.get("otherWarProjects"))
+                writeRunConfiguration(model, otherWarProject.getArtifactId(), otherWarProject, false);
+            out.write("  </component>\n");
+        }
+        out.write("    <component name=\"MavenProjectNavigator\">\n");
+        out.write("    </component>\n");
+        out.write("    <component name=\"ProjectLevelVcsManager\" settingsEditedManually=\"false\">\n");
+        out.write("      <OptionsSetting value=\"false\" id=\"Checkout\" />\n");
+        out.write("      <OptionsSetting value=\"false\" id=\"Update\" />\n");
+        out.write("      <ConfirmationsSetting value=\"2\" id=\"Add\" />\n");
+        out.write("      <ConfirmationsSetting value=\"2\" id=\"Remove\" />\n");
+        out.write("    </component>\n");
+        out.write("    <component name=\"ProjectView\">\n");
+        out.write("      <navigator currentView=\"ProjectPane\" proportions=\"\" version=\"1\" splitterProportion=\"0.5\">\n");
+        write("        <hideEmptyPackages ProjectPane=\"", get(model, "hideEmptyPackages"), "\" />\n");
+        write("        <autoscrollToSource ProjectPane=\"", get(model, "autoscrollToSource"), "\" />\n");
+        write("        <autoscrollFromSource ProjectPane=\"", get(model, "autoscrollFromSource"), "\" />\n");
+        write("        <sortByType ProjectPane=\"", get(model, "sortByType"), "\" />\n");
+        out.write("      </navigator>\n");
+        out.write("      <panes>\n");
+        out.write("        <pane id=\"ProjectPane\">\n");
+        out.write("            <subPane>\n");
+        out.write("                <PATH>\n");
+        out.write("                    <PATH_ELEMENT>\n");
+        write("                        <option name=\"myItemId\" value=\"", project.getArtifactId(), "\" />\n");
+        out.write("                        <option name=\"myItemType\" value=\"com.intellij.ide.projectView.impl.nodes.ProjectViewProjectNode\" />\n");
+        out.write("                    </PATH_ELEMENT>\n");
+        out.write("                </PATH>\n");
+        out.write("                <PATH>\n");
+        out.write("                    <PATH_ELEMENT>\n");
+        write("                        <option name=\"myItemId\" value=\"", project.getArtifactId(), "\" />\n");
+        out.write("                        <option name=\"myItemType\" value=\"com.intellij.ide.projectView.impl.nodes.ProjectViewProjectNode\" />\n");
+        out.write("                    </PATH_ELEMENT>\n");
+        out.write("                    <PATH_ELEMENT>\n");
+        write("                        <option name=\"myItemId\" value=\"", project.getFile().getParentFile().getName(), "\" />\n");
+        out.write("                        <option name=\"myItemType\" value=\"com.intellij.ide.projectView.impl.nodes.PsiDirectoryNode\" />\n");
+        out.write("                    </PATH_ELEMENT>\n");
+        out.write("                </PATH>\n");
+        out.write("            </subPane>\n");
+        out.write("        </pane>\n");
+        out.write("      </panes>\n");
+        out.write("    </component>\n");
+        out.write("    <component name=\"ToolWindowManager\">\n");
+        out.write("      <layout>\n");
+        out.write("        <window_info id=\"Project\" active=\"true\" anchor=\"left\" auto_hide=\"false\" internal_type=\"DOCKED\" type=\"DOCKED\" visible=\"true\" weight=\"0.24940048\" sideWeight=\"0.5\" order=\"0\" side_tool=\"false\" content_ui=\"tabs\" />\n");
+        out.write("      </layout>\n");
+        out.write("    </component>\n");
+        List<String> unloadedModules = context.getUnloadedModules();
+        if (!unloadedModules.isEmpty()) {
+            out.write("    <component name=\"UnloadedModulesList\">\n");
+            for (String module : unloadedModules)
+                write("      <module name=\"", module, "\" />\n");
+            out.write("    </component>\n");
+        }
+        out.write("    <component name=\"VcsManagerConfiguration\">\n");
+        out.write("      <option name=\"OFFER_MOVE_TO_ANOTHER_CHANGELIST_ON_PARTIAL_COMMIT\" value=\"false\" />\n");
+        write("      <option name=\"CHECK_CODE_SMELLS_BEFORE_PROJECT_COMMIT\" value=\"", get(model, "performCodeAnalysisBeforeCommit"), "\" />\n");
+        write("      <option name=\"REFORMAT_BEFORE_PROJECT_COMMIT\" value=\"", get(model, "reformatCodeBeforeCommit"), "\" />\n");
+        write("      <option name=\"REFORMAT_BEFORE_FILE_COMMIT\" value=\"", get(model, "reformatCodeBeforeCommit"), "\" />\n");
+        out.write("      <option name=\"MAKE_NEW_CHANGELIST_ACTIVE\" value=\"false\" />\n");
+        out.write("      <option name=\"SHOW_FILE_HISTORY_AS_TREE\" value=\"true\" />\n");
+        write("      <option name=\"OPTIMIZE_IMPORTS_BEFORE_PROJECT_COMMIT\" value=\"", get(model, "optimizeImportsBeforeCommit"), "\" />\n");
+        out.write("      <confirmMoveToFailedCommit value=\"1\" />\n");
+        out.write("    </component>\n");
+        out.write("</project>\n");
+    }
+
+    /**
+     * @param gae true for Google App Engine server settings instead of the deployment
+     */
+    private void writeRunConfiguration(Map<String, Object> model, String name, MavenProject warProject, boolean gae) throws IOException {
+        String warArtifactId = warProject.getArtifactId();
+        write("    <configuration default=\"false\" name=\"", name, "\" type=\"");
+        write(get(model, "applicationServerConfigurationType"), "\" factoryName=\"Local\" APPLICATION_SERVER_NAME=\"");
+        write(get(model, "applicationServerFullName"), "\">\n");
+        write("      <option name=\"OPEN_IN_BROWSER\" value=\"", get(model, "openInBrowser"), "\" />\n");
+        write("      <option name=\"OPEN_IN_BROWSER_URL\" value=\"", get(model, "openInBrowserUrl"), "\" />\n");
+        write("      <option name=\"COMMON_VM_ARGUMENTS\" value=\"", get(model, "vmParameters"), "\" />\n");
+        out.write("      <option name=\"SHOW_DIALOG_ON_UPDATE\" value=\"false\" />\n");
+        if (gae) {
+            out.write("      <server-settings>\n");
+            write("        <option name=\"artifact\" value=\"", warArtifactId, " exploded\" />\n");
+            out.write("      </server-settings>\n");
+        } else {
+            out.write("      <deployment>\n");
+            write("        <artifact name=\"", warArtifactId, " exploded\">\n");
+            out.write("          <settings>\n");
+            write("            <option name=\"CONTEXT_PATH\" value=\"", get(model, "deploymentContextPath"), "\" />\n");
+            out.write("          </settings>\n");
+            out.write("        </artifact>\n");
+            out.write("      </deployment>\n");
+        }
+        out.write("      <method>\n");
+        out.write("        <option name=\"BuildArtifacts\" enabled=\"true\">\n");
+        write("          <artifact name=\"", warArtifactId, " exploded\" />\n");
+        out.write("        </option>\n");
+        out.write("      </method>\n");
+        out.write("    </configuration>\n");
+    }
+
+    // Utils
+
+    /**
+     * @return value of the model variable or its reference if it's null, like Velocity renders $name
+     */
+    private static Object get(Map<String, Object> model, String name) {
+        Object value = model.get(name);
+        return value != null ? value : "$" + name;
+    }
+
+    private void write(Object value, String suffix) throws IOException {
+        out.write(String.valueOf(value));
+        out.write(suffix);
+    }
+
+    private void write(String prefix, Object value, String suffix) throws IOException {
+        out.write(prefix);
+        out.write(String.valueOf(value));
+        out.write(suffix);
+    }
+
+    private static boolean isTrue(Object value) {
+        return value != null && !Boolean.FALSE.equals(value);
+    }
+}
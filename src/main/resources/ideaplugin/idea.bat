@@ -10,6 +10,11 @@ set autoscrollFromSource=
 set autoscrollToSource=
 set compileInBackground=
 set deploymentContextPath=
+set downloadJavadocs=
+set downloadSources=
+set downloadThreads=
+set exportedDependencies=
+set focusModules=
 set gaeHome=
 set hideEmptyPackages=
 set jdkLevel=
@@ -19,8 +24,11 @@ set openInBrowserUrl=
 set optimizeImportsBeforeCommit=
 set performCodeAnalysisBeforeCommit=
 set reformatCodeBeforeCommit=
+set renderThreads=
 set selectedWarArtifactId=
 set sortByType=
+set templateDirectory=
+set templateEngine=
 set vmParameters=
 set wildcardResourcePatterns=
 
@@ -34,6 +42,8 @@ echo     idea     Create workspace files
 echo     clean    Delete workspace files
 echo     help     Show help
 echo     list     Show dependencies
+echo     lock     Write dependency lockfile
+echo     watch    Keep workspace files in sync with POMs
 exit 0
 :ok
 
@@ -80,6 +90,26 @@ if "%deploymentContextPath%" == "" goto deploymentContextPath
 set command=%command% -DdeploymentContextPath="%deploymentContextPath%"
 :deploymentContextPath
 
+if "%downloadJavadocs%" == "" goto downloadJavadocs
+set command=%command% -DdownloadJavadocs="%downloadJavadocs%"
+:downloadJavadocs
+
+if "%downloadSources%" == "" goto downloadSources
+set command=%command% -DdownloadSources="%downloadSources%"
+:downloadSources
+
+if "%downloadThreads%" == "" goto downloadThreads
+set command=%command% -DdownloadThreads="%downloadThreads%"
+:downloadThreads
+
+if "%exportedDependencies%" == "" goto exportedDependencies
+set command=%command% -DexportedDependencies="%exportedDependencies%"
+:exportedDependencies
+
+if "%focusModules%" == "" goto focusModules
+set command=%command% -DfocusModules="%focusModules%"
+:focusModules
+
 if "%gaeHome%" == "" goto gaeHome
 set command=%command% -DgaeHome="%gaeHome%"
 :gaeHome
@@ -116,6 +146,10 @@ if "%reformatCodeBeforeCommit%" == "" goto reformatCodeBeforeCommit
 set command=%command% -DreformatCodeBeforeCommit="%reformatCodeBeforeCommit%"
 :reformatCodeBeforeCommit
 
+if "%renderThreads%" == "" goto renderThreads
+set command=%command% -DrenderThreads="%renderThreads%"
+:renderThreads
+
 if "%selectedWarArtifactId%" == "" goto selectedWarArtifactId
 set command=%command% -DselectedWarArtifactId="%selectedWarArtifactId%"
 :selectedWarArtifactId
@@ -124,6 +158,14 @@ if "%sortByType%" == "" goto sortByType
 set command=%command% -DsortByType="%sortByType%"
 :sortByType
 
+if "%templateDirectory%" == "" goto templateDirectory
+set command=%command% -DtemplateDirectory="%templateDirectory%"
+:templateDirectory
+
+if "%templateEngine%" == "" goto templateEngine
+set command=%command% -DtemplateEngine="%templateEngine%"
+:templateEngine
+
 if "%vmParameters%" == "" goto vmParameters
 set command=%command% -DvmParameters="%vmParameters%"
 :vmParameters
@@ -0,0 +1,154 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.manager.WagonManager;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryFactory;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.layout.ArtifactRepositoryLayout;
+import org.apache.maven.artifact.resolver.ArtifactResolver;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Present, downloaded, missing and failed attachments against the fixture repository
+ *
+ * @since 10/18/2026
+ */
+public class AttachmentDownloaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final RecordingLog log = new RecordingLog();
+    private FixtureRepository repository;
+    private File missingFile;
+
+    @Before
+    public void setUp() throws Exception {
+        repository = new FixtureRepository(folder.newFolder("local"));
+        missingFile = new File(folder.getRoot(), "attachments-missing.txt");
+    }
+
+    @After
+    public void tearDown() {
+        repository.dispose();
+    }
+
+    @Test
+    public void missingAttachmentsAreRecorded() throws Exception {
+        Artifact shared = library("shared");
+        AttachmentDownloader downloader = newDownloader(repository.getRemoteRepositories());
+
+        downloader.download(Collections.singletonList(shared), Arrays.asList("sources", "javadoc"), 2);
+        assertEquals("Attachments: 1 downloaded, 0 present, 1 not found, 0 not found before, 0 failed", log.getLast());
+        assertTrue(repository.getLocalFile(attachment(shared, "sources")).isFile());
+        assertEquals(Arrays.asList("org.fixture:shared:jar:javadoc:1.0"), readMissing());
+
+        // the javadoc is not requested again
+        downloader.download(Collections.singletonList(shared), Arrays.asList("sources", "javadoc"), 2);
+        assertEquals("Attachments: 0 downloaded, 1 present, 0 not found, 1 not found before, 0 failed", log.getLast());
+
+        // until the file is deleted
+        assertTrue(missingFile.delete());
+        downloader.download(Collections.singletonList(shared), Arrays.asList("sources", "javadoc"), 2);
+        assertEquals("Attachments: 0 downloaded, 1 present, 1 not found, 0 not found before, 0 failed", log.getLast());
+        assertEquals(Arrays.asList("org.fixture:shared:jar:javadoc:1.0"), readMissing());
+    }
+
+    @Test
+    public void failedAttachmentsAreRetried() throws Exception {
+        Artifact nearA = library("near-a");
+
+        // near-a-1.0-sources.jar.sha1 of the fixture doesn't match
+        newDownloader(Collections.singletonList(newStrictRepository())).download(Collections.singletonList(nearA), Collections.singletonList("sources"), 1);
+        assertEquals("Attachments: 0 downloaded, 0 present, 0 not found, 0 not found before, 1 failed", log.getLast());
+        assertFalse(missingFile.exists());
+
+        newDownloader(repository.getRemoteRepositories()).download(Collections.singletonList(nearA), Collections.singletonList("sources"), 1);
+        assertEquals("Attachments: 1 downloaded, 0 present, 0 not found, 0 not found before, 0 failed", log.getLast());
+        assertTrue(repository.getLocalFile(attachment(nearA, "sources")).isFile());
+    }
+
+    @Test
+    public void classifiedArtifactsAreSkipped() throws Exception {
+        Artifact classified = repository.getArtifactFactory().createArtifactWithClassifier(FixtureRepository.GROUP_ID, "shared", "1.0", "jar", "tests");
+        Artifact pom = repository.getArtifactFactory().createArtifact(FixtureRepository.GROUP_ID, "shared", "1.0", Artifact.SCOPE_COMPILE, "pom");
+        newDownloader(repository.getRemoteRepositories()).download(Arrays.asList(classified, pom), Arrays.asList("sources", "javadoc"), 2);
+        assertEquals("Attachments: 0 downloaded, 0 present, 0 not found, 0 not found before, 0 failed", log.getLast());
+        assertFalse(missingFile.exists());
+    }
+
+    private AttachmentDownloader newDownloader(List<ArtifactRepository> remoteRepositories) throws Exception {
+        return new AttachmentDownloader(log, repository.getArtifactFactory(), repository.lookup(ArtifactResolver.class),
+                repository.lookup(WagonManager.class), repository.getLocalRepository(), remoteRepositories, missingFile);
+    }
+
+    /**
+     * @return the fixture repository failing on checksum mismatches
+     */
+    private ArtifactRepository newStrictRepository() throws Exception {
+        ArtifactRepositoryPolicy policy = new ArtifactRepositoryPolicy(true, ArtifactRepositoryPolicy.UPDATE_POLICY_ALWAYS, ArtifactRepositoryPolicy.CHECKSUM_POLICY_FAIL);
+        return repository.lookup(ArtifactRepositoryFactory.class).createArtifactRepository("strict",
+                "file://" + FixtureRepository.getRemoteDirectory().getAbsolutePath(), repository.lookup(ArtifactRepositoryLayout.class, "default"), policy, policy);
+    }
+
+    private Artifact library(String artifactId) {
+        return repository.getArtifactFactory().createArtifact(FixtureRepository.GROUP_ID, artifactId, "1.0", Artifact.SCOPE_COMPILE, "jar");
+    }
+
+    private Artifact attachment(Artifact artifact, String classifier) {
+        return repository.getArtifactFactory().createArtifactWithClassifier(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), "jar", classifier);
+    }
+
+    private List<String> readMissing() throws Exception {
+        List<String> ids = new ArrayList<String>();
+        for (String line : Util.readText(missingFile).split("\n"))
+            if (!line.startsWith("#"))
+                ids.add(line);
+        return ids;
+    }
+
+    /**
+     * Log keeping the info messages
+     */
+    private static class RecordingLog extends SystemStreamLog {
+        private final List<String> lines = new ArrayList<String>();
+
+        @Override
+        public void info(CharSequence content) {
+            lines.add(content.toString());
+        }
+
+        public String getLast() {
+            return lines.get(lines.size() - 1);
+        }
+    }
+}
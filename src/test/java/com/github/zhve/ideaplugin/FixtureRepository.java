@@ -0,0 +1,130 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryFactory;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.layout.ArtifactRepositoryLayout;
+import org.apache.maven.artifact.resolver.filter.ExcludesArtifactFilter;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.codehaus.plexus.DefaultPlexusContainer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Maven 2 components over an empty local repository and the file:// fixture repository of the test resources
+ * with the artifacts of the group org.fixture.
+ *
+ * @since 10/18/2026
+ */
+class FixtureRepository {
+    public static final String GROUP_ID = "org.fixture";
+
+    private final DefaultPlexusContainer container;
+    private final ArtifactFactory artifactFactory;
+    private final ArtifactRepository localRepository;
+    private final ArtifactRepository remoteRepository;
+
+    /**
+     * @param localDirectory empty directory of the local repository
+     * @throws Exception if the Maven components can't be started
+     */
+    public FixtureRepository(File localDirectory) throws Exception {
+        container = new DefaultPlexusContainer();
+        container.initialize();
+        container.start();
+        artifactFactory = lookup(ArtifactFactory.class);
+        ArtifactRepositoryFactory repositoryFactory = lookup(ArtifactRepositoryFactory.class);
+        ArtifactRepositoryLayout layout = (ArtifactRepositoryLayout) container.lookup(ArtifactRepositoryLayout.ROLE, "default");
+        ArtifactRepositoryPolicy policy = new ArtifactRepositoryPolicy(true, ArtifactRepositoryPolicy.UPDATE_POLICY_ALWAYS, ArtifactRepositoryPolicy.CHECKSUM_POLICY_IGNORE);
+        localRepository = repositoryFactory.createArtifactRepository("local", "file://" + localDirectory.getAbsolutePath(), layout, null, null);
+        remoteRepository = repositoryFactory.createArtifactRepository("fixture", "file://" + getRemoteDirectory().getAbsolutePath(), layout, policy, policy);
+    }
+
+    public static File getRemoteDirectory() {
+        return new File(FixtureRepository.class.getResource("/repository").getFile());
+    }
+
+    public <T> T lookup(Class<T> role) throws Exception {
+        return role.cast(container.lookup(role.getName()));
+    }
+
+    public <T> T lookup(Class<T> role, String hint) throws Exception {
+        return role.cast(container.lookup(role.getName(), hint));
+    }
+
+    public ArtifactFactory getArtifactFactory() {
+        return artifactFactory;
+    }
+
+    public ArtifactRepository getLocalRepository() {
+        return localRepository;
+    }
+
+    public List<ArtifactRepository> getRemoteRepositories() {
+        return Collections.singletonList(remoteRepository);
+    }
+
+    /**
+     * @param artifactId        artifactId in org.fixture
+     * @param version           version or version range
+     * @param scope             dependency scope
+     * @param excludedArtifacts groupId:artifactId of the excluded dependencies
+     * @return dependency artifact
+     * @throws Exception if the version is invalid
+     */
+    public Artifact dependency(String artifactId, String version, String scope, String... excludedArtifacts) throws Exception {
+        Artifact artifact = artifactFactory.createDependencyArtifact(GROUP_ID, artifactId, VersionRange.createFromVersionSpec(version), "jar", null, scope);
+        if (excludedArtifacts.length > 0)
+            artifact.setDependencyFilter(new ExcludesArtifactFilter(Arrays.asList(excludedArtifacts)));
+        return artifact;
+    }
+
+    /**
+     * @param artifact artifact in org.fixture
+     * @return file of the artifact in the local repository
+     */
+    public File getLocalFile(Artifact artifact) {
+        return new File(localRepository.getBasedir(), localRepository.pathOf(artifact));
+    }
+
+    /**
+     * Copies a POM of the fixture repository to the local repository
+     *
+     * @param artifactId artifactId in org.fixture
+     * @param version    version
+     * @throws IOException if the POM can't be copied
+     */
+    public void installPom(String artifactId, String version) throws IOException {
+        Artifact pom = artifactFactory.createProjectArtifact(GROUP_ID, artifactId, version);
+        Util.writeText(getLocalFile(pom), Util.readText(new File(getRemoteDirectory(), remoteRepository.pathOf(pom))));
+    }
+
+    public void dispose() {
+        container.dispose();
+    }
+}
@@ -0,0 +1,177 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.resolver.ArtifactResolutionException;
+import org.apache.maven.artifact.resolver.ArtifactResolver;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Update policies, offline mode and stale metadata of the resolution policy against the fixture repository
+ *
+ * @since 10/18/2026
+ */
+public class ResolutionPolicyTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final RecordingLog log = new RecordingLog();
+    private FixtureRepository repository;
+    private ArtifactRepository remoteRepository;
+    private List<ArtifactRepository> remoteRepositories;
+    private MavenProject project;
+    private MavenTransitiveResolver maven;
+
+    @Before
+    public void setUp() throws Exception {
+        repository = new FixtureRepository(folder.newFolder("local"));
+        remoteRepository = repository.getRemoteRepositories().get(0);
+        remoteRepository.getReleases().setUpdatePolicy(ArtifactRepositoryPolicy.UPDATE_POLICY_DAILY);
+        remoteRepository.getSnapshots().setUpdatePolicy(ArtifactRepositoryPolicy.UPDATE_POLICY_DAILY);
+        project = new MavenProject(new Model());
+        remoteRepositories = new ArrayList<ArtifactRepository>(repository.getRemoteRepositories());
+        project.setRemoteArtifactRepositories(remoteRepositories);
+        maven = new MavenTransitiveResolver(repository.lookup(ArtifactResolver.class), repository.getLocalRepository(),
+                repository.lookup(ArtifactMetadataSource.class, "maven"));
+    }
+
+    @After
+    public void tearDown() {
+        repository.dispose();
+    }
+
+    @Test
+    public void durations() throws Exception {
+        assertEquals("interval:2", getUpdatePolicy("ttl=90s"));
+        assertEquals("interval:30", getUpdatePolicy("ttl=30m"));
+        assertEquals("interval:720", getUpdatePolicy("ttl=12h"));
+        assertEquals("interval:10080", getUpdatePolicy("ttl=7d"));
+        assertEquals("interval:15", getUpdatePolicy("ttl=15"));
+        assertEquals(ArtifactRepositoryPolicy.UPDATE_POLICY_ALWAYS, getUpdatePolicy("ttl=0s"));
+        assertEquals(ArtifactRepositoryPolicy.UPDATE_POLICY_ALWAYS, getUpdatePolicy("always"));
+        assertEquals(ArtifactRepositoryPolicy.UPDATE_POLICY_NEVER, getUpdatePolicy("offline"));
+        assertEquals(ArtifactRepositoryPolicy.UPDATE_POLICY_DAILY, getUpdatePolicy("repository"));
+    }
+
+    @Test
+    public void malformedValues() {
+        for (String value : new String[]{"ttl=", "ttl=h", "ttl=-1h", "ttl=5w", "ttl=1.5h", "sometimes", null}) {
+            try {
+                new ResolutionPolicy(value);
+                fail(value + " is accepted");
+            } catch (MojoExecutionException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void offlineBlacklistsRepositoriesUntilRestore() throws Exception {
+        // near-a and shared are cached, near-b and scoped are not
+        maven.resolve(log, dependencies("near-a"), originatingArtifact(), Collections.<String, Artifact>emptyMap(), remoteRepositories, null);
+
+        ResolutionPolicy policy = new ResolutionPolicy(ResolutionPolicy.OFFLINE);
+        policy.apply(Arrays.asList(project, project));
+        assertTrue(remoteRepository.isBlacklisted());
+        assertEquals(2, maven.resolve(log, dependencies("near-a"), originatingArtifact(), Collections.<String, Artifact>emptyMap(), remoteRepositories, null).size());
+        try {
+            maven.resolve(log, dependencies("near-b"), originatingArtifact(), Collections.<String, Artifact>emptyMap(), remoteRepositories, null);
+            fail("near-b is resolved offline");
+        } catch (ArtifactResolutionException e) {
+            // expected
+        }
+
+        // Maven keeps the stub of the missing near-b project, another artifact shows the repository back
+        policy.restore();
+        assertFalse(remoteRepository.isBlacklisted());
+        assertEquals(ArtifactRepositoryPolicy.UPDATE_POLICY_DAILY, remoteRepository.getReleases().getUpdatePolicy());
+        assertEquals(3, maven.resolve(log, dependencies("scoped"), originatingArtifact(), Collections.<String, Artifact>emptyMap(), remoteRepositories, null).size());
+    }
+
+    @Test
+    public void staleRangeMetadataIsLogged() throws Exception {
+        ResolutionPolicy policy = new ResolutionPolicy("ttl=1h");
+        policy.apply(Collections.singletonList(project));
+        List<Artifact> artifacts = maven.resolve(log, dependencies("ranged"), originatingArtifact(), Collections.<String, Artifact>emptyMap(), remoteRepositories, null);
+        File metadata = new File(repository.getLocalRepository().getBasedir(), "org/fixture/shared/maven-metadata-fixture.xml");
+        assertTrue(metadata.isFile());
+
+        // checked half an hour ago
+        assertTrue(metadata.setLastModified(System.currentTimeMillis() - 30 * 60 * 1000L));
+        policy.logStale(log, repository.getLocalRepository(), artifacts);
+        assertEquals(Collections.emptyList(), log.lines);
+
+        // checked two hours ago
+        assertTrue(metadata.setLastModified(System.currentTimeMillis() - 120 * 60 * 1000L));
+        policy.logStale(log, repository.getLocalRepository(), artifacts);
+        policy.restore();
+        assertEquals(Arrays.asList(
+                "",
+                "Stale Metadata: 1 SNAPSHOT and version range artifacts, resolution policy ttl=1h",
+                "  org.fixture:shared:jar:1.5 (fixture, checked 120 min ago)"), log.lines);
+    }
+
+    private String getUpdatePolicy(String value) throws MojoExecutionException {
+        ResolutionPolicy policy = new ResolutionPolicy(value);
+        policy.apply(Collections.singletonList(project));
+        String updatePolicy = remoteRepository.getReleases().getUpdatePolicy();
+        assertEquals(updatePolicy, remoteRepository.getSnapshots().getUpdatePolicy());
+        policy.restore();
+        assertEquals(ArtifactRepositoryPolicy.UPDATE_POLICY_DAILY, remoteRepository.getReleases().getUpdatePolicy());
+        return updatePolicy;
+    }
+
+    private Set<Artifact> dependencies(String artifactId) throws Exception {
+        return Collections.singleton(repository.dependency(artifactId, "1.0", Artifact.SCOPE_COMPILE));
+    }
+
+    private Artifact originatingArtifact() {
+        return repository.getArtifactFactory().createBuildArtifact(FixtureRepository.GROUP_ID, "project", "1.0", "jar");
+    }
+
+    /**
+     * Log keeping the info messages
+     */
+    private static class RecordingLog extends SystemStreamLog {
+        private final List<String> lines = new ArrayList<String>();
+
+        @Override
+        public void info(CharSequence content) {
+            lines.add(content.toString());
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.github.zhve.ideaplugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
+import org.apache.maven.artifact.resolver.ArtifactCollector;
+import org.apache.maven.artifact.resolver.ArtifactResolutionException;
+import org.apache.maven.artifact.resolver.ArtifactResolver;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * The local backend resolves the fixture graphs exactly like the Maven artifact resolver
+ *
+ * @since 10/18/2026
+ */
+public class TransitiveResolverConformanceTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Log log = new SystemStreamLog();
+    private FixtureRepository repository;
+    private MavenTransitiveResolver maven;
+    private LocalRepositoryResolver local;
+
+    @Before
+    public void setUp() throws Exception {
+        repository = new FixtureRepository(folder.newFolder("local"));
+        ArtifactResolver artifactResolver = repository.lookup(ArtifactResolver.class);
+        ArtifactMetadataSource metadataSource = repository.lookup(ArtifactMetadataSource.class, "maven");
+        maven = new MavenTransitiveResolver(artifactResolver, repository.getLocalRepository(), metadataSource);
+        local = new LocalRepositoryResolver(repository.lookup(ArtifactCollector.class), artifactResolver, repository.getLocalRepository(),
+                new LocalRepositoryMetadataSource(repository.getArtifactFactory(), metadataSource), maven);
+    }
+
+    @After
+    public void tearDown() {
+        repository.dispose();
+    }
+
+    @Test
+    public void nearestWins() throws Exception {
+        // near-b -> near-c -> shared:2.0 is deeper than near-a -> shared:1.0
+        List<String> keys = assertConformant(Collections.<String, Artifact>emptyMap(),
+                repository.dependency("near-b", "1.0", Artifact.SCOPE_COMPILE),
+                repository.dependency("near-a", "1.0", Artifact.SCOPE_COMPILE));
+        assertEquals(Arrays.asList(
+                "org.fixture:near-b:jar:1.0:compile",
+                "org.fixture:near-c:jar:1.0:compile",
+                "org.fixture:shared:jar:1.0:compile",
+                "org.fixture:near-a:jar:1.0:compile"), keys);
+    }
+
+    @Test
+    public void scope() throws Exception {
+        List<String> keys = assertConformant(Collections.<String, Artifact>emptyMap(),
+                repository.dependency("scoped", "1.0", Artifact.SCOPE_COMPILE));
+        assertEquals(Arrays.asList(
+                "org.fixture:scoped:jar:1.0:compile",
+                "org.fixture:shared:jar:1.0:compile",
+                "org.fixture:runtime-dep:jar:1.0:runtime"), keys);
+
+        keys = assertConformant(Collections.<String, Artifact>emptyMap(),
+                repository.dependency("scoped", "1.0", Artifact.SCOPE_TEST));
+        assertEquals(Arrays.asList(
+                "org.fixture:scoped:jar:1.0:test",
+                "org.fixture:shared:jar:1.0:test",
+                "org.fixture:runtime-dep:jar:1.0:test"), keys);
+    }
+
+    @Test
+    public void exclusion() throws Exception {
+        List<String> keys = assertConformant(Collections.<String, Artifact>emptyMap(),
+                repository.dependency("near-b", "1.0", Artifact.SCOPE_COMPILE, "org.fixture:near-c"));
+        assertEquals(Collections.singletonList("org.fixture:near-b:jar:1.0:compile"), keys);
+    }
+
+    @Test
+    public void managedVersion() throws Exception {
+        Artifact managed = repository.getArtifactFactory().createDependencyArtifact(FixtureRepository.GROUP_ID, "shared", VersionRange.createFromVersion("2.0"), "jar", null, Artifact.SCOPE_COMPILE);
+        List<String> keys = assertConformant(Collections.singletonMap(managed.getDependencyConflictId(), managed),
+                repository.dependency("near-a", "1.0", Artifact.SCOPE_COMPILE));
+        assertEquals(Arrays.asList(
+                "org.fixture:near-a:jar:1.0:compile",
+                "org.fixture:shared:jar:2.0:compile"), keys);
+    }
+
+    @Test
+    public void range() throws Exception {
+        List<String> keys = assertConformant(Collections.<String, Artifact>emptyMap(),
+                repository.dependency("ranged", "1.0", Artifact.SCOPE_COMPILE));
+        assertEquals(Arrays.asList(
+                "org.fixture:ranged:jar:1.0:compile",
+                "org.fixture:shared:jar:1.5:compile"), keys);
+
+        keys = assertConformant(Collections.<String, Artifact>emptyMap(),
+                repository.dependency("shared", "[1.0,1.5]", Artifact.SCOPE_COMPILE));
+        assertEquals(Collections.singletonList("org.fixture:shared:jar:1.5:compile"), keys);
+    }
+
+    @Test
+    public void inheritance() throws Exception {
+        // groupId, version, properties, dependency management and dependencies of the parent, the child property wins
+        List<String> keys = assertConformant(Collections.<String, Artifact>emptyMap(),
+                repository.dependency("child", "1.0", Artifact.SCOPE_COMPILE));
+        assertEquals(Arrays.asList(
+                "org.fixture:child:jar:1.0:compile",
+                "org.fixture:shared:jar:1.5:compile",
+                "org.fixture:near-a:jar:1.0:compile",
+                "org.fixture:scoped:jar:1.0:compile",
+                "org.fixture:runtime-dep:jar:1.0:runtime",
+                "org.fixture:near-c:jar:1.0:compile"), keys);
+        assertMetadata(" 0 from Maven");
+    }
+
+    @Test
+    public void importedManagement() throws Exception {
+        // Maven 2 looks for imported BOMs in the repositories of the importing POM only
+        repository.installPom("bom", "1.0");
+        repository.installPom("bom-other", "1.0");
+        // own entries win over imported ones, earlier imports win over later ones
+        List<String> keys = assertConformant(Collections.<String, Artifact>emptyMap(),
+                repository.dependency("bom-user", "1.0", Artifact.SCOPE_COMPILE));
+        assertEquals(Arrays.asList(
+                "org.fixture:bom-user:jar:1.0:compile",
+                "org.fixture:shared:jar:1.0:compile",
+                "org.fixture:near-b:jar:1.0:compile",
+                "org.fixture:near-c:jar:1.0:compile",
+                "org.fixture:runtime-dep:jar:1.0:compile"), keys);
+        assertMetadata(" 0 from Maven");
+    }
+
+    @Test
+    public void profilesAreDelegated() throws Exception {
+        List<String> keys = assertConformant(Collections.<String, Artifact>emptyMap(),
+                repository.dependency("profiled", "1.0", Artifact.SCOPE_COMPILE));
+        assertEquals(Arrays.asList(
+                "org.fixture:profiled:jar:1.0:compile",
+                "org.fixture:shared:jar:1.0:compile",
+                "org.fixture:runtime-dep:jar:1.0:compile"), keys);
+        assertMetadata("from Maven (profiles 1)");
+    }
+
+    @Test
+    public void relocationIsDelegated() throws Exception {
+        List<String> keys = assertConformant(Collections.<String, Artifact>emptyMap(),
+                repository.dependency("relocated", "1.0", Artifact.SCOPE_COMPILE));
+        assertEquals(Collections.singletonList("org.fixture:shared:jar:2.0:compile"), keys);
+        // the relocated POM is parsed, only the POM of the relocation target is used
+        assertMetadata("2 POMs parsed, metadata 1 local");
+    }
+
+    @Test
+    public void overriddenPropertyIsDelegated() throws Exception {
+        List<String> keys = assertConformant(Collections.<String, Artifact>emptyMap(),
+                repository.dependency("overridable", "1.0", Artifact.SCOPE_COMPILE));
+        assertEquals(Arrays.asList(
+                "org.fixture:overridable:jar:1.0:compile",
+                "org.fixture:shared:jar:1.0:compile"), keys);
+        assertMetadata(" 0 from Maven");
+
+        // -D of the command line is a system property too, its priority is the one of the running Maven
+        System.setProperty("fixture.shared.version", "2.0");
+        try {
+            local = new LocalRepositoryResolver(repository.lookup(ArtifactCollector.class), repository.lookup(ArtifactResolver.class), repository.getLocalRepository(),
+                    new LocalRepositoryMetadataSource(repository.getArtifactFactory(), repository.lookup(ArtifactMetadataSource.class, "maven")), maven);
+            assertConformant(Collections.<String, Artifact>emptyMap(),
+                    repository.dependency("overridable", "1.0", Artifact.SCOPE_COMPILE));
+            assertMetadata("from Maven (overridden 1)");
+        } finally {
+            System.getProperties().remove("fixture.shared.version");
+        }
+    }
+
+    @Test
+    public void missingLocalArtifactIsResolved() throws Exception {
+        List<Artifact> mavenList = resolve(maven, Collections.<String, Artifact>emptyMap(), repository.dependency("near-a", "1.0", Artifact.SCOPE_COMPILE));
+        Artifact shared = mavenList.get(1);
+        assertTrue(repository.getLocalFile(shared).delete());
+
+        List<Artifact> localList = resolve(local, Collections.<String, Artifact>emptyMap(), repository.dependency("near-a", "1.0", Artifact.SCOPE_COMPILE));
+        assertEquals(toKeys(mavenList, true), toKeys(localList, true));
+        assertTrue(repository.getLocalFile(shared).isFile());
+        assertTrue(local.getStatistics(), local.getStatistics().contains("artifacts 1 local, 1 resolved by Maven"));
+    }
+
+    @Test
+    public void missingArtifactFallsBackToMaven() throws Exception {
+        // the jar of no-jar is in neither repository
+        Exception mavenException = null;
+        try {
+            resolve(maven, Collections.<String, Artifact>emptyMap(), repository.dependency("uses-no-jar", "1.0", Artifact.SCOPE_COMPILE));
+        } catch (ArtifactResolutionException e) {
+            mavenException = e;
+        }
+        assertNotNull(mavenException);
+        try {
+            resolve(local, Collections.<String, Artifact>emptyMap(), repository.dependency("uses-no-jar", "1.0", Artifact.SCOPE_COMPILE));
+            fail("no-jar is resolved");
+        } catch (ArtifactResolutionException e) {
+            assertEquals(mavenException.getMessage(), e.getMessage());
+        }
+        assertTrue(local.getStatistics(), local.getStatistics().contains("1 resolutions, 1 by Maven"));
+    }
+
+    /**
+     * Resolve the dependencies by Maven, then by the local backend from the filled local repository
+     *
+     * @return keys of the resolved artifacts without files
+     */
+    private List<String> assertConformant(Map<String, Artifact> managedVersions, Artifact... dependencies) throws Exception {
+        // Maven updates the dependencies: versions of the ranges, relocations
+        Artifact[] copies = copy(dependencies);
+        List<Artifact> mavenList = resolve(maven, managedVersions, dependencies);
+        List<Artifact> localList = resolve(local, managedVersions, copies);
+        assertEquals(toKeys(mavenList, true), toKeys(localList, true));
+        for (Artifact artifact : localList)
+            assertTrue(artifact.getId(), artifact.isResolved());
+        assertTrue(local.getStatistics(), local.getStatistics().contains(", 0 by Maven, "));
+        return toKeys(localList, false);
+    }
+
+    private void assertMetadata(String statistics) {
+        assertTrue(local.getStatistics(), local.getStatistics().contains(statistics));
+    }
+
+    private List<Artifact> resolve(TransitiveResolver resolver, Map<String, Artifact> managedVersions, Artifact... dependencies) throws Exception {
+        Artifact originatingArtifact = repository.getArtifactFactory().createBuildArtifact(FixtureRepository.GROUP_ID, "project", "1.0", "jar");
+        return resolver.resolve(log, new LinkedHashSet<Artifact>(Arrays.asList(dependencies)), originatingArtifact,
+                managedVersions, repository.getRemoteRepositories(), null);
+    }
+
+    private static Artifact[] copy(Artifact[] artifacts) {
+        Artifact[] copies = new Artifact[artifacts.length];
+        for (int i = 0; i < artifacts.length; i++)
+            copies[i] = Util.copyArtifact(artifacts[i]);
+        return copies;
+    }
+
+    private static List<String> toKeys(List<Artifact> artifacts, boolean files) {
+        List<String> keys = new ArrayList<String>();
+        for (Artifact artifact : artifacts)
+            keys.add(artifact.getId() + ":" + artifact.getScope() + (files ? " " + artifact.getFile() : ""));
+        return keys;
+    }
+}